@@ -90,18 +90,22 @@ public class OpmlImportActivity extends ToolbarActivity {
         });
         viewBinding.butConfirm.setOnClickListener(v -> {
             viewBinding.progressBar.setVisibility(View.VISIBLE);
-            Completable.fromAction(() -> {
-                SparseBooleanArray checked = viewBinding.feedlist.getCheckedItemPositions();
-                for (int i = 0; i < checked.size(); i++) {
-                    if (!checked.valueAt(i)) {
-                        continue;
-                    }
-                    OpmlElement element = readElements.get(checked.keyAt(i));
-                    Feed feed = new Feed(element.getXmlUrl(), null,
-                            element.getText() != null ? element.getText() : "Unknown podcast");
-                    feed.setItems(Collections.emptyList());
-                    FeedDatabaseWriter.updateFeed(this, feed, false);
+            List<Feed> feeds = new ArrayList<>();
+            SparseBooleanArray checked = viewBinding.feedlist.getCheckedItemPositions();
+            for (int i = 0; i < checked.size(); i++) {
+                if (!checked.valueAt(i)) {
+                    continue;
                 }
+                OpmlElement element = readElements.get(checked.keyAt(i));
+                Feed feed = new Feed(element.getXmlUrl(), null,
+                        element.getText() != null ? element.getText() : "Unknown podcast");
+                feed.setItems(Collections.emptyList());
+                feeds.add(feed);
+            }
+            Completable.fromAction(() -> {
+                // Only adds the feeds, the refresh downloads them in the background and continues
+                // with the remaining ones if the app gets killed in the meantime
+                FeedDatabaseWriter.addNewFeeds(this, feeds);
                 FeedUpdateManager.getInstance().runOnce(this);
             })
                     .subscribeOn(Schedulers.io())
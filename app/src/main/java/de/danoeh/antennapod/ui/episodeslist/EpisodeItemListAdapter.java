@@ -13,8 +13,12 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.FragmentActivity;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.playback.service.PlaybackService;
+import de.danoeh.antennapod.storage.preferences.PlaybackPreferences;
 import de.danoeh.antennapod.ui.SelectableAdapter;
 import de.danoeh.antennapod.ui.common.ThemeUtils;
 
@@ -22,6 +26,7 @@ import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import de.danoeh.antennapod.R;
 import de.danoeh.antennapod.activity.MainActivity;
@@ -33,12 +38,19 @@ import de.danoeh.antennapod.ui.screen.episode.ItemPagerFragment;
  */
 public class EpisodeItemListAdapter extends SelectableAdapter<EpisodeItemViewHolder>
         implements View.OnCreateContextMenuListener {
+    /**
+     * Above this size, comparing the lists takes longer than simply binding the visible items again.
+     */
+    private static final int MAX_DIFF_SIZE = 2000;
+    private static final String PAYLOAD_CHANGED = "changed";
 
     private final WeakReference<FragmentActivity> mainActivityRef;
     private List<FeedItem> episodes = new ArrayList<>();
     private FeedItem longPressedItem;
     int longPressedPosition = 0; // used to init actionMode
     private int dummyViews = 0;
+    private long playingMediaId = RecyclerView.NO_ID;
+    private boolean isPlayerPlaying = false;
 
     public EpisodeItemListAdapter(FragmentActivity mainActivity) {
         super(mainActivity);
@@ -47,16 +59,43 @@ public class EpisodeItemListAdapter extends SelectableAdapter<EpisodeItemViewHol
     }
 
     public void setDummyViews(int dummyViews) {
+        if (this.dummyViews == dummyViews) {
+            return;
+        }
         this.dummyViews = dummyViews;
         notifyDataSetChanged();
     }
 
+    /**
+     * Replaces the displayed episodes. If a new list is passed, only the rows that actually changed
+     * are inserted, removed or bound again. If the list that is already displayed is passed
+     * after modifying it, the whole list is bound again.
+     */
     public void updateItems(List<FeedItem> items) {
-        episodes = items;
-        notifyDataSetChanged();
+        long newPlayingMediaId = getPlayingMediaId();
+        boolean newIsPlayerPlaying = PlaybackService.isRunning
+                && PlaybackPreferences.getCurrentPlayerStatus() == PlaybackPreferences.PLAYER_STATUS_PLAYING;
+        if (items == episodes || items.size() > MAX_DIFF_SIZE || episodes.size() > MAX_DIFF_SIZE) {
+            episodes = items;
+            notifyDataSetChanged();
+        } else {
+            DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new EpisodeDiffCallback(episodes, items,
+                    newPlayingMediaId, newIsPlayerPlaying), false);
+            episodes = items;
+            diff.dispatchUpdatesTo(this);
+        }
+        playingMediaId = newPlayingMediaId;
+        isPlayerPlaying = newIsPlayerPlaying;
         onSelectedItemsUpdated();
     }
 
+    private static long getPlayingMediaId() {
+        if (PlaybackPreferences.getCurrentlyPlayingMediaType() != FeedMedia.PLAYABLE_TYPE_FEEDMEDIA) {
+            return RecyclerView.NO_ID;
+        }
+        return PlaybackPreferences.getCurrentlyPlayingFeedMediaId();
+    }
+
     @Override
     public final int getItemViewType(int position) {
         return R.id.view_type_episode_item;
@@ -170,7 +209,72 @@ public class EpisodeItemListAdapter extends SelectableAdapter<EpisodeItemViewHol
      * @param position Position of the item that has changed
      */
     public void notifyItemChangedCompat(int position) {
-        notifyItemChanged(position, "foo");
+        notifyItemChanged(position, PAYLOAD_CHANGED);
+    }
+
+    private class EpisodeDiffCallback extends DiffUtil.Callback {
+        private final List<FeedItem> oldItems;
+        private final List<FeedItem> newItems;
+        private final boolean playbackChanged;
+        private final long newPlayingMediaId;
+
+        EpisodeDiffCallback(List<FeedItem> oldItems, List<FeedItem> newItems,
+                            long newPlayingMediaId, boolean newIsPlayerPlaying) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+            this.newPlayingMediaId = newPlayingMediaId;
+            this.playbackChanged = playingMediaId != newPlayingMediaId || isPlayerPlaying != newIsPlayerPlaying;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return oldItems.get(oldPosition).getId() == newItems.get(newPosition).getId();
+        }
+
+        /**
+         * Compares everything that {@link EpisodeItemViewHolder#bind(FeedItem)} displays. Download progress
+         * is not part of the item and is updated separately through {@link #notifyItemChangedCompat(int)}.
+         */
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            FeedItem oldItem = oldItems.get(oldPosition);
+            FeedItem newItem = newItems.get(newPosition);
+            if (oldItem.getPlayState() != newItem.getPlayState()
+                    || oldItem.isTagged(FeedItem.TAG_FAVORITE) != newItem.isTagged(FeedItem.TAG_FAVORITE)
+                    || oldItem.isTagged(FeedItem.TAG_QUEUE) != newItem.isTagged(FeedItem.TAG_QUEUE)
+                    || !Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    || !Objects.equals(oldItem.getPubDate(), newItem.getPubDate())) {
+                return false;
+            }
+            FeedMedia oldMedia = oldItem.getMedia();
+            FeedMedia newMedia = newItem.getMedia();
+            if (oldMedia == null || newMedia == null) {
+                return oldMedia == newMedia;
+            }
+            if (playbackChanged && (oldMedia.getId() == playingMediaId || newMedia.getId() == newPlayingMediaId)) {
+                return false;
+            }
+            return oldMedia.getPosition() == newMedia.getPosition()
+                    && oldMedia.getDuration() == newMedia.getDuration()
+                    && oldMedia.isDownloaded() == newMedia.isDownloaded()
+                    && oldMedia.getSize() == newMedia.getSize();
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(int oldPosition, int newPosition) {
+            return PAYLOAD_CHANGED; // Rebind the existing view holder, see notifyItemChangedCompat
+        }
     }
 
     @Nullable
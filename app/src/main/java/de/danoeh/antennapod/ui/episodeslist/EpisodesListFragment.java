@@ -31,6 +31,7 @@ import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -81,6 +82,17 @@ public abstract class EpisodesListFragment extends Fragment
     protected List<FeedItem> episodes = new ArrayList<>();
     protected Disposable disposable;
     protected TextView txtvInformation;
+    protected final ListUpdateCoalescer listUpdates = new ListUpdateCoalescer(new ListUpdateCoalescer.Callback() {
+        @Override
+        public void onItemsChanged(@NonNull Collection<FeedItem> items) {
+            applyChangedItems(items);
+        }
+
+        @Override
+        public void onReloadRequested() {
+            loadItems();
+        }
+    });
 
     @Override
     public void onStart() {
@@ -105,6 +117,7 @@ public abstract class EpisodesListFragment extends Fragment
     public void onStop() {
         super.onStop();
         EventBus.getDefault().unregister(this);
+        listUpdates.cancel();
         if (disposable != null) {
             disposable.dispose();
         }
@@ -329,7 +342,11 @@ public abstract class EpisodesListFragment extends Fragment
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEventMainThread(FeedItemEvent event) {
         Log.d(TAG, "onEventMainThread() called with: " + "event = [" + event + "]");
-        for (FeedItem item : event.items) {
+        listUpdates.itemsChanged(event.items);
+    }
+
+    private void applyChangedItems(Collection<FeedItem> items) {
+        for (FeedItem item : items) {
             int pos = FeedItemEvent.indexOfItemWithId(episodes, item.getId());
             if (pos >= 0) {
                 episodes.remove(pos);
@@ -383,17 +400,17 @@ public abstract class EpisodesListFragment extends Fragment
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onPlayerStatusChanged(PlayerStatusEvent event) {
-        loadItems();
+        listUpdates.requestReload();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onUnreadItemsChanged(UnreadItemsUpdateEvent event) {
-        loadItems();
+        listUpdates.requestReload();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onFeedListChanged(FeedListUpdateEvent event) {
-        loadItems();
+        listUpdates.requestReload();
     }
 
     protected void loadItems() {
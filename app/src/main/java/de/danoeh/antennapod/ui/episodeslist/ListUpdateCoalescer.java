@@ -0,0 +1,95 @@
+package de.danoeh.antennapod.ui.episodeslist;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+
+/**
+ * Collects the changes that an episode list receives through events and hands them over in batches.
+ * During bursts of events, for example while many episodes are downloaded or marked as played,
+ * the list is then reloaded or patched once instead of once per event.
+ * Must only be used from the main thread.
+ */
+public class ListUpdateCoalescer {
+    /**
+     * Long enough to catch events that are sent right after each other, short enough to not be noticeable.
+     */
+    private static final long WINDOW_MS = 100;
+
+    public interface Callback {
+        /**
+         * Called with the latest version of every item that changed during the window,
+         * unless a reload was requested in the same window.
+         */
+        void onItemsChanged(@NonNull Collection<FeedItem> items);
+
+        void onReloadRequested();
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    private final Map<Long, FeedItem> changedItems = new LinkedHashMap<>();
+    private final Callback callback;
+    private boolean reloadRequested = false;
+    private boolean scheduled = false;
+
+    public ListUpdateCoalescer(@NonNull Callback callback) {
+        this.callback = callback;
+    }
+
+    public void itemsChanged(@NonNull List<FeedItem> items) {
+        if (!reloadRequested) {
+            for (FeedItem item : items) {
+                changedItems.put(item.getId(), item);
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * Requests to load the whole list again. This replaces the changed items collected so far.
+     */
+    public void requestReload() {
+        reloadRequested = true;
+        changedItems.clear();
+        schedule();
+    }
+
+    /**
+     * Drops all pending changes, for example when the list is no longer displayed.
+     */
+    public void cancel() {
+        handler.removeCallbacks(flushRunnable);
+        scheduled = false;
+        reloadRequested = false;
+        changedItems.clear();
+    }
+
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            handler.postDelayed(flushRunnable, WINDOW_MS);
+        }
+    }
+
+    private void flush() {
+        scheduled = false;
+        if (reloadRequested) {
+            reloadRequested = false;
+            callback.onReloadRequested();
+        } else if (!changedItems.isEmpty()) {
+            Collection<FeedItem> items = new ArrayList<>(changedItems.values());
+            changedItems.clear();
+            callback.onItemsChanged(items);
+        }
+    }
+}
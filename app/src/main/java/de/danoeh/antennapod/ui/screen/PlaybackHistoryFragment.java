@@ -96,7 +96,7 @@ public class PlaybackHistoryFragment extends EpisodesListFragment {
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onHistoryUpdated(PlaybackHistoryEvent event) {
-        loadItems();
+        listUpdates.requestReload();
         updateToolbar();
     }
 
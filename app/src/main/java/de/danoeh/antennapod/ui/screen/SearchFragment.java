@@ -16,6 +16,7 @@ import android.widget.ProgressBar;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.widget.SearchView;
+import androidx.core.util.Pair;
 import com.google.android.material.appbar.MaterialToolbar;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -24,6 +25,8 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.chip.Chip;
 
 import de.danoeh.antennapod.R;
+import de.danoeh.antennapod.actionbutton.PlayActionButton;
+import de.danoeh.antennapod.actionbutton.StreamActionButton;
 import de.danoeh.antennapod.activity.MainActivity;
 import de.danoeh.antennapod.event.MessageEvent;
 import de.danoeh.antennapod.ui.episodeslist.EpisodeItemListAdapter;
@@ -37,16 +40,22 @@ import de.danoeh.antennapod.event.UnreadItemsUpdateEvent;
 import de.danoeh.antennapod.ui.episodeslist.EpisodeMultiSelectActionHandler;
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.ui.episodeslist.FeedItemMenuHandler;
 import de.danoeh.antennapod.net.discovery.CombinedSearcher;
+import de.danoeh.antennapod.playback.service.PlaybackController;
 import de.danoeh.antennapod.storage.database.DBReader;
+import de.danoeh.antennapod.storage.database.DBWriter;
+import de.danoeh.antennapod.storage.database.TranscriptSearchHit;
 import de.danoeh.antennapod.ui.appstartintent.OnlineFeedviewActivityStarter;
+import de.danoeh.antennapod.ui.common.Converter;
 import de.danoeh.antennapod.ui.discovery.OnlineSearchFragment;
 import de.danoeh.antennapod.ui.view.EmptyViewHandler;
 import de.danoeh.antennapod.ui.episodeslist.EpisodeItemListRecyclerView;
 import de.danoeh.antennapod.ui.view.FloatingSelectMenu;
 import de.danoeh.antennapod.ui.view.LiftOnScrollListener;
 import de.danoeh.antennapod.ui.episodeslist.EpisodeItemViewHolder;
+import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.Disposable;
@@ -55,8 +64,14 @@ import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import de.danoeh.antennapod.ui.screen.subscriptions.FeedMenuHandler;
 import de.danoeh.antennapod.event.FeedListUpdateEvent;
 
@@ -80,6 +95,8 @@ public class SearchFragment extends Fragment implements EpisodeItemListAdapter.O
     private EmptyViewHandler emptyViewHandler;
     private EpisodeItemListRecyclerView recyclerView;
     private List<FeedItem> results;
+    private Map<Long, TranscriptSearchHit> transcriptHits = Collections.emptyMap();
+    private PlaybackController controller;
     private Chip chip;
     private SearchView searchView;
     private FloatingSelectMenu floatingSelectMenu;
@@ -130,9 +147,23 @@ public class SearchFragment extends Fragment implements EpisodeItemListAdapter.O
         automaticSearchDebouncer = new Handler(Looper.getMainLooper());
     }
 
+    @Override
+    public void onStart() {
+        super.onStart();
+        controller = new PlaybackController(getActivity()) {
+            @Override
+            public void loadMediaInfo() {
+                // Do nothing
+            }
+        };
+        controller.init();
+    }
+
     @Override
     public void onStop() {
         super.onStop();
+        controller.release();
+        controller = null;
         if (disposableFeeds != null) {
             disposableFeeds.dispose();
         }
@@ -162,6 +193,22 @@ public class SearchFragment extends Fragment implements EpisodeItemListAdapter.O
                 MenuItemUtils.setOnClickListeners(menu, SearchFragment.this::onContextItemSelected);
             }
 
+            @Override
+            protected void afterBindViewHolder(EpisodeItemViewHolder holder, int pos) {
+                TranscriptSearchHit hit = holder.getFeedItem() == null
+                        ? null : transcriptHits.get(holder.getFeedItem().getId());
+                if (hit == null) {
+                    return;
+                }
+                holder.itemView.setOnClickListener(v -> {
+                    if (inActionMode()) {
+                        toggleSelection(holder.getBindingAdapterPosition());
+                    } else {
+                        jumpToTranscriptHit(hit);
+                    }
+                });
+            }
+
             @Override
             protected void onSelectedItemsUpdated() {
                 super.onSelectedItemsUpdated();
@@ -426,17 +473,65 @@ public class SearchFragment extends Fragment implements EpisodeItemListAdapter.O
                         emptyViewHandler.setTitle(getString(R.string.no_results_for_query, query));
                     }, error -> Log.e(TAG, Log.getStackTraceString(error)));
         }
-        disposableEpisodes = Observable.fromCallable(() -> DBReader.searchFeedItems(feed, query, state))
+        disposableEpisodes = Observable.fromCallable(() -> searchEpisodes(feed, query, state))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(results -> {
                     progressBar.setVisibility(View.GONE);
-                    this.results = results;
-                    adapter.updateItems(results);
+                    this.results = results.first;
+                    this.transcriptHits = results.second;
+                    adapter.updateItems(results.first);
                     emptyViewHandler.setTitle(getString(R.string.no_results_for_query, searchView.getQuery()));
                 }, error -> Log.e(TAG, Log.getStackTraceString(error)));
     }
 
+    /**
+     * Searches episode titles and descriptions, then appends episodes that only match in their transcript.
+     */
+    private static Pair<List<FeedItem>, Map<Long, TranscriptSearchHit>> searchEpisodes(
+            long feed, String query, int state) {
+        List<FeedItem> items = new ArrayList<>(DBReader.searchFeedItems(feed, query, state));
+        Set<Long> itemIds = new HashSet<>();
+        for (FeedItem item : items) {
+            itemIds.add(item.getId());
+        }
+        Map<Long, TranscriptSearchHit> hits = new HashMap<>();
+        for (TranscriptSearchHit hit : DBReader.searchTranscripts(feed, query, state)) {
+            if (itemIds.add(hit.item.getId())) {
+                items.add(hit.item);
+                hits.put(hit.item.getId(), hit);
+            }
+        }
+        return new Pair<>(items, hits);
+    }
+
+    private void jumpToTranscriptHit(TranscriptSearchHit hit) {
+        FeedMedia media = hit.item.getMedia();
+        if (media == null) {
+            return;
+        }
+        int position = (int) hit.startTime;
+        EventBus.getDefault().post(new MessageEvent(getString(R.string.transcript_search_jump_message,
+                Converter.getDurationStringLong(position), hit.words)));
+        if (controller != null && controller.getMedia() != null
+                && Objects.equals(media.getIdentifier(), controller.getMedia().getIdentifier())) {
+            controller.seekTo(position);
+            return;
+        }
+        Context context = requireContext();
+        media.setPosition(position);
+        Completable.fromFuture(DBWriter.setFeedMediaPlaybackInformation(media))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(() -> {
+                    if (media.isDownloaded()) {
+                        new PlayActionButton(hit.item).onClick(context);
+                    } else {
+                        new StreamActionButton(hit.item).onClick(context);
+                    }
+                }, error -> Log.e(TAG, Log.getStackTraceString(error)));
+    }
+
     private void showInputMethod(View view) {
         InputMethodManager imm = (InputMethodManager) getActivity().getSystemService(Context.INPUT_METHOD_SERVICE);
         if (imm != null) {
@@ -58,6 +58,7 @@ import de.danoeh.antennapod.ui.episodeslist.EpisodeItemListAdapter;
 import de.danoeh.antennapod.ui.episodeslist.EpisodeItemViewHolder;
 import de.danoeh.antennapod.ui.episodeslist.EpisodeMultiSelectActionHandler;
 import de.danoeh.antennapod.ui.episodeslist.FeedItemMenuHandler;
+import de.danoeh.antennapod.ui.episodeslist.ListUpdateCoalescer;
 import de.danoeh.antennapod.ui.episodeslist.MoreContentListFooterUtil;
 import de.danoeh.antennapod.ui.glide.FastBlurTransformation;
 import de.danoeh.antennapod.ui.screen.SearchFragment;
@@ -78,6 +79,7 @@ import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -103,6 +105,17 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
     private long feedID;
     private Feed feed;
     private Disposable disposable;
+    private final ListUpdateCoalescer listUpdates = new ListUpdateCoalescer(new ListUpdateCoalescer.Callback() {
+        @Override
+        public void onItemsChanged(@NonNull Collection<FeedItem> items) {
+            applyChangedItems(items);
+        }
+
+        @Override
+        public void onReloadRequested() {
+            loadItems();
+        }
+    });
     private FeedItemListFragmentBinding viewBinding;
     private Pair<Integer, Integer> scrollPosition = null;
 
@@ -260,6 +273,7 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
         super.onDestroyView();
 
         EventBus.getDefault().unregister(this);
+        listUpdates.cancel();
         if (disposable != null) {
             disposable.dispose();
         }
@@ -401,18 +415,21 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
     public void onEvent(FeedEvent event) {
         Log.d(TAG, "onEvent() called with: " + "event = [" + event + "]");
         if (event.feedId == feedID) {
-            loadItems();
+            updateUi();
         }
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEventMainThread(FeedItemEvent event) {
         Log.d(TAG, "onEventMainThread() called with: " + "event = [" + event + "]");
+        listUpdates.itemsChanged(event.items);
+    }
+
+    private void applyChangedItems(Collection<FeedItem> items) {
         if (feed == null || feed.getItems() == null) {
             return;
         }
-        for (int i = 0, size = event.items.size(); i < size; i++) {
-            FeedItem item = event.items.get(i);
+        for (FeedItem item : items) {
             int pos = FeedItemEvent.indexOfItemWithId(feed.getItems(), item.getId());
             if (pos >= 0) {
                 feed.getItems().remove(pos);
@@ -473,7 +490,7 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
     }
 
     private void updateUi() {
-        loadItems();
+        listUpdates.requestReload();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -93,7 +93,7 @@ public class TranscriptAdapter extends RecyclerView.Adapter<TranscriptViewholder
         String timecode = Converter.getDurationStringLong((int) seg.getStartTime());
         if (!StringUtil.isBlank(seg.getSpeaker())) {
             if (position > 0 && media.getTranscript()
-                    .getSegmentAt(position - 1).getSpeaker().equals(seg.getSpeaker())) {
+                    .getSpeakerAt(position - 1).equals(seg.getSpeaker())) {
                 holder.viewTimecode.setVisibility(View.GONE);
                 holder.viewContent.setText(seg.getWords());
             } else {
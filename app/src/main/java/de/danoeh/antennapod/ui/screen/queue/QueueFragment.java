@@ -40,6 +40,7 @@ import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -70,6 +71,7 @@ import de.danoeh.antennapod.ui.view.EmptyViewHandler;
 import de.danoeh.antennapod.ui.episodeslist.EpisodeItemListRecyclerView;
 import de.danoeh.antennapod.ui.view.LiftOnScrollListener;
 import de.danoeh.antennapod.ui.episodeslist.EpisodeItemViewHolder;
+import de.danoeh.antennapod.ui.episodeslist.ListUpdateCoalescer;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.Disposable;
@@ -99,6 +101,18 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
     private static final String PREF_SHOW_LOCK_WARNING = "show_lock_warning";
 
     private Disposable disposable;
+    private final ListUpdateCoalescer listUpdates = new ListUpdateCoalescer(new ListUpdateCoalescer.Callback() {
+        @Override
+        public void onItemsChanged(@NonNull Collection<FeedItem> items) {
+            applyChangedItems(items);
+        }
+
+        @Override
+        public void onReloadRequested() {
+            loadItems();
+            refreshToolbarState();
+        }
+    });
     private SwipeActions swipeActions;
     private SharedPreferences prefs;
 
@@ -130,6 +144,7 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
     public void onStop() {
         super.onStop();
         EventBus.getDefault().unregister(this);
+        listUpdates.cancel();
         if (disposable != null) {
             disposable.dispose();
         }
@@ -184,19 +199,29 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
         if (queue == null) {
             return;
         } else if (recyclerAdapter == null) {
-            loadItems();
+            listUpdates.requestReload();
+            return;
+        }
+        listUpdates.itemsChanged(event.items);
+    }
+
+    private void applyChangedItems(Collection<FeedItem> items) {
+        if (queue == null) {
             return;
         }
-        for (int i = 0, size = event.items.size(); i < size; i++) {
-            FeedItem item = event.items.get(i);
+        boolean changed = false;
+        for (FeedItem item : items) {
             int pos = FeedItemEvent.indexOfItemWithId(queue, item.getId());
             if (pos >= 0) {
                 queue.remove(pos);
                 queue.add(pos, item);
                 recyclerAdapter.notifyItemChangedCompat(pos);
-                refreshInfoBar();
+                changed = true;
             }
         }
+        if (changed) {
+            refreshInfoBar();
+        }
     }
 
     @Subscribe(sticky = true, threadMode = ThreadMode.MAIN)
@@ -228,15 +253,13 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onPlayerStatusChanged(PlayerStatusEvent event) {
-        loadItems();
-        refreshToolbarState();
+        listUpdates.requestReload();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onUnreadItemsChanged(UnreadItemsUpdateEvent event) {
         // Sent when playback position is reset
-        loadItems();
-        refreshToolbarState();
+        listUpdates.requestReload();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
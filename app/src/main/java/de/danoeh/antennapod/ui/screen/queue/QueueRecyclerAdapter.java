@@ -31,8 +31,11 @@ public class QueueRecyclerAdapter extends EpisodeItemListAdapter {
     }
 
     public void updateDragDropEnabled() {
-        dragDropEnabled = ! (UserPreferences.isQueueKeepSorted() || UserPreferences.isQueueLocked());
-        notifyDataSetChanged();
+        boolean enabled = ! (UserPreferences.isQueueKeepSorted() || UserPreferences.isQueueLocked());
+        if (enabled != dragDropEnabled) {
+            dragDropEnabled = enabled;
+            notifyDataSetChanged();
+        }
     }
 
     @Override
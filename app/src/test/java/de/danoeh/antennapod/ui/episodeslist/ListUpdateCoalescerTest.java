@@ -0,0 +1,104 @@
+package de.danoeh.antennapod.ui.episodeslist;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Test class for {@link ListUpdateCoalescer}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ListUpdateCoalescerTest {
+    private final List<Collection<FeedItem>> changedBatches = new ArrayList<>();
+    private int reloads;
+    private ListUpdateCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        coalescer = new ListUpdateCoalescer(new ListUpdateCoalescer.Callback() {
+            @Override
+            public void onItemsChanged(@NonNull Collection<FeedItem> items) {
+                changedBatches.add(items);
+            }
+
+            @Override
+            public void onReloadRequested() {
+                reloads++;
+            }
+        });
+    }
+
+    @Test
+    public void testChangedItemsAreBatched() {
+        FeedItem first = createItem(1);
+        FeedItem second = createItem(2);
+        FeedItem firstUpdated = createItem(1);
+        coalescer.itemsChanged(Collections.singletonList(first));
+        coalescer.itemsChanged(Arrays.asList(second, firstUpdated));
+        assertEquals(0, changedBatches.size());
+
+        idle();
+        assertEquals(1, changedBatches.size());
+        List<FeedItem> batch = new ArrayList<>(changedBatches.get(0));
+        assertEquals(2, batch.size());
+        assertSame(firstUpdated, batch.get(0));
+        assertSame(second, batch.get(1));
+        assertEquals(0, reloads);
+    }
+
+    @Test
+    public void testReloadReplacesChangedItems() {
+        coalescer.itemsChanged(Collections.singletonList(createItem(1)));
+        coalescer.requestReload();
+        coalescer.requestReload();
+        coalescer.itemsChanged(Collections.singletonList(createItem(2)));
+
+        idle();
+        assertEquals(1, reloads);
+        assertEquals(0, changedBatches.size());
+
+        coalescer.itemsChanged(Collections.singletonList(createItem(3)));
+        idle();
+        assertEquals(1, reloads);
+        assertEquals(1, changedBatches.size());
+    }
+
+    @Test
+    public void testCancelDropsPendingChanges() {
+        coalescer.itemsChanged(Collections.singletonList(createItem(1)));
+        coalescer.requestReload();
+        coalescer.cancel();
+
+        idle();
+        assertEquals(0, reloads);
+        assertEquals(0, changedBatches.size());
+    }
+
+    private static FeedItem createItem(long id) {
+        FeedItem item = new FeedItem();
+        item.setId(id);
+        return item;
+    }
+
+    private static void idle() {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1));
+    }
+}
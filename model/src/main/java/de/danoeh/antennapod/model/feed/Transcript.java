@@ -1,25 +1,64 @@
 package de.danoeh.antennapod.model.feed;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * Stores the segments column by column instead of one object per segment.
+ * All words share one text buffer, segments only keep their offsets into it.
+ * {@link TranscriptSegment} objects are only created when a segment is requested.
+ */
 public class Transcript {
+    private static final int INITIAL_CAPACITY = 64;
+
     private Set<String> speakers;
-    private final ArrayList<TranscriptSegment> segments = new ArrayList<>();
+    private int segmentCount = 0;
+    private long[] startTimes = new long[INITIAL_CAPACITY];
+    private long[] endTimes = new long[INITIAL_CAPACITY];
+    private int[] wordsEnds = new int[INITIAL_CAPACITY];
+    private int[] speakerIndices = new int[INITIAL_CAPACITY];
+    private final StringBuilder text = new StringBuilder();
+    private final ArrayList<String> speakerNames = new ArrayList<>();
+    private final Map<String, Integer> speakerNameIndices = new HashMap<>();
 
     public void addSegment(TranscriptSegment segment) {
-        if ((!segments.isEmpty() && segments.get(segments.size() - 1).getStartTime() >= segment.getStartTime())) {
+        addSegment(segment.getStartTime(), segment.getEndTime(), segment.getWords(), segment.getSpeaker());
+    }
+
+    public void addSegment(long startTime, long endTime, CharSequence words, String speaker) {
+        if (segmentCount > 0 && startTimes[segmentCount - 1] >= startTime) {
             throw new IllegalArgumentException("Segments must be added in sorted order");
         }
-        segments.add(segment);
+        if (segmentCount == startTimes.length) {
+            int capacity = segmentCount * 2;
+            startTimes = Arrays.copyOf(startTimes, capacity);
+            endTimes = Arrays.copyOf(endTimes, capacity);
+            wordsEnds = Arrays.copyOf(wordsEnds, capacity);
+            speakerIndices = Arrays.copyOf(speakerIndices, capacity);
+        }
+        Integer speakerIndex = speakerNameIndices.get(speaker);
+        if (speakerIndex == null) {
+            speakerIndex = speakerNames.size();
+            speakerNames.add(speaker);
+            speakerNameIndices.put(speaker, speakerIndex);
+        }
+        text.append(words);
+        startTimes[segmentCount] = startTime;
+        endTimes[segmentCount] = endTime;
+        wordsEnds[segmentCount] = text.length();
+        speakerIndices[segmentCount] = speakerIndex;
+        segmentCount++;
     }
 
     public int findSegmentIndexBefore(long time) {
         int a = 0;
-        int b = segments.size() - 1;
+        int b = segmentCount - 1;
         while (a < b) {
             int pivot = (a + b + 1) / 2;
-            if (segments.get(pivot).getStartTime() > time) {
+            if (startTimes[pivot] > time) {
                 b = pivot - 1;
             } else {
                 a = pivot;
@@ -29,13 +68,40 @@ public class Transcript {
     }
 
     public TranscriptSegment getSegmentAt(int index) {
-        return segments.get(index);
+        return new TranscriptSegment(getStartTimeAt(index), getEndTimeAt(index),
+                getWordsAt(index), getSpeakerAt(index));
     }
 
     public TranscriptSegment getSegmentAtTime(long time) {
         return getSegmentAt(findSegmentIndexBefore(time));
     }
 
+    public long getStartTimeAt(int index) {
+        checkIndex(index);
+        return startTimes[index];
+    }
+
+    public long getEndTimeAt(int index) {
+        checkIndex(index);
+        return endTimes[index];
+    }
+
+    public String getWordsAt(int index) {
+        checkIndex(index);
+        return text.substring(index == 0 ? 0 : wordsEnds[index - 1], wordsEnds[index]);
+    }
+
+    public String getSpeakerAt(int index) {
+        checkIndex(index);
+        return speakerNames.get(speakerIndices[index]);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= segmentCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + segmentCount);
+        }
+    }
+
     public Set<String> getSpeakers() {
         return speakers;
     }
@@ -45,6 +111,6 @@ public class Transcript {
     }
 
     public int getSegmentCount() {
-        return segments.size();
+        return segmentCount;
     }
 }
@@ -0,0 +1,47 @@
+package de.danoeh.antennapod.model.feed;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class TranscriptTest {
+
+    @Test
+    public void testSegmentsShareText() {
+        Transcript transcript = new Transcript();
+        for (int i = 0; i < 1000; i++) {
+            transcript.addSegment(i * 1000L, i * 1000L + 900, "Segment " + i, i % 2 == 0 ? "A" : "B");
+        }
+        assertEquals(1000, transcript.getSegmentCount());
+        assertEquals("Segment 0", transcript.getWordsAt(0));
+        assertEquals("Segment 999", transcript.getWordsAt(999));
+        assertEquals("B", transcript.getSpeakerAt(999));
+        assertEquals(999900L, transcript.getEndTimeAt(999));
+
+        TranscriptSegment segment = transcript.getSegmentAtTime(42500);
+        assertEquals(42000L, segment.getStartTime());
+        assertEquals(42900L, segment.getEndTime());
+        assertEquals("Segment 42", segment.getWords());
+        assertEquals("A", segment.getSpeaker());
+    }
+
+    @Test
+    public void testFindSegmentIndexBefore() {
+        Transcript transcript = new Transcript();
+        transcript.addSegment(new TranscriptSegment(1000, 2000, "One", ""));
+        transcript.addSegment(new TranscriptSegment(5000, 6000, "Two", ""));
+        assertEquals(0, transcript.findSegmentIndexBefore(0));
+        assertEquals(0, transcript.findSegmentIndexBefore(4999));
+        assertEquals(1, transcript.findSegmentIndexBefore(5000));
+        assertEquals(1, transcript.findSegmentIndexBefore(100000));
+    }
+
+    @Test
+    public void testSegmentsMustBeSorted() {
+        Transcript transcript = new Transcript();
+        transcript.addSegment(5000, 6000, "Two", "");
+        assertThrows(IllegalArgumentException.class, () -> transcript.addSegment(1000, 2000, "One", ""));
+        assertThrows(IndexOutOfBoundsException.class, () -> transcript.getSegmentAt(1));
+    }
+}
@@ -2,70 +2,160 @@ package de.danoeh.antennapod.net.discovery;
 
 import android.text.TextUtils;
 import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
 import io.reactivex.rxjava3.core.Single;
-import io.reactivex.rxjava3.core.SingleOnSubscribe;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Searches with all providers that have a weight and combines their results.
+ * Results are cached per provider and normalized query. Providers that do not answer in time are skipped,
+ * so one slow provider does not delay the results of the others.
+ */
 public class CombinedSearcher implements PodcastSearcher {
     private static final String TAG = "CombinedSearcher";
+    static final long DEBOUNCE_MILLIS = 400;
+    static final long PROVIDER_TIMEOUT_MILLIS = 8000;
+    static final long CACHE_TIME_TO_LIVE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int CACHE_SIZE = 50;
+    private static final SearchResultCache sharedCache = new SearchResultCache(CACHE_SIZE, CACHE_TIME_TO_LIVE_MILLIS);
+
+    @Nullable
+    private final List<PodcastSearcherRegistry.SearcherInfo> providers;
+    private final SearchResultCache cache;
+    private final Scheduler timeScheduler;
+    private final Scheduler ioScheduler;
 
     public CombinedSearcher() {
+        // The registry creates this searcher, so the providers can only be read when searching
+        this(null, sharedCache, Schedulers.computation(), Schedulers.io());
+    }
+
+    CombinedSearcher(@Nullable List<PodcastSearcherRegistry.SearcherInfo> providers, SearchResultCache cache,
+                     Scheduler timeScheduler, Scheduler ioScheduler) {
+        this.providers = providers;
+        this.cache = cache;
+        this.timeScheduler = timeScheduler;
+        this.ioScheduler = ioScheduler;
+    }
+
+    /**
+     * Also keeps search results on disk, so they are available after restarting the app.
+     */
+    public static void setCacheDirectory(File directory) {
+        sharedCache.setDirectory(directory);
     }
 
+    /**
+     * The results of the search, after all providers answered or timed out.
+     */
     public Single<List<PodcastSearchResult>> search(String query) {
-        ArrayList<Disposable> disposables = new ArrayList<>();
-        List<List<PodcastSearchResult>> singleResults = new ArrayList<>(
-                Collections.nCopies(PodcastSearcherRegistry.getSearchProviders().size(), null));
-        CountDownLatch latch = new CountDownLatch(PodcastSearcherRegistry.getSearchProviders().size());
-        for (int i = 0; i < PodcastSearcherRegistry.getSearchProviders().size(); i++) {
-            PodcastSearcherRegistry.SearcherInfo searchProviderInfo
-                    = PodcastSearcherRegistry.getSearchProviders().get(i);
-            PodcastSearcher searcher = searchProviderInfo.searcher;
-            if (searchProviderInfo.weight <= 0.00001f || searcher.getClass() == CombinedSearcher.class) {
-                latch.countDown();
-                continue;
-            }
-            final int index = i;
-            disposables.add(searcher.search(query).subscribe(e -> {
-                        singleResults.set(index, e);
-                        latch.countDown();
-                    }, throwable -> {
-                        Log.d(TAG, Log.getStackTraceString(throwable));
-                        latch.countDown();
-                    }
-            ));
+        return searchProgressively(query)
+                .filter(partialResults -> partialResults.isComplete)
+                .map(partialResults -> partialResults.results)
+                .firstOrError();
+    }
+
+    /**
+     * Emits the combined results every time a provider answers. The last emission is complete.
+     */
+    public Observable<PartialResults> searchProgressively(String query) {
+        List<PodcastSearcherRegistry.SearcherInfo> enabledProviders = getEnabledProviders();
+        if (enabledProviders.isEmpty()) {
+            return Observable.just(new PartialResults(query, Collections.emptyList(), true));
         }
+        String normalizedQuery = normalizeQuery(query);
+        return Observable.defer(() -> {
+            List<List<PodcastSearchResult>> singleResults = new ArrayList<>(
+                    Collections.nCopies(enabledProviders.size(), null));
+            int[] numAnswered = {0};
+            List<Observable<ProviderAnswer>> answers = new ArrayList<>();
+            for (int i = 0; i < enabledProviders.size(); i++) {
+                answers.add(searchProvider(enabledProviders.get(i).searcher, i, normalizedQuery).toObservable());
+            }
+            return Observable.merge(answers).map(answer -> {
+                singleResults.set(answer.index, answer.results);
+                numAnswered[0]++;
+                return new PartialResults(query, weightSearchResults(enabledProviders, singleResults),
+                        numAnswered[0] == enabledProviders.size());
+            });
+        }).observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Searches while the user is typing. A typed query is only searched after the user stopped typing for a moment,
+     * a submitted query is searched right away. The same query is not searched twice in a row.
+     * When a new query is searched, the results of the previous one are no longer emitted.
+     */
+    public Observable<PartialResults> searchAsYouType(Observable<String> typedQueries,
+                                                      Observable<String> submittedQueries) {
+        return Observable.merge(typedQueries.debounce(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS, timeScheduler),
+                        submittedQueries)
+                .filter(query -> !normalizeQuery(query).isEmpty())
+                .distinctUntilChanged(CombinedSearcher::normalizeQuery)
+                .switchMap(this::searchProgressively);
+    }
 
-        return Single.create((SingleOnSubscribe<List<PodcastSearchResult>>) subscriber -> {
-            latch.await();
-            List<PodcastSearchResult> results = weightSearchResults(singleResults);
-            subscriber.onSuccess(results);
+    private Single<ProviderAnswer> searchProvider(PodcastSearcher searcher, int index, String query) {
+        String cacheKey = searcher.getName() + "\n" + query;
+        return Single.defer(() -> {
+            List<PodcastSearchResult> cached = cache.get(cacheKey, timeScheduler.now(TimeUnit.MILLISECONDS));
+            if (cached != null) {
+                return Single.just(cached);
+            }
+            return searcher.search(query)
+                    .timeout(PROVIDER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, timeScheduler)
+                    .observeOn(ioScheduler)
+                    .doOnSuccess(results -> cache.put(cacheKey, results, timeScheduler.now(TimeUnit.MILLISECONDS)));
         })
-                .doOnDispose(() -> {
-                    for (Disposable disposable : disposables) {
-                        if (disposable != null) {
-                            disposable.dispose();
-                        }
-                    }
-                })
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread());
+                .subscribeOn(ioScheduler)
+                .map(results -> new ProviderAnswer(index, results))
+                .onErrorReturn(throwable -> {
+                    Log.d(TAG, searcher.getName() + ": " + Log.getStackTraceString(throwable));
+                    return new ProviderAnswer(index, null);
+                });
     }
 
-    private List<PodcastSearchResult> weightSearchResults(List<List<PodcastSearchResult>> singleResults) {
+    /**
+     * Queries that only differ in case or whitespace give the same results.
+     */
+    public static String normalizeQuery(String query) {
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private List<PodcastSearcherRegistry.SearcherInfo> getEnabledProviders() {
+        List<PodcastSearcherRegistry.SearcherInfo> allProviders = providers != null
+                ? providers : PodcastSearcherRegistry.getSearchProviders();
+        List<PodcastSearcherRegistry.SearcherInfo> enabledProviders = new ArrayList<>();
+        for (PodcastSearcherRegistry.SearcherInfo searchProviderInfo : allProviders) {
+            if (searchProviderInfo.weight > 0.00001f
+                    && searchProviderInfo.searcher.getClass() != CombinedSearcher.class) {
+                enabledProviders.add(searchProviderInfo);
+            }
+        }
+        return enabledProviders;
+    }
+
+    private static List<PodcastSearchResult> weightSearchResults(List<PodcastSearcherRegistry.SearcherInfo> providers,
+                                                                 List<List<PodcastSearchResult>> singleResults) {
         HashMap<String, Float> resultRanking = new HashMap<>();
         HashMap<String, PodcastSearchResult> urlToResult = new HashMap<>();
         for (int i = 0; i < singleResults.size(); i++) {
-            float providerPriority = PodcastSearcherRegistry.getSearchProviders().get(i).weight;
+            float providerPriority = providers.get(i).weight;
             List<PodcastSearchResult> providerResults = singleResults.get(i);
             if (providerResults == null) {
                 continue;
@@ -105,14 +195,39 @@ public class CombinedSearcher implements PodcastSearcher {
     @Override
     public String getName() {
         ArrayList<String> names = new ArrayList<>();
-        for (int i = 0; i < PodcastSearcherRegistry.getSearchProviders().size(); i++) {
-            PodcastSearcherRegistry.SearcherInfo searchProviderInfo
-                    = PodcastSearcherRegistry.getSearchProviders().get(i);
-            PodcastSearcher searcher = searchProviderInfo.searcher;
-            if (searchProviderInfo.weight > 0.00001f && searcher.getClass() != CombinedSearcher.class) {
-                names.add(searcher.getName());
-            }
+        for (PodcastSearcherRegistry.SearcherInfo searchProviderInfo : getEnabledProviders()) {
+            names.add(searchProviderInfo.searcher.getName());
         }
         return TextUtils.join(", ", names);
     }
+
+    /**
+     * The combined results of the providers that answered so far.
+     */
+    public static class PartialResults {
+        public final String query;
+        @NonNull
+        public final List<PodcastSearchResult> results;
+        /**
+         * True if all providers answered or timed out.
+         */
+        public final boolean isComplete;
+
+        PartialResults(String query, @NonNull List<PodcastSearchResult> results, boolean isComplete) {
+            this.query = query;
+            this.results = results;
+            this.isComplete = isComplete;
+        }
+    }
+
+    private static class ProviderAnswer {
+        final int index;
+        @Nullable
+        final List<PodcastSearchResult> results;
+
+        ProviderAnswer(int index, @Nullable List<PodcastSearchResult> results) {
+            this.index = index;
+            this.results = results;
+        }
+    }
 }
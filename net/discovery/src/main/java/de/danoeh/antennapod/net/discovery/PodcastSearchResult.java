@@ -99,4 +99,21 @@ public class PodcastSearchResult {
         String author = json.optString("author", null);
         return new PodcastSearchResult(title, imageUrl, feedUrl, author);
     }
+
+    /**
+     * Constructs a Podcast instance from the JSON written by {@link #toJson()}
+     */
+    static PodcastSearchResult fromJson(JSONObject json) {
+        return new PodcastSearchResult(json.optString("title", ""), json.optString("imageUrl", null),
+                json.optString("feedUrl", null), json.optString("author", null));
+    }
+
+    JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("title", title);
+        json.put("imageUrl", imageUrl);
+        json.put("feedUrl", feedUrl);
+        json.put("author", author);
+        return json;
+    }
 }
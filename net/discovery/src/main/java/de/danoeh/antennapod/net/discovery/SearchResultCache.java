@@ -0,0 +1,187 @@
+package de.danoeh.antennapod.net.discovery;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Remembers the results of search providers for some time, in memory and optionally on disk.
+ * The key should contain the provider and the normalized query.
+ */
+class SearchResultCache {
+    private static final String TAG = "SearchResultCache";
+    private static final String KEY_KEY = "key";
+    private static final String KEY_TIME = "time";
+    private static final String KEY_RESULTS = "results";
+
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Map<String, Entry> entries;
+    @Nullable
+    private volatile File directory;
+
+    SearchResultCache(int maxEntries, long timeToLiveMillis) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > SearchResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Also stores the results in the directory, so they survive restarts of the app.
+     */
+    void setDirectory(@Nullable File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return The results, or null if there are none that are younger than the time to live.
+     *         Might read from disk, so should not be called on the main thread.
+     */
+    @Nullable
+    List<PodcastSearchResult> get(String key, long now) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            entry = readFromDisk(key);
+            if (entry != null) {
+                synchronized (entries) {
+                    entries.put(key, entry);
+                }
+            }
+        }
+        if (entry == null || now - entry.time > timeToLiveMillis || entry.time > now) {
+            return null;
+        }
+        return entry.results;
+    }
+
+    /**
+     * Might write to disk, so should not be called on the main thread.
+     */
+    void put(String key, List<PodcastSearchResult> results, long now) {
+        Entry entry = new Entry(now, Collections.unmodifiableList(new ArrayList<>(results)));
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        writeToDisk(key, entry);
+    }
+
+    @Nullable
+    private Entry readFromDisk(String key) {
+        File file = getFile(key);
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        try (BufferedSource source = Okio.buffer(Okio.source(file))) {
+            JSONObject json = new JSONObject(source.readUtf8());
+            if (!key.equals(json.getString(KEY_KEY))) {
+                return null; // Hash collision
+            }
+            JSONArray array = json.getJSONArray(KEY_RESULTS);
+            List<PodcastSearchResult> results = new ArrayList<>();
+            for (int i = 0; i < array.length(); i++) {
+                results.add(PodcastSearchResult.fromJson(array.getJSONObject(i)));
+            }
+            return new Entry(json.getLong(KEY_TIME), Collections.unmodifiableList(results));
+        } catch (IOException | JSONException e) {
+            Log.d(TAG, "Unable to read " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        File file = getFile(key);
+        if (file == null) {
+            return;
+        }
+        File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+        try (BufferedSink sink = Okio.buffer(Okio.sink(file))) {
+            JSONArray array = new JSONArray();
+            for (PodcastSearchResult result : entry.results) {
+                array.put(result.toJson());
+            }
+            JSONObject json = new JSONObject();
+            json.put(KEY_KEY, key);
+            json.put(KEY_TIME, entry.time);
+            json.put(KEY_RESULTS, array);
+            sink.writeUtf8(json.toString());
+        } catch (IOException | JSONException e) {
+            Log.d(TAG, "Unable to write " + file + ": " + e.getMessage());
+        }
+        trimDirectory(directory);
+    }
+
+    /**
+     * Deletes the oldest files if there are more than the entries kept in memory.
+     */
+    private void trimDirectory(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null || files.length <= maxEntries) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < files.length - maxEntries; i++) {
+            if (!files[i].delete()) {
+                Log.d(TAG, "Unable to delete " + files[i]);
+            }
+        }
+    }
+
+    @Nullable
+    private File getFile(String key) {
+        File directory = this.directory;
+        if (directory == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            StringBuilder name = new StringBuilder();
+            for (byte b : digest.digest(key.getBytes(StandardCharsets.UTF_8))) {
+                name.append(String.format("%02x", b));
+            }
+            return new File(directory, name + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private static class Entry {
+        final long time;
+        final List<PodcastSearchResult> results;
+
+        Entry(long time, List<PodcastSearchResult> results) {
+            this.time = time;
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package de.danoeh.antennapod.net.discovery;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.android.plugins.RxAndroidPlugins;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link CombinedSearcher}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CombinedSearcherTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TestScheduler scheduler;
+    private SearchResultCache cache;
+
+    @Before
+    public void setUp() {
+        RxAndroidPlugins.setMainThreadSchedulerHandler(s -> Schedulers.trampoline());
+        scheduler = new TestScheduler();
+        cache = new SearchResultCache(10, CombinedSearcher.CACHE_TIME_TO_LIVE_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        RxAndroidPlugins.reset();
+    }
+
+    @Test
+    public void testPartialResultsArriveAsProvidersAnswer() throws JSONException {
+        FakeSearcher fast = new FakeSearcher("fast", 100, createResult("a"));
+        FakeSearcher slow = new FakeSearcher("slow", 1000, createResult("b"));
+        TestObserver<CombinedSearcher.PartialResults> observer = createSearcher(fast, slow)
+                .searchProgressively("query").test();
+
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        observer.assertValueCount(1);
+        assertFalse(observer.values().get(0).isComplete);
+        assertEquals(Collections.singletonList("a"), feedUrls(observer.values().get(0).results));
+
+        scheduler.advanceTimeBy(900, TimeUnit.MILLISECONDS);
+        observer.assertValueCount(2);
+        observer.assertComplete();
+        assertTrue(observer.values().get(1).isComplete);
+        assertEquals(2, observer.values().get(1).results.size());
+    }
+
+    @Test
+    public void testSlowProviderIsSkippedAfterTimeout() throws JSONException {
+        FakeSearcher fast = new FakeSearcher("fast", 100, createResult("a"));
+        FakeSearcher hanging = new FakeSearcher("hanging", 60_000, createResult("b"));
+        TestObserver<List<PodcastSearchResult>> observer = createSearcher(fast, hanging).search("query").test();
+
+        scheduler.advanceTimeBy(CombinedSearcher.PROVIDER_TIMEOUT_MILLIS - 1, TimeUnit.MILLISECONDS);
+        observer.assertNotComplete();
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        observer.assertComplete();
+        assertEquals(Collections.singletonList("a"), feedUrls(observer.values().get(0)));
+    }
+
+    @Test
+    public void testFailingProviderDoesNotFailSearch() throws JSONException {
+        FakeSearcher working = new FakeSearcher("working", 100, createResult("a"));
+        FakeSearcher failing = new FakeSearcher("failing", 0) {
+            @Override
+            public Single<List<PodcastSearchResult>> search(String query) {
+                return Single.error(new IOException("Offline"));
+            }
+        };
+        TestObserver<List<PodcastSearchResult>> observer = createSearcher(working, failing).search("query").test();
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        observer.assertComplete();
+        assertEquals(Collections.singletonList("a"), feedUrls(observer.values().get(0)));
+    }
+
+    @Test
+    public void testResultsAreCachedByNormalizedQuery() throws JSONException {
+        FakeSearcher searcher = new FakeSearcher("searcher", 100, createResult("a"));
+        CombinedSearcher combinedSearcher = createSearcher(searcher);
+
+        combinedSearcher.search("Some  Query").test();
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        TestObserver<List<PodcastSearchResult>> observer = combinedSearcher.search(" some query ").test();
+        observer.assertComplete();
+        assertEquals(Collections.singletonList("a"), feedUrls(observer.values().get(0)));
+        assertEquals(Collections.singletonList("some query"), searcher.queries);
+
+        scheduler.advanceTimeBy(CombinedSearcher.CACHE_TIME_TO_LIVE_MILLIS + 1, TimeUnit.MILLISECONDS);
+        combinedSearcher.search("some query").test();
+        assertEquals(2, searcher.queries.size());
+    }
+
+    @Test
+    public void testCacheOnDiskSurvivesRestart() throws JSONException, IOException {
+        File directory = temporaryFolder.newFolder();
+        cache.setDirectory(directory);
+        FakeSearcher searcher = new FakeSearcher("searcher", 100, createResult("a"));
+        createSearcher(searcher).search("query").test();
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+
+        SearchResultCache restartedCache = new SearchResultCache(10, CombinedSearcher.CACHE_TIME_TO_LIVE_MILLIS);
+        restartedCache.setDirectory(directory);
+        long now = scheduler.now(TimeUnit.MILLISECONDS);
+        assertEquals(Collections.singletonList("a"), feedUrls(restartedCache.get("searcher\nquery", now)));
+        assertNull(restartedCache.get("searcher\nother", now));
+    }
+
+    @Test
+    public void testOnlyLastTypedQueryIsSearched() throws JSONException {
+        FakeSearcher searcher = new FakeSearcher("searcher", 100, createResult("a"));
+        PublishSubject<String> typed = PublishSubject.create();
+        PublishSubject<String> submitted = PublishSubject.create();
+        TestObserver<CombinedSearcher.PartialResults> observer = createSearcher(searcher)
+                .searchAsYouType(typed, submitted).test();
+
+        typed.onNext("p");
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        typed.onNext("po");
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        typed.onNext("pod");
+        scheduler.advanceTimeBy(CombinedSearcher.DEBOUNCE_MILLIS + 100, TimeUnit.MILLISECONDS);
+        assertEquals(Collections.singletonList("pod"), searcher.queries);
+        observer.assertValueCount(1);
+        assertEquals("pod", observer.values().get(0).query);
+
+        // Submitting the query that was already searched does not search again
+        submitted.onNext("pod ");
+        scheduler.advanceTimeBy(CombinedSearcher.DEBOUNCE_MILLIS + 100, TimeUnit.MILLISECONDS);
+        assertEquals(1, searcher.queries.size());
+    }
+
+    @Test
+    public void testSubmittedQueryIsSearchedRightAway() throws JSONException {
+        FakeSearcher searcher = new FakeSearcher("searcher", 0, createResult("a"));
+        PublishSubject<String> typed = PublishSubject.create();
+        PublishSubject<String> submitted = PublishSubject.create();
+        TestObserver<CombinedSearcher.PartialResults> observer = createSearcher(searcher)
+                .searchAsYouType(typed, submitted).test();
+
+        typed.onNext("podcast");
+        submitted.onNext("podcast");
+        scheduler.triggerActions();
+        observer.assertValueCount(1);
+
+        scheduler.advanceTimeBy(CombinedSearcher.DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(Collections.singletonList("podcast"), searcher.queries);
+    }
+
+    private CombinedSearcher createSearcher(FakeSearcher... searchers) {
+        List<PodcastSearcherRegistry.SearcherInfo> providers = new ArrayList<>();
+        for (FakeSearcher searcher : searchers) {
+            providers.add(new PodcastSearcherRegistry.SearcherInfo(searcher, 1.0f));
+        }
+        return new CombinedSearcher(providers, cache, scheduler, Schedulers.trampoline());
+    }
+
+    private static PodcastSearchResult createResult(String feedUrl) throws JSONException {
+        return PodcastSearchResult.fromJson(new JSONObject().put("title", feedUrl).put("feedUrl", feedUrl));
+    }
+
+    private static List<String> feedUrls(List<PodcastSearchResult> results) {
+        List<String> feedUrls = new ArrayList<>();
+        for (PodcastSearchResult result : results) {
+            feedUrls.add(result.feedUrl);
+        }
+        return feedUrls;
+    }
+
+    private class FakeSearcher implements PodcastSearcher {
+        final List<String> queries = new ArrayList<>();
+        private final String name;
+        private final long latencyMillis;
+        private final List<PodcastSearchResult> results;
+
+        FakeSearcher(String name, long latencyMillis, PodcastSearchResult... results) {
+            this.name = name;
+            this.latencyMillis = latencyMillis;
+            this.results = Arrays.asList(results);
+        }
+
+        @Override
+        public Single<List<PodcastSearchResult>> search(String query) {
+            return Single.fromCallable(() -> {
+                queries.add(query);
+                return results;
+            }).delay(latencyMillis, TimeUnit.MILLISECONDS, scheduler);
+        }
+
+        @Override
+        public Single<String> lookupUrl(String resultUrl) {
+            return Single.just(resultUrl);
+        }
+
+        @Override
+        public boolean urlNeedsLookup(String resultUrl) {
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
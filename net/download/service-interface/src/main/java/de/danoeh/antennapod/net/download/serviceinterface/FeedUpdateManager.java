@@ -27,4 +27,15 @@ public abstract class FeedUpdateManager {
     public abstract void runOnceOrAsk(@NonNull Context context);
 
     public abstract void runOnceOrAsk(@NonNull Context context, @Nullable Feed feed);
+
+    /**
+     * Checks if a feed update is running or waiting to run. Blocks, so do not call on the main thread.
+     * Each feed update starts a synchronization when it is done, while it still counts as running.
+     */
+    public abstract boolean isFeedUpdateRunning(@NonNull Context context);
+
+    /**
+     * Deletes the index of scanned files that is kept for a local feed. Call this when the feed is removed.
+     */
+    public abstract void deleteLocalFeedIndex(@NonNull Context context, long feedId);
 }
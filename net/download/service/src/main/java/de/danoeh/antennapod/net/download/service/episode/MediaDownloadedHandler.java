@@ -25,7 +25,9 @@ import de.danoeh.antennapod.storage.database.DBWriter;
 import de.danoeh.antennapod.model.download.DownloadError;
 import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.model.feed.Transcript;
 import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeAction;
+import de.danoeh.antennapod.parser.transcript.TranscriptParser;
 import de.danoeh.antennapod.ui.transcript.TranscriptUtils;
 
 /**
@@ -71,6 +73,10 @@ public class MediaDownloadedHandler implements Runnable {
                 String transcript = TranscriptUtils.loadTranscriptFromUrl(item.getTranscriptUrl(), true);
                 if (!StringUtils.isEmpty(transcript)) {
                     TranscriptUtils.storeTranscript(media, transcript);
+                    Transcript parsed = TranscriptParser.parse(transcript, item.getTranscriptType());
+                    if (parsed != null) {
+                        DBWriter.setTranscriptIndex(media, parsed);
+                    }
                 }
             }
         } catch (InterruptedIOException ignore) {
@@ -3,6 +3,14 @@ package de.danoeh.antennapod.net.download.service.episode.autodownload;
 import android.content.Context;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedItemFilter;
+
 /**
  * A cleanup algorithm that never removes anything
  */
@@ -17,6 +25,19 @@ public class APNullCleanupAlgorithm extends EpisodeCleanupAlgorithm {
         return 0;
     }
 
+    @NonNull
+    @Override
+    public List<FeedItem> getCleanupPlan(int parameter) {
+        return Collections.emptyList();
+    }
+
+    @NonNull
+    @Override
+    protected FeedItemFilter getCandidateFilter() {
+        // not used, as the cleanup plan is always empty
+        return FeedItemFilter.unfiltered();
+    }
+
     @Override
     public int getDefaultCleanupParameter() {
         return 0;
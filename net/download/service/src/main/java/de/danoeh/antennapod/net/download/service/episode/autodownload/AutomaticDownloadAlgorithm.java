@@ -9,14 +9,14 @@ import android.util.Log;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
-import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.model.feed.FeedItem;
-import de.danoeh.antennapod.model.feed.FeedPreferences;
 import de.danoeh.antennapod.net.download.serviceinterface.DownloadServiceInterface;
 import de.danoeh.antennapod.storage.database.DBReader;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
@@ -28,6 +28,8 @@ import de.danoeh.antennapod.net.common.NetworkUtils;
  */
 public class AutomaticDownloadAlgorithm {
     private static final String TAG = "DownloadAlgorithm";
+    // Use a reasonable limit to avoid CursorWindow overflow
+    private static final int MAX_CANDIDATES = 500;
 
     /**
      * Looks for undownloaded episodes in the queue or list of new items and request a download if
@@ -53,48 +55,33 @@ public class AutomaticDownloadAlgorithm {
 
                 Log.d(TAG, "Performing auto-dl of undownloaded episodes");
 
-                // Use a reasonable limit to avoid CursorWindow overflow
-                // 500 is enough to cover typical use cases while avoiding memory issues
-                final int maxEpisodesToQuery = 500;
-                final List<FeedItem> newItems = DBReader.getEpisodes(0, maxEpisodesToQuery,
-                        new FeedItemFilter(FeedItemFilter.NEW), SortOrder.DATE_NEW_OLD);
-                final List<FeedItem> candidates = new ArrayList<>();
-                for (FeedItem newItem : newItems) {
-                    FeedPreferences feedPrefs = newItem.getFeed().getPreferences();
-                    if (feedPrefs.isAutoDownload(UserPreferences.isEnableAutodownloadGlobal())
-                            && !candidates.contains(newItem)
-                            && feedPrefs.getFilter().shouldAutoDownload(newItem)) {
-                        candidates.add(newItem);
+                // Feeds, download state, queue and the newest day per feed are already checked by the database
+                boolean includeQueue = UserPreferences.isEnableAutodownloadQueue();
+                final List<FeedItem> candidates = DBReader.getAutoDownloadCandidates(
+                        UserPreferences.isEnableAutodownloadGlobal(), includeQueue, MAX_CANDIDATES);
+                final Set<Long> queueIds = new HashSet<>();
+                if (includeQueue) {
+                    for (long id : DBReader.getQueueIDList().toArray()) {
+                        queueIds.add(id);
                     }
                 }
 
-                if (UserPreferences.isEnableAutodownloadQueue()) {
-                    final List<FeedItem> queue = DBReader.getQueue();
-                    for (FeedItem item : queue) {
-                        if (!candidates.contains(item)) {
-                            candidates.add(item);
-                        }
-                    }
-                }
-
-                // filter items that are not auto downloadable
                 Iterator<FeedItem> it = candidates.iterator();
                 while (it.hasNext()) {
                     FeedItem item = it.next();
-                    if (!item.isAutoDownloadEnabled()
-                            || item.isDownloaded()
-                            || !item.hasMedia()
-                            || item.getFeed().isLocalFeed()) {
+                    // The feed's episode filter does not apply to episodes in the queue
+                    if (!queueIds.contains(item.getId())
+                            && !item.getFeed().getPreferences().getFilter().shouldAutoDownload(item)) {
+                        it.remove();
+                        continue;
+                    }
+                    // Also filter out episodes that are already downloading or queued
+                    String downloadUrl = item.getMedia().getDownloadUrl();
+                    if (downloadUrl != null && (
+                            DownloadServiceInterface.get().isDownloadingEpisode(downloadUrl)
+                            || DownloadServiceInterface.get().isEpisodeQueued(downloadUrl))) {
+                        Log.d(TAG, "Skipping already queued/downloading episode: " + item.getTitle());
                         it.remove();
-                    } else {
-                        // Also filter out episodes that are already downloading or queued
-                        String downloadUrl = item.getMedia().getDownloadUrl();
-                        if (downloadUrl != null && (
-                                DownloadServiceInterface.get().isDownloadingEpisode(downloadUrl)
-                                || DownloadServiceInterface.get().isEpisodeQueued(downloadUrl))) {
-                            Log.d(TAG, "Skipping already queued/downloading episode: " + item.getTitle());
-                            it.remove();
-                        }
                     }
                 }
 
@@ -1,23 +1,91 @@
 package de.danoeh.antennapod.net.download.service.episode.autodownload;
 
 import android.content.Context;
+import android.util.Log;
 
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.storage.database.DBReader;
+import de.danoeh.antennapod.storage.database.DBWriter;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 
 public abstract class EpisodeCleanupAlgorithm {
+    private static final String TAG = "EpisodeCleanupAlgorithm";
 
     /**
-     * Deletes downloaded episodes that are no longer needed. What episodes are deleted and how many
-     * of them depends on the implementation.
+     * Deletes downloaded episodes that are no longer needed. What episodes are deleted
+     * is described by getCandidateFilter and getPlayedBefore.
      *
      * @param context     Can be used for accessing the database
      * @param numToRemove An additional parameter. This parameter is either returned by getDefaultCleanupParameter
      *                    or getPerformCleanupParameter.
      * @return The number of episodes that were deleted.
      */
-    protected abstract int performCleanup(Context context, int numToRemove);
+    protected int performCleanup(Context context, int numToRemove) {
+        List<FeedItem> delete = getCleanupPlan(numToRemove);
+        for (FeedItem item : delete) {
+            try {
+                DBWriter.deleteFeedMediaOfItem(context, item.getMedia()).get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        Log.i(TAG, String.format(Locale.US, "%s deleted %d episodes (%d requested)",
+                getClass().getSimpleName(), delete.size(), numToRemove));
+        return delete.size();
+    }
+
+    /**
+     * Returns the episodes that performCleanup would delete, without deleting them.
+     * Only as many episodes as requested are loaded from the database.
+     *
+     * @param numToRemove The number of episodes to delete
+     * @return The episodes in the order in which they would be deleted
+     */
+    @NonNull
+    public List<FeedItem> getCleanupPlan(int numToRemove) {
+        if (numToRemove <= 0) {
+            return Collections.emptyList();
+        }
+        return DBReader.getCleanupCandidates(getCandidateFilter(), getPlayedBefore(), numToRemove);
+    }
+
+    /**
+     * Returns the episodes that performCleanup(context) would delete, without deleting them.
+     */
+    @NonNull
+    public List<FeedItem> getCleanupPlan() {
+        return getCleanupPlan(getDefaultCleanupParameter());
+    }
+
+    /**
+     * @return the number of episodes/items that *could* be cleaned up, if needed
+     */
+    public int getReclaimableItems() {
+        return DBReader.getCleanupCandidatesCount(getCandidateFilter(), getPlayedBefore());
+    }
+
+    /**
+     * The downloaded episodes that may be deleted. Episodes of subscribed feeds only, unless specified otherwise.
+     */
+    @NonNull
+    protected abstract FeedItemFilter getCandidateFilter();
+
+    /**
+     * If greater than 0, only episodes that were last played before this time may be deleted,
+     * the episode that was played first is deleted first.
+     * Otherwise, the oldest episode is deleted first.
+     */
+    protected long getPlayedBefore() {
+        return 0;
+    }
 
     public int performCleanup(Context context) {
         return performCleanup(context, getDefaultCleanupParameter());
@@ -41,11 +109,6 @@ public abstract class EpisodeCleanupAlgorithm {
         return performCleanup(context, getNumEpisodesToCleanup(amountOfRoomNeeded));
     }
 
-    /**
-     * @return the number of episodes/items that *could* be cleaned up, if needed
-     */
-    public abstract int getReclaimableItems();
-
     /**
      * @param amountOfRoomNeeded the number of episodes we want to download
      * @return the number of episodes to delete in order to make room
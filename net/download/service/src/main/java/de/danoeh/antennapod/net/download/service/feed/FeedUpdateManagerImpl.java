@@ -12,6 +12,7 @@ import androidx.work.NetworkType;
 import androidx.work.OneTimeWorkRequest;
 import androidx.work.OutOfQuotaPolicy;
 import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkInfo;
 import androidx.work.WorkManager;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import de.danoeh.antennapod.event.FeedUpdateRunningEvent;
@@ -19,10 +20,12 @@ import de.danoeh.antennapod.net.common.NetworkUtils;
 import de.danoeh.antennapod.event.MessageEvent;
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.net.download.service.R;
+import de.danoeh.antennapod.net.download.service.feed.local.LocalFeedUpdater;
 import de.danoeh.antennapod.net.download.serviceinterface.FeedUpdateManager;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import org.greenrobot.eventbus.EventBus;
 
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 public class FeedUpdateManagerImpl extends FeedUpdateManager {
@@ -33,6 +36,7 @@ public class FeedUpdateManagerImpl extends FeedUpdateManager {
     public static final String EXTRA_NEXT_PAGE = "next_page";
     public static final String EXTRA_EVEN_ON_MOBILE = "even_on_mobile";
     public static final String EXTRA_MANUAL = "manual";
+    public static final String EXTRA_REQUESTED_AT = "requested_at";
     private static final String TAG = "AutoUpdateManager";
     private static long lastManualRefreshTime = 0;
     private static long lastManualRefreshFeedId = -1;
@@ -80,6 +84,7 @@ public class FeedUpdateManagerImpl extends FeedUpdateManager {
         Data.Builder builder = new Data.Builder();
         builder.putBoolean(EXTRA_EVEN_ON_MOBILE, true);
         builder.putBoolean(EXTRA_MANUAL, true);
+        builder.putLong(EXTRA_REQUESTED_AT, lastManualRefreshTime);
         if (feed != null) {
             builder.putLong(EXTRA_FEED_ID, feed.getId());
             builder.putBoolean(EXTRA_NEXT_PAGE, nextPage);
@@ -114,6 +119,32 @@ public class FeedUpdateManagerImpl extends FeedUpdateManager {
         }
     }
 
+    @Override
+    public boolean isFeedUpdateRunning(@NonNull Context context) {
+        WorkManager workManager = WorkManager.getInstance(context);
+        try {
+            for (WorkInfo workInfo : workManager.getWorkInfosByTag(WORK_TAG_FEED_UPDATE).get()) {
+                if (!workInfo.getState().isFinished()) {
+                    return true;
+                }
+            }
+            // The periodic work is always enqueued, so only count it while it actually runs
+            for (WorkInfo workInfo : workManager.getWorkInfosForUniqueWork(WORK_ID_FEED_UPDATE).get()) {
+                if (workInfo.getState() == WorkInfo.State.RUNNING) {
+                    return true;
+                }
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+        }
+        return false;
+    }
+
+    @Override
+    public void deleteLocalFeedIndex(@NonNull Context context, long feedId) {
+        LocalFeedUpdater.deleteIndex(context, feedId);
+    }
+
     private void confirmMobileRefresh(final Context context, @Nullable Feed feed) {
         MaterialAlertDialogBuilder builder = new MaterialAlertDialogBuilder(context)
                 .setTitle(R.string.feed_refresh_title)
@@ -38,20 +38,25 @@ import de.danoeh.antennapod.net.download.serviceinterface.DownloadRequestBuilder
 import de.danoeh.antennapod.parser.feed.FeedHandlerResult;
 import de.danoeh.antennapod.storage.database.NonSubscribedFeedsCleaner;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
+import de.danoeh.antennapod.ui.glide.CoverThumbnailStore;
 import de.danoeh.antennapod.ui.notifications.NotificationUtils;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import okhttp3.HttpUrl;
 
 public class FeedUpdateWorker extends Worker {
     private static final String TAG = "FeedUpdateWorker";
     private static final long JOB_SCHEDULE_TIME_VARIATION = TimeUnit.MINUTES.toMillis(15);
+    private static final int NUM_PARALLEL_REFRESHES = 6;
+    private static final int NUM_PARALLEL_REFRESHES_PER_HOST = 2;
 
     private final NewEpisodesNotification newEpisodesNotification;
     private final NotificationManagerCompat notificationManager;
+    private int numFeedsToUpdate = 0;
 
     public FeedUpdateWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
@@ -70,6 +75,7 @@ public class FeedUpdateWorker extends Worker {
         boolean force = false;
         boolean isAutomaticRefresh = !getInputData().getBoolean(FeedUpdateManagerImpl.EXTRA_MANUAL, false);
         boolean isAutomaticRefreshEnabled = !UserPreferences.isAutoUpdateDisabled();
+        long requestedAt = getInputData().getLong(FeedUpdateManagerImpl.EXTRA_REQUESTED_AT, 0);
         if (feedId == -1) { // Update all
             toUpdate = DBReader.getFeedList();
             Iterator<Feed> itr = toUpdate.iterator();
@@ -86,11 +92,20 @@ public class FeedUpdateWorker extends Worker {
                     itr.remove();
                     continue;
                 }
+                if (!isAutomaticRefresh && requestedAt != 0 && feed.getLastRefreshAttempt() >= requestedAt) {
+                    // Already refreshed by this request before the worker got stopped, for example
+                    // because the app was killed during a large OPML import
+                    itr.remove();
+                    continue;
+                }
                 if (!feed.isLocalFeed()) {
                     allAreLocal = false;
                 }
             }
             Collections.shuffle(toUpdate); // If the worker gets cancelled early, every feed has a chance to be updated
+            // Feeds that were just added (for example by an OPML import) do not have any episodes yet
+            Collections.sort(toUpdate, (a, b) -> Boolean.compare(a.getLastRefreshAttempt() != 0,
+                    b.getLastRefreshAttempt() != 0));
         } else {
             Feed feed = DBReader.getFeed(feedId, false, 0, Integer.MAX_VALUE);
             if (feed == null) {
@@ -113,9 +128,16 @@ public class FeedUpdateWorker extends Worker {
         refreshFeeds(toUpdate,  force);
 
         NonSubscribedFeedsCleaner.deleteOldNonSubscribedFeeds(getApplicationContext());
+        if (feedId == -1) {
+            List<String> imageUrls = new ArrayList<>();
+            for (Feed feed : DBReader.getFeedList()) {
+                imageUrls.add(feed.getImageUrl());
+            }
+            CoverThumbnailStore.retainOnly(getApplicationContext(), imageUrls);
+        }
         AutoDownloadManager.getInstance().autodownloadUndownloadedItems(getApplicationContext());
         notificationManager.cancel(R.id.notification_updating_feeds);
-        SynchronizationQueue.getInstance().syncImmediately();
+        SynchronizationQueue.getInstance().syncAfterFeedUpdate();
         return Result.success();
     }
 
@@ -124,6 +146,8 @@ public class FeedUpdateWorker extends Worker {
         Context context = getApplicationContext();
         String contentText = "";
         StringBuilder bigText = new StringBuilder();
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context,
+                NotificationUtils.CHANNEL_ID_REFRESHING);
         if (toUpdate != null) {
             contentText = context.getResources().getQuantityString(R.plurals.downloads_left,
                     toUpdate.size(), toUpdate.size());
@@ -133,9 +157,11 @@ public class FeedUpdateWorker extends Worker {
                     bigText.append("\n");
                 }
             }
+            if (numFeedsToUpdate > 1) {
+                builder.setProgress(numFeedsToUpdate, numFeedsToUpdate - toUpdate.size(), false);
+            }
         }
-        return new NotificationCompat.Builder(context, NotificationUtils.CHANNEL_ID_REFRESHING)
-                .setContentTitle(context.getString(R.string.download_notification_title_feeds))
+        return builder.setContentTitle(context.getString(R.string.download_notification_title_feeds))
                 .setContentText(contentText)
                 .setStyle(new NotificationCompat.BigTextStyle().bigText(bigText))
                 .setSmallIcon(R.drawable.ic_notification_sync)
@@ -160,10 +186,12 @@ public class FeedUpdateWorker extends Worker {
 
     private void refreshFeeds(List<Feed> toUpdate, boolean force) {
         List<Feed> notificationRemainingFeeds = new ArrayList<>(toUpdate);
+        Set<String> imageUrls = Collections.synchronizedSet(new HashSet<>());
+        numFeedsToUpdate = toUpdate.size();
         updateNotification(notificationRemainingFeeds);
-        ExecutorService executor = Executors.newFixedThreadPool(4);
+        HostAwareExecutor executor = new HostAwareExecutor(NUM_PARALLEL_REFRESHES, NUM_PARALLEL_REFRESHES_PER_HOST);
         for (Feed feed : toUpdate) {
-            executor.submit(() -> {
+            executor.submit(getHost(feed), () -> {
                 if (isStopped()) {
                     return;
                 }
@@ -176,6 +204,9 @@ public class FeedUpdateWorker extends Worker {
                     }
                     if (savedFeed != null) {
                         newEpisodesNotification.showIfNeeded(getApplicationContext(), savedFeed);
+                        if (savedFeed.getImageUrl() != null) {
+                            imageUrls.add(savedFeed.getImageUrl());
+                        }
                     }
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -193,12 +224,23 @@ public class FeedUpdateWorker extends Worker {
                 }
             });
         }
-        executor.shutdown();
         try {
-            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            executor.shutdownAndAwaitTermination();
         } catch (InterruptedException e) {
             //~300 years have elapsed
         }
+        if (!isStopped()) {
+            CoverThumbnailStore.generateMissing(getApplicationContext(), imageUrls);
+        }
+    }
+
+    @Nullable
+    private static String getHost(Feed feed) {
+        if (feed.isLocalFeed() || feed.getDownloadUrl() == null) {
+            return null;
+        }
+        HttpUrl url = HttpUrl.parse(feed.getDownloadUrl());
+        return url != null ? url.host() : null;
     }
 
     Feed refreshFeed(Feed feed, boolean force) throws Exception {
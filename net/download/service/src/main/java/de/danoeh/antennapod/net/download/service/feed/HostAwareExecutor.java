@@ -0,0 +1,113 @@
+package de.danoeh.antennapod.net.download.service.feed;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on a fixed number of threads, but only a few of them for the same host at a time.
+ * Many podcasts are served by the same hosting services. With a plain thread pool, all threads
+ * would often wait for the same server while feeds on other servers could already be loaded.
+ * Tasks of different hosts are taken in turns.
+ */
+class HostAwareExecutor {
+    private final int maxTasksPerHost;
+    private final ExecutorService threads;
+    private final LinkedHashMap<String, ArrayDeque<Runnable>> pendingTasks = new LinkedHashMap<>();
+    private final Map<String, Integer> runningTasks = new HashMap<>();
+    private boolean isShutdown = false;
+
+    HostAwareExecutor(int numThreads, int maxTasksPerHost) {
+        this.maxTasksPerHost = maxTasksPerHost;
+        threads = Executors.newFixedThreadPool(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            threads.submit(this::runTasks);
+        }
+        threads.shutdown();
+    }
+
+    /**
+     * @param host The host the task connects to, or null if it does not use the network.
+     */
+    synchronized void submit(@Nullable String host, @NonNull Runnable task) {
+        if (isShutdown) {
+            throw new IllegalStateException("Executor is already shut down");
+        }
+        String key = host != null ? host : "";
+        ArrayDeque<Runnable> tasks = pendingTasks.get(key);
+        if (tasks == null) {
+            tasks = new ArrayDeque<>();
+            pendingTasks.put(key, tasks);
+        }
+        tasks.add(task);
+        notifyAll();
+    }
+
+    /**
+     * Runs the tasks that were already submitted and waits until all of them are done.
+     */
+    void shutdownAndAwaitTermination() throws InterruptedException {
+        synchronized (this) {
+            isShutdown = true;
+            notifyAll();
+        }
+        threads.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    private void runTasks() {
+        while (true) {
+            String host;
+            Runnable task;
+            synchronized (this) {
+                while ((host = nextHost()) == null) {
+                    if (pendingTasks.isEmpty() && isShutdown) {
+                        return;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                ArrayDeque<Runnable> tasks = pendingTasks.remove(host);
+                task = tasks.poll();
+                if (!tasks.isEmpty()) {
+                    pendingTasks.put(host, tasks); // Re-inserting moves the host behind the others
+                }
+                runningTasks.put(host, numRunningTasks(host) + 1);
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                synchronized (this) {
+                    runningTasks.put(host, numRunningTasks(host) - 1);
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private String nextHost() {
+        for (String host : pendingTasks.keySet()) {
+            if (numRunningTasks(host) < maxTasksPerHost) {
+                return host;
+            }
+        }
+        return null;
+    }
+
+    private int numRunningTasks(String host) {
+        Integer running = runningTasks.get(host);
+        return running != null ? running : 0;
+    }
+}
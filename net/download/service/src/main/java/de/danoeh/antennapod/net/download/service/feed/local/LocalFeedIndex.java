@@ -0,0 +1,107 @@
+package de.danoeh.antennapod.net.download.service.feed.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import org.apache.commons.io.FileUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the size and modification date of the files in a local feed folder when they were last scanned.
+ * The metadata of the files is stored in the feed items, so it only needs to be read again
+ * if a file changed.
+ */
+class LocalFeedIndex {
+    private static final String TAG = "LocalFeedIndex";
+    private static final String DIRECTORY = "local_feed_index";
+    private static final String KEY_URI = "uri";
+    private static final String KEY_SIZE = "size";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+
+    private final File file;
+    private final Map<String, long[]> entries = new HashMap<>();
+
+    private LocalFeedIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the index of a feed. If the index does not exist or cannot be read, it is empty.
+     */
+    @NonNull
+    static LocalFeedIndex load(Context context, long feedId) {
+        LocalFeedIndex index = new LocalFeedIndex(getFile(context, feedId));
+        if (!index.file.exists()) {
+            return index;
+        }
+        try {
+            JSONArray array = new JSONArray(FileUtils.readFileToString(index.file, StandardCharsets.UTF_8));
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject entry = array.getJSONObject(i);
+                index.entries.put(entry.getString(KEY_URI),
+                        new long[] {entry.getLong(KEY_SIZE), entry.getLong(KEY_LAST_MODIFIED)});
+            }
+        } catch (IOException | JSONException e) {
+            Log.d(TAG, "Unable to read " + index.file + ": " + e.getMessage());
+            index.entries.clear();
+        }
+        return index;
+    }
+
+    /**
+     * Deletes the index of a feed, for example because the feed was removed.
+     */
+    static void delete(Context context, long feedId) {
+        File file = getFile(context, feedId);
+        if (file.exists() && !file.delete()) {
+            Log.d(TAG, "Unable to delete " + file);
+        }
+    }
+
+    private static File getFile(Context context, long feedId) {
+        return new File(new File(context.getFilesDir(), DIRECTORY), feedId + ".json");
+    }
+
+    /**
+     * @return true if the file has the same size and modification date as when it was last scanned
+     */
+    boolean isUnchanged(FastDocumentFile file) {
+        long[] entry = entries.get(file.getUri().toString());
+        return entry != null && entry[0] == file.getLength() && entry[1] == file.getLastModified();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Replaces the index with the given files and writes it to disk.
+     */
+    void save(List<FastDocumentFile> files) {
+        entries.clear();
+        JSONArray array = new JSONArray();
+        try {
+            for (FastDocumentFile file : files) {
+                entries.put(file.getUri().toString(), new long[] {file.getLength(), file.getLastModified()});
+                JSONObject entry = new JSONObject();
+                entry.put(KEY_URI, file.getUri().toString());
+                entry.put(KEY_SIZE, file.getLength());
+                entry.put(KEY_LAST_MODIFIED, file.getLastModified());
+                array.put(entry);
+            }
+            FileUtils.writeStringToFile(file, array.toString(), StandardCharsets.UTF_8);
+        } catch (IOException | JSONException e) {
+            Log.d(TAG, "Unable to write " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -19,12 +19,18 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import androidx.annotation.VisibleForTesting;
 import androidx.documentfile.provider.DocumentFile;
@@ -51,6 +57,7 @@ public class LocalFeedUpdater {
     private static final String TAG = "LocalFeedUpdater";
 
     static final String[] PREFERRED_FEED_IMAGE_FILENAMES = {"folder.jpg", "Folder.jpg", "folder.png", "Folder.png"};
+    private static final int MAX_SCAN_THREADS = 4;
 
     public static Feed updateFeed(Feed feed, Context context,
                                   @Nullable UpdaterProgressListener updaterProgressListener) {
@@ -79,6 +86,13 @@ public class LocalFeedUpdater {
         return null;
     }
 
+    /**
+     * Deletes what is remembered about the files of a local feed. Call this when the feed is removed.
+     */
+    public static void deleteIndex(Context context, long feedId) {
+        LocalFeedIndex.delete(context, feedId);
+    }
+
     @VisibleForTesting
     static Feed tryUpdateFeed(Feed feed, Context context, Uri folderUri,
                               UpdaterProgressListener updaterProgressListener) throws IOException {
@@ -102,41 +116,111 @@ public class LocalFeedUpdater {
             }
         }
 
+        Map<String, FeedItem> itemsByFileName = new HashMap<>();
+        for (FeedItem item : feed.getItems()) {
+            if (item.getMedia() != null && !itemsByFileName.containsKey(item.getLink())) {
+                itemsByFileName.put(item.getLink(), item);
+            }
+        }
+
+        // only read the metadata of files that are new or changed since the last scan
+        LocalFeedIndex index = LocalFeedIndex.load(context, feed.getId());
+        List<FastDocumentFile> changedFiles = new ArrayList<>();
+        for (FastDocumentFile file : mediaFiles) {
+            FeedItem oldItem = itemsByFileName.get(file.getName());
+            boolean unchanged = oldItem != null
+                    && oldItem.getMedia().getDownloadUrl().equals(file.getUri().toString())
+                    && (index.isUnchanged(file)
+                        || (index.isEmpty() && file.getLength() == oldItem.getMedia().getSize()));
+            if (!unchanged) {
+                changedFiles.add(file);
+            }
+        }
+        List<FeedItem> scannedItems = scanFiles(feed, changedFiles, context, updaterProgressListener,
+                mediaFiles.size() - changedFiles.size(), mediaFiles.size());
+
         // add new files to feed and update item data
         List<FeedItem> newItems = feed.getItems();
-        for (int i = 0; i < mediaFiles.size(); i++) {
-            FeedItem oldItem = feedContainsFile(feed, mediaFiles.get(i).getName());
-            FeedItem newItem = createFeedItem(feed, mediaFiles.get(i), context);
+        for (int i = 0; i < changedFiles.size(); i++) {
+            FeedItem oldItem = itemsByFileName.get(changedFiles.get(i).getName());
             if (oldItem == null) {
-                newItems.add(newItem);
+                newItems.add(scannedItems.get(i));
             } else {
-                oldItem.updateFromOther(newItem);
-            }
-            if (updaterProgressListener != null) {
-                updaterProgressListener.onLocalFileScanned(i, mediaFiles.size());
+                oldItem.updateFromOther(scannedItems.get(i));
             }
         }
 
         // remove feed items without corresponding file
+        boolean removedItems = false;
         Iterator<FeedItem> it = newItems.iterator();
         while (it.hasNext()) {
             FeedItem feedItem = it.next();
             if (!mediaFileNames.contains(feedItem.getLink())) {
                 it.remove();
+                removedItems = true;
             }
         }
 
-        feed.setImageUrl(getImageUrl(allFiles, folderUri));
-
-        feed.getPreferences().setAutoDownload(FeedPreferences.AutoDownloadSetting.DISABLED);
-        feed.setDescription(context.getString(R.string.local_feed_description));
-        feed.setAuthor(context.getString(R.string.local_folder));
-
-        FeedDatabaseWriter.updateFeed(context, feed, true);
-
+        String imageUrl = getImageUrl(allFiles, folderUri);
+        String description = context.getString(R.string.local_feed_description);
+        String author = context.getString(R.string.local_folder);
+        boolean changed = !changedFiles.isEmpty() || removedItems
+                || !imageUrl.equals(feed.getImageUrl())
+                || !description.equals(feed.getDescription())
+                || !author.equals(feed.getAuthor())
+                || feed.getPreferences().getAutoDownload() != FeedPreferences.AutoDownloadSetting.DISABLED;
+        if (changed) {
+            feed.setImageUrl(imageUrl);
+            feed.getPreferences().setAutoDownload(FeedPreferences.AutoDownloadSetting.DISABLED);
+            feed.setDescription(description);
+            feed.setAuthor(author);
+            FeedDatabaseWriter.updateFeed(context, feed, true);
+        }
+        if (changed || index.isEmpty()) {
+            index.save(mediaFiles);
+        }
         return feed;
     }
 
+    /**
+     * Reads the metadata of the files in parallel.
+     *
+     * @return The items, in the same order as the files
+     */
+    private static List<FeedItem> scanFiles(Feed feed, List<FastDocumentFile> files, Context context,
+                                            UpdaterProgressListener updaterProgressListener,
+                                            int alreadyScanned, int totalFiles) throws IOException {
+        if (updaterProgressListener != null) {
+            updaterProgressListener.onLocalFileScanned(alreadyScanned, totalFiles);
+        }
+        List<FeedItem> items = new ArrayList<>();
+        if (files.isEmpty()) {
+            return items;
+        }
+        int numThreads = Math.min(files.size(), Math.min(MAX_SCAN_THREADS, Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+        try {
+            List<Future<FeedItem>> futures = new ArrayList<>();
+            for (FastDocumentFile file : files) {
+                futures.add(executor.submit(() -> createFeedItem(feed, file, context)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                items.add(futures.get(i).get());
+                if (updaterProgressListener != null) {
+                    updaterProgressListener.onLocalFileScanned(alreadyScanned + i + 1, totalFiles);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Scanning the folder was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return items;
+    }
+
     /**
      * Returns the image URL for the local feed.
      */
@@ -163,16 +247,6 @@ public class LocalFeedUpdater {
         return Feed.PREFIX_GENERATIVE_COVER + folderUri;
     }
 
-    private static FeedItem feedContainsFile(Feed feed, String filename) {
-        List<FeedItem> items = feed.getItems();
-        for (FeedItem i : items) {
-            if (i.getMedia() != null && i.getLink().equals(filename)) {
-                return i;
-            }
-        }
-        return null;
-    }
-
     private static FeedItem createFeedItem(Feed feed, FastDocumentFile file, Context context) {
         String title = FilenameUtils.removeExtension(file.getName());
         FeedItem item = new FeedItem(0, title, UUID.randomUUID().toString(),
@@ -184,17 +258,6 @@ public class LocalFeedUpdater {
                 file.getUri().toString(), file.getUri().toString(), 0, null, 0, 0);
         item.setMedia(media);
 
-        for (FeedItem existingItem : feed.getItems()) {
-            if (existingItem.getMedia() != null
-                    && existingItem.getMedia().getDownloadUrl().equals(file.getUri().toString())
-                    && file.getLength() == existingItem.getMedia().getSize()) {
-                // We found an old file that we already scanned. Re-use metadata.
-                item.updateFromOther(existingItem);
-                return item;
-            }
-        }
-
-        // Did not find existing item. Scan metadata.
         try {
             loadMetadata(item, file, context);
         } catch (Exception e) {
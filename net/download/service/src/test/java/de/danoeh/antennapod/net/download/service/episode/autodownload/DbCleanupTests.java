@@ -31,6 +31,7 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
 import static de.danoeh.antennapod.net.download.service.episode.autodownload.DbTestUtils.saveFeedlist;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -124,6 +125,28 @@ public class DbCleanupTests {
         }
     }
 
+    @Test
+    public void testCleanupPlanDoesNotDelete() throws IOException {
+        final int numItems = EPISODE_CACHE_SIZE * 2;
+
+        Feed feed = new Feed("url", null, "title");
+        List<FeedItem> items = new ArrayList<>();
+        feed.setItems(items);
+        List<File> files = new ArrayList<>();
+        populateItems(numItems, feed, items, files, FeedItem.PLAYED, false, false);
+
+        EpisodeCleanupAlgorithm algorithm = EpisodeCleanupAlgorithmFactory.build();
+        assertEquals(numItems, algorithm.getReclaimableItems());
+        List<FeedItem> plan = algorithm.getCleanupPlan();
+        assertEquals(EPISODE_CACHE_SIZE, plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            assertEquals(items.get(numItems - 1 - i).getId(), plan.get(i).getId());
+        }
+        for (File file : files) {
+            assertTrue(file.exists());
+        }
+    }
+
     @SuppressWarnings("SameParameterValue")
     void populateItems(final int numItems, Feed feed, List<FeedItem> items,
                        List<File> files, int itemState, boolean addToQueue,
@@ -9,6 +9,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import androidx.test.platform.app.InstrumentationRegistry;
 
@@ -19,12 +20,14 @@ import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.model.feed.FeedOrder;
 import de.danoeh.antennapod.model.feed.SortOrder;
+import de.danoeh.antennapod.model.feed.Transcript;
 import de.danoeh.antennapod.storage.database.DBReader;
 import de.danoeh.antennapod.storage.database.DBWriter;
 import de.danoeh.antennapod.storage.database.NavDrawerData;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import de.danoeh.antennapod.storage.database.LongList;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
+import de.danoeh.antennapod.storage.database.TranscriptSearchHit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -463,6 +466,244 @@ public class DbReaderTest {
             assertEquals(item1.getItemIdentifier(), feedItemByGuid.getItemIdentifier());
         }
 
+        @Test
+        public void testGetItemsByGuidsOrEpisodeUrls() {
+            saveFeedlist(2, 3, true);
+            List<String> guids = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                guids.add("unknown" + i);
+            }
+            guids.add("id0");
+            List<FeedItem> items = DBReader.getFeedItemsByGuidsOrEpisodeUrls(guids,
+                    Arrays.asList("url2", "unknown"));
+            assertEquals(4, items.size());
+            for (FeedItem item : items) {
+                assertTrue(item.getItemIdentifier().equals("id0")
+                        || item.getMedia().getDownloadUrl().equals("url2"));
+            }
+            assertTrue(DBReader.getFeedItemsByGuidsOrEpisodeUrls(Collections.emptyList(),
+                    Collections.emptyList()).isEmpty());
+        }
+
+        @Test
+        public void testHasFeedsNeverRefreshed() {
+            saveFeedlist(2, 0, false);
+            assertFalse(DBReader.hasFeedsNeverRefreshed());
+
+            Feed feed = new Feed(0, null, "new feed", "link", "descr", null, null,
+                    null, null, "new", null, null, "url-new", 0);
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setCompleteFeed(feed);
+            adapter.close();
+            assertTrue(DBReader.hasFeedsNeverRefreshed());
+
+            adapter.open();
+            adapter.setFeedState(feed.getId(), Feed.STATE_NOT_SUBSCRIBED);
+            adapter.close();
+            assertFalse(DBReader.hasFeedsNeverRefreshed());
+        }
+
+        @Test
+        public void testGetAutoDownloadCandidates() {
+            List<Feed> feeds = saveFeedlist(2, 3, true);
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            for (Feed feed : feeds) {
+                for (FeedItem item : feed.getItems()) {
+                    adapter.setFeedItemRead(FeedItem.NEW, item.getId());
+                }
+            }
+            adapter.close();
+
+            List<FeedItem> candidates = DBReader.getAutoDownloadCandidates(true, false, 10);
+            assertEquals(2, candidates.size());
+            assertEquals(feeds.get(1).getItems().get(2).getId(), candidates.get(0).getId());
+            assertEquals(feeds.get(0).getItems().get(2).getId(), candidates.get(1).getId());
+            assertEquals(1, DBReader.getAutoDownloadCandidates(true, false, 1).size());
+            assertTrue(DBReader.getAutoDownloadCandidates(false, false, 10).isEmpty());
+
+            FeedItem queued = feeds.get(0).getItems().get(0);
+            adapter.open();
+            adapter.setFeedItemRead(FeedItem.PLAYED, feeds.get(0).getItems().get(2).getId());
+            adapter.setQueue(Collections.singletonList(queued));
+            adapter.close();
+            candidates = DBReader.getAutoDownloadCandidates(false, true, 10);
+            assertEquals(1, candidates.size());
+            assertEquals(queued.getId(), candidates.get(0).getId());
+
+            candidates = DBReader.getAutoDownloadCandidates(true, false, 10);
+            assertEquals(2, candidates.size());
+            assertEquals(feeds.get(0).getItems().get(1).getId(), candidates.get(1).getId());
+        }
+
+        @Test
+        public void testDescriptionIsLoadedAndSearched() {
+            List<Feed> feeds = saveFeedlist(1, 3, true);
+            FeedItem item = feeds.get(0).getItems().get(1);
+            StringBuilder description = new StringBuilder();
+            for (int i = 0; i < 50; i++) {
+                description.append("<p>Notes about sourdough bread, part ").append(i).append("</p>");
+            }
+            item.setDescriptionIfLonger(description.toString());
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setSingleFeedItem(item);
+            adapter.close();
+
+            FeedItem loaded = DBReader.getFeedItem(item.getId());
+            assertNotNull(loaded);
+            DBReader.loadDescriptionOfFeedItem(loaded);
+            assertEquals(description.toString(), loaded.getDescription());
+
+            List<FeedItem> results = DBReader.searchFeedItems(0, "SOURDOUGH part", Feed.STATE_SUBSCRIBED);
+            assertEquals(1, results.size());
+            assertEquals(item.getId(), results.get(0).getId());
+            assertEquals(3, DBReader.searchFeedItems(0, "item", Feed.STATE_SUBSCRIBED).size());
+            assertTrue(DBReader.searchFeedItems(0, "sourdough pizza", Feed.STATE_SUBSCRIBED).isEmpty());
+        }
+
+        @Test
+        public void testSearchIndexFollowsDescriptions() {
+            List<Feed> feeds = saveFeedlist(1, 2, true);
+            FeedItem item = feeds.get(0).getItems().get(0);
+            item.setDescriptionIfLonger("<p>All about <b>sourdough</b></p>");
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setSingleFeedItem(item);
+            adapter.close();
+            assertEquals(1, DBReader.searchFeedItems(0, "sourd", Feed.STATE_SUBSCRIBED).size());
+            assertTrue(DBReader.searchFeedItems(0, "about b", Feed.STATE_SUBSCRIBED).isEmpty());
+
+            item.setDescriptionIfLonger("<p>All about pizza dough, with a longer description than before</p>");
+            adapter.open();
+            adapter.setSingleFeedItem(item);
+            adapter.close();
+            assertEquals(1, DBReader.searchFeedItems(0, "pizza dough", Feed.STATE_SUBSCRIBED).size());
+            // The words of the old description are still in the index, but must not match anymore
+            assertTrue(DBReader.searchFeedItems(0, "sourdough", Feed.STATE_SUBSCRIBED).isEmpty());
+
+            adapter.open();
+            adapter.removeFeedItems(Collections.singletonList(item));
+            adapter.close();
+            assertTrue(DBReader.searchFeedItems(0, "pizza", Feed.STATE_SUBSCRIBED).isEmpty());
+        }
+
+        @Test
+        public void testSearchTranscripts() {
+            List<Feed> feeds = saveFeedlist(1, 2, true);
+            FeedItem item = feeds.get(0).getItems().get(1);
+            Transcript transcript = new Transcript();
+            transcript.addSegment(1000, 2000, "Welcome to the show", "");
+            transcript.addSegment(5000, 6000, "Today we talk about sourdough bread", "");
+            transcript.addSegment(9000, 10000, "More bread recipes", "");
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setTranscriptIndex(item.getMedia().getId(), transcript);
+            adapter.close();
+
+            List<TranscriptSearchHit> hits = DBReader.searchTranscripts(0, "bread", Feed.STATE_SUBSCRIBED);
+            assertEquals(1, hits.size());
+            assertEquals(item.getId(), hits.get(0).item.getId());
+            assertEquals(5000, hits.get(0).startTime);
+            assertEquals("Today we talk about sourdough bread", hits.get(0).words);
+            assertEquals(1, DBReader.searchTranscripts(0, "talk sour", Feed.STATE_SUBSCRIBED).size());
+            assertTrue(DBReader.searchTranscripts(0, "pizza", Feed.STATE_SUBSCRIBED).isEmpty());
+            assertTrue(DBReader.searchTranscripts(0, "\"* OR", Feed.STATE_SUBSCRIBED).isEmpty());
+            assertTrue(DBReader.searchTranscripts(0, "-()", Feed.STATE_SUBSCRIBED).isEmpty());
+
+            adapter.open();
+            adapter.removeFeedItems(Collections.singletonList(item));
+            adapter.close();
+            assertTrue(DBReader.searchTranscripts(0, "bread", Feed.STATE_SUBSCRIBED).isEmpty());
+        }
+
+        @Test
+        public void testStatisticsAreAggregatedPerDay() {
+            final long day = TimeUnit.DAYS.toMillis(1);
+            final long jan1 = 1577836800000L + TimeUnit.HOURS.toMillis(12); // Noon, 2020-01-01 UTC
+            Feed feed = saveFeedlist(1, 2, true).get(0);
+            FeedMedia first = feed.getItems().get(0).getMedia();
+            FeedMedia second = feed.getItems().get(1).getMedia();
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            savePlayback(adapter, first, 60_000, jan1);
+            savePlayback(adapter, first, 90_000, jan1 + 2 * day);
+            savePlayback(adapter, second, 120_000, jan1 + 2 * day);
+            adapter.close();
+
+            assertEquals(210, DBReader.getStatistics(false, 0, Long.MAX_VALUE).feedTime.get(0).timePlayed);
+            assertEquals(150, DBReader.getStatistics(false, jan1 + day, Long.MAX_VALUE).feedTime.get(0).timePlayed);
+            assertEquals(60, DBReader.getStatistics(false, 0, jan1 + day).feedTime.get(0).timePlayed);
+
+            List<DBReader.MonthlyStatisticsItem> months = DBReader.getMonthlyTimeStatistics();
+            assertEquals(1, months.size());
+            assertEquals(2020, months.get(0).getYear());
+            assertEquals(1, months.get(0).getMonth());
+            assertEquals(210_000, months.get(0).getTimePlayed());
+
+            adapter.open();
+            adapter.resetAllMediaPlayedDuration();
+            adapter.close();
+            assertEquals(0, DBReader.getStatistics(false, 0, Long.MAX_VALUE).feedTime.get(0).timePlayed);
+        }
+
+        @Test
+        public void testTimeBetweenReleaseAndPlayback() {
+            final long hour = TimeUnit.HOURS.toMillis(1);
+            Feed feed = saveFeedlist(1, 3, true).get(0);
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            int[] delayHours = {5, 30, 100};
+            for (int i = 0; i < delayHours.length; i++) {
+                FeedItem item = feed.getItems().get(i);
+                savePlayback(adapter, item.getMedia(), 1000, item.getPubDate().getTime() + delayHours[i] * hour);
+            }
+            adapter.close();
+            assertEquals(30 * hour, DBReader.getTimeBetweenReleaseAndPlayback(0, Long.MAX_VALUE));
+
+            // Playing an episode again replaces its delay
+            FeedItem item = feed.getItems().get(0);
+            adapter.open();
+            savePlayback(adapter, item.getMedia(), 2000, item.getPubDate().getTime() + 200 * hour);
+            adapter.close();
+            assertEquals(100 * hour, DBReader.getTimeBetweenReleaseAndPlayback(0, Long.MAX_VALUE));
+
+            long afterAllPlays = item.getPubDate().getTime() + TimeUnit.DAYS.toMillis(30);
+            assertEquals(0, DBReader.getTimeBetweenReleaseAndPlayback(afterAllPlays, Long.MAX_VALUE));
+        }
+
+        @Test
+        public void testSavingMediaKeepsReleasePlayDelays() {
+            final long hour = TimeUnit.HOURS.toMillis(1);
+            Feed feed = saveFeedlist(1, 3, true).get(0);
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            int[] delayHours = {5, 30, 100};
+            for (int i = 0; i < delayHours.length; i++) {
+                FeedItem item = feed.getItems().get(i);
+                savePlayback(adapter, item.getMedia(), 1000, item.getPubDate().getTime() + delayHours[i] * hour);
+            }
+
+            // Playback changes the last played time in memory, then other code saves the whole media
+            FeedMedia media = feed.getItems().get(0).getMedia();
+            long playedAgain = feed.getItems().get(0).getPubDate().getTime() + 200 * hour;
+            media.setLastPlayedTimeStatistics(playedAgain);
+            adapter.setMedia(media);
+            savePlayback(adapter, media, 2000, playedAgain);
+            adapter.close();
+
+            // The delay of 5 hours is replaced, not counted in addition
+            assertEquals(100 * hour, DBReader.getTimeBetweenReleaseAndPlayback(0, Long.MAX_VALUE));
+            assertEquals(4, DBReader.getStatistics(false, 0, Long.MAX_VALUE).feedTime.get(0).timePlayed);
+        }
+
+        private static void savePlayback(PodDBAdapter adapter, FeedMedia media, int playedDuration, long time) {
+            media.setPlayedDuration(playedDuration);
+            media.setLastPlayedTimeStatistics(time);
+            media.setLastPlayedTimeHistory(new Date(time));
+            adapter.setFeedMediaPlaybackInformation(media);
+        }
     }
 
     @RunWith(ParameterizedRobolectricTestRunner.class)
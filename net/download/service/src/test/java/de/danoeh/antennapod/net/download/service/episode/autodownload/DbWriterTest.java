@@ -36,6 +36,7 @@ import java.util.concurrent.TimeUnit;
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.model.feed.Transcript;
 import de.danoeh.antennapod.storage.preferences.PlaybackPreferences;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 
@@ -160,6 +161,32 @@ public class DbWriterTest {
         assertNull(media.getLocalFileUrl());
     }
 
+    @Test
+    public void testDeleteFeedMediaOfItemRemovesTranscriptIndex() throws Exception {
+        File dest = new File(context.getExternalFilesDir(TEST_FOLDER), "testFile");
+        assertTrue(dest.createNewFile());
+
+        Feed feed = new Feed("url", null, "title");
+        feed.setItems(new ArrayList<>());
+        FeedItem item = new FeedItem(0, "Item", "Item", "url", new Date(), FeedItem.PLAYED, feed);
+        FeedMedia media = new FeedMedia(0, item, 1, 1, 1, "mime_type",
+                dest.getAbsolutePath(), "download_url", System.currentTimeMillis(), null, 0, 0);
+        item.setMedia(media);
+        feed.getItems().add(item);
+
+        Transcript transcript = new Transcript();
+        transcript.addSegment(1000, 2000, "Today we talk about sourdough bread", "");
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setCompleteFeed(feed);
+        adapter.setTranscriptIndex(media.getId(), transcript);
+        adapter.close();
+        assertEquals(1, DBReader.searchTranscripts(feed.getId(), "sourdough", Feed.STATE_SUBSCRIBED).size());
+
+        DBWriter.deleteFeedMediaOfItem(context, media).get(TIMEOUT, TimeUnit.SECONDS);
+        assertTrue(DBReader.searchTranscripts(feed.getId(), "sourdough", Feed.STATE_SUBSCRIBED).isEmpty());
+    }
+
     @Test
     public void testDeleteFeedMediaOfItemRemoveFromQueue() throws Exception {
         assertTrue(UserPreferences.shouldDeleteRemoveFromQueue());
@@ -0,0 +1,87 @@
+package de.danoeh.antennapod.net.download.service.feed;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link HostAwareExecutor}
+ */
+public class HostAwareExecutorTest {
+
+    @Test
+    public void testRunsAllTasks() throws InterruptedException {
+        HostAwareExecutor executor = new HostAwareExecutor(3, 2);
+        AtomicInteger numTasksRun = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            executor.submit(i % 3 == 0 ? null : "host" + (i % 4), numTasksRun::incrementAndGet);
+        }
+        executor.shutdownAndAwaitTermination();
+        assertEquals(20, numTasksRun.get());
+    }
+
+    @Test
+    public void testLimitsTasksPerHost() throws InterruptedException {
+        HostAwareExecutor executor = new HostAwareExecutor(4, 2);
+        Map<String, Integer> running = new HashMap<>();
+        Map<String, Integer> maxRunning = Collections.synchronizedMap(new HashMap<>());
+        for (int i = 0; i < 12; i++) {
+            String host = i < 8 ? "busy.example.com" : "other.example.com";
+            executor.submit(host, () -> {
+                synchronized (running) {
+                    Integer count = running.get(host);
+                    count = count != null ? count + 1 : 1;
+                    running.put(host, count);
+                    Integer max = maxRunning.get(host);
+                    maxRunning.put(host, max != null ? Math.max(max, count) : count);
+                }
+                sleep(20);
+                synchronized (running) {
+                    running.put(host, running.get(host) - 1);
+                }
+            });
+        }
+        executor.shutdownAndAwaitTermination();
+        assertTrue(maxRunning.get("busy.example.com") <= 2);
+        assertTrue(maxRunning.get("other.example.com") <= 2);
+    }
+
+    @Test
+    public void testOtherHostsAreNotBlockedBySlowHost() throws InterruptedException {
+        HostAwareExecutor executor = new HostAwareExecutor(3, 1);
+        CountDownLatch slowHostReleased = new CountDownLatch(1);
+        CountDownLatch otherHostDone = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.submit("slow.example.com", () -> {
+                try {
+                    slowHostReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int i = 0; i < 3; i++) {
+            executor.submit("fast.example.com", otherHostDone::countDown);
+        }
+        // Only one thread waits for the slow host, so the others work on the fast host
+        assertTrue(otherHostDone.await(5, TimeUnit.SECONDS));
+        slowHostReleased.countDown();
+        executor.shutdownAndAwaitTermination();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
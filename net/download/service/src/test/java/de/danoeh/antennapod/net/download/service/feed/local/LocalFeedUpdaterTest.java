@@ -44,6 +44,8 @@ import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.robolectric.Shadows.shadowOf;
 
@@ -174,6 +176,41 @@ public class LocalFeedUpdaterTest {
         assertEquals("track1", feedItems.get(0).getTitle());
     }
 
+    /**
+     * Test that the metadata of files is only read again if they changed.
+     */
+    @Test
+    public void testUpdateFeed_OnlyChangedFilesAreScanned() {
+        callUpdateFeed(LOCAL_FEED_DIR1);
+        Feed feed = verifySingleFeedInDatabase();
+        FeedItem item = DBReader.getFeedItemList(feed, FeedItemFilter.unfiltered(),
+                SortOrder.DATE_NEW_OLD, 0, Integer.MAX_VALUE).get(0);
+        item.setTitle("renamed");
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setSingleFeedItem(item);
+        adapter.close();
+
+        callUpdateFeed(LOCAL_FEED_DIR1);
+        assertEquals("renamed", DBReader.getFeedItem(item.getId()).getTitle());
+
+        callUpdateFeed(LOCAL_FEED_DIR1, 1000);
+        assertEquals("track1", DBReader.getFeedItem(item.getId()).getTitle());
+    }
+
+    /**
+     * Test that the index of scanned files can be deleted when the feed is removed.
+     */
+    @Test
+    public void testDeleteIndex() {
+        callUpdateFeed(LOCAL_FEED_DIR1);
+        Feed feed = verifySingleFeedInDatabase();
+        assertFalse(LocalFeedIndex.load(context, feed.getId()).isEmpty());
+
+        LocalFeedUpdater.deleteIndex(context, feed.getId());
+        assertTrue(LocalFeedIndex.load(context, feed.getId()).isEmpty());
+    }
+
     @Test
     public void testGetImageUrl_EmptyFolder() {
         String imageUrl = LocalFeedUpdater.getImageUrl(Collections.emptyList(), Uri.EMPTY);
@@ -252,9 +289,20 @@ public class LocalFeedUpdaterTest {
      * @param localFeedDir assets local feed folder with media files
      */
     private void callUpdateFeed(@NonNull String localFeedDir) {
+        callUpdateFeed(localFeedDir, 0);
+    }
+
+    /**
+     * Calls the method LocalFeedUpdater#tryUpdateFeed with the given local feed folder.
+     *
+     * @param localFeedDir assets local feed folder with media files
+     * @param lastModifiedOffset added to the modification date of all files
+     */
+    private void callUpdateFeed(@NonNull String localFeedDir, long lastModifiedOffset) {
         try (MockedStatic<FastDocumentFile> dfMock = Mockito.mockStatic(FastDocumentFile.class)) {
             // mock external storage
-            dfMock.when(() -> FastDocumentFile.list(any(), any())).thenReturn(mockLocalFolder(localFeedDir));
+            dfMock.when(() -> FastDocumentFile.list(any(), any()))
+                    .thenReturn(mockLocalFolder(localFeedDir, lastModifiedOffset));
 
             // call method to test
             Feed feed = new Feed(FEED_URL, null);
@@ -297,13 +345,13 @@ public class LocalFeedUpdaterTest {
         return new FastDocumentFile(fileName, mimeType, Uri.parse("file:///path/" + fileName), 0, 0);
     }
 
-    private static List<FastDocumentFile> mockLocalFolder(String folderName) {
+    private static List<FastDocumentFile> mockLocalFolder(String folderName, long lastModifiedOffset) {
         List<FastDocumentFile> files = new ArrayList<>();
         for (File f : Objects.requireNonNull(new File(folderName).listFiles())) {
             String extension = MimeTypeMap.getFileExtensionFromUrl(f.getPath());
             String mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
             files.add(new FastDocumentFile(f.getName(), mimeType,
-                    Uri.parse(f.toURI().toString()), f.length(), f.lastModified()));
+                    Uri.parse(f.toURI().toString()), f.length(), f.lastModified() + lastModifiedOffset));
         }
         return files;
     }
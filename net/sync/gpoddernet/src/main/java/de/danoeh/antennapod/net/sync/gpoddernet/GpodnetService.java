@@ -1,5 +1,6 @@
 package de.danoeh.antennapod.net.sync.gpoddernet;
 
+import android.util.JsonReader;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -18,12 +19,14 @@ import org.json.JSONObject;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -191,14 +194,11 @@ public class GpodnetService implements ISyncService {
         try {
             URL url = new URI(baseScheme, null, baseHost, basePort, path, params, null).toURL();
             Request.Builder request = new Request.Builder().url(url);
-
-            String response = executeRequest(request);
-            JSONObject changes = new JSONObject(response);
-            return ResponseMapper.readSubscriptionChangesFromJsonObject(changes);
+            return executeRequest(request, ResponseMapper::readSubscriptionChangesFromJsonReader);
         } catch (URISyntaxException e) {
             e.printStackTrace();
             throw new IllegalStateException(e);
-        } catch (JSONException | MalformedURLException e) {
+        } catch (MalformedURLException e) {
             e.printStackTrace();
             throw new GpodnetServiceException(e);
         }
@@ -272,14 +272,11 @@ public class GpodnetService implements ISyncService {
         try {
             URL url = new URI(baseScheme, null, baseHost, basePort, path, params, null).toURL();
             Request.Builder request = new Request.Builder().url(url);
-
-            String response = executeRequest(request);
-            JSONObject json = new JSONObject(response);
-            return ResponseMapper.readEpisodeActionsFromJsonObject(json);
+            return executeRequest(request, ResponseMapper::readEpisodeActionsFromJsonReader);
         } catch (URISyntaxException e) {
             e.printStackTrace();
             throw new IllegalStateException(e);
-        } catch (JSONException | MalformedURLException e) {
+        } catch (MalformedURLException e) {
             e.printStackTrace();
             throw new SyncServiceException(e);
         }
@@ -339,6 +336,35 @@ public class GpodnetService implements ISyncService {
         return responseString;
     }
 
+    /**
+     * Executes the request and decodes the response while it is being received,
+     * so that large responses are never held in memory as a whole.
+     */
+    private <T> T executeRequest(@NonNull Request.Builder requestB, @NonNull JsonResponseReader<T> responseReader)
+            throws GpodnetServiceException {
+        Request request = requestB.build();
+        ResponseBody body = null;
+        try {
+            Response response = httpClient.newCall(request).execute();
+            checkStatusCode(response);
+            body = response.body();
+            JsonReader reader = new JsonReader(new InputStreamReader(body.byteStream(), StandardCharsets.UTF_8));
+            return responseReader.read(reader);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // JsonReader reports unexpected tokens with IllegalStateException
+            e.printStackTrace();
+            throw new GpodnetServiceException(e);
+        } finally {
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+
+    private interface JsonResponseReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
     private String getStringFromResponseBody(@NonNull ResponseBody body) throws GpodnetServiceException {
         ByteArrayOutputStream outputStream;
         int contentLength = (int) body.contentLength();
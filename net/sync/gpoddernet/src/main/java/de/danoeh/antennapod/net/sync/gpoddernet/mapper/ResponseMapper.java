@@ -1,5 +1,7 @@
 package de.danoeh.antennapod.net.sync.gpoddernet.mapper;
 
+import android.util.JsonReader;
+
 import androidx.annotation.NonNull;
 
 import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeAction;
@@ -9,6 +11,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -56,4 +59,84 @@ public class ResponseMapper {
         }
         return new EpisodeActionChanges(episodeActions, timestamp);
     }
+
+    /**
+     * Reads the subscription changes token by token, without keeping the response or a JSON tree in memory.
+     */
+    public static SubscriptionChanges readSubscriptionChangesFromJsonReader(@NonNull JsonReader reader)
+            throws IOException {
+        List<String> added = null;
+        List<String> removed = null;
+        Long timestamp = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "add":
+                    added = readUrlList(reader);
+                    break;
+                case "remove":
+                    removed = readUrlList(reader);
+                    break;
+                case "timestamp":
+                    timestamp = reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (added == null || removed == null || timestamp == null) {
+            throw new IOException("Incomplete subscription changes");
+        }
+        return new SubscriptionChanges(added, removed, timestamp);
+    }
+
+    private static List<String> readUrlList(JsonReader reader) throws IOException {
+        List<String> urls = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            // gpodder escapes colons unnecessarily
+            urls.add(reader.nextString().replace("%3A", ":"));
+        }
+        reader.endArray();
+        return urls;
+    }
+
+    /**
+     * Reads the episode action changes token by token. Each action is mapped as soon as it is read,
+     * so only the resulting {@link EpisodeAction} objects are kept in memory.
+     */
+    public static EpisodeActionChanges readEpisodeActionsFromJsonReader(@NonNull JsonReader reader)
+            throws IOException {
+        List<EpisodeAction> episodeActions = null;
+        Long timestamp = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "actions":
+                    episodeActions = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        EpisodeAction episodeAction = EpisodeAction.readFromJsonReader(reader);
+                        if (episodeAction != null) {
+                            episodeActions.add(episodeAction);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                case "timestamp":
+                    timestamp = reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (episodeActions == null || timestamp == null) {
+            throw new IOException("Incomplete episode action changes");
+        }
+        return new EpisodeActionChanges(episodeActions, timestamp);
+    }
 }
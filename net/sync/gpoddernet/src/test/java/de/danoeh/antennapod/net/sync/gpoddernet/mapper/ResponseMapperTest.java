@@ -0,0 +1,68 @@
+package de.danoeh.antennapod.net.sync.gpoddernet.mapper;
+
+import android.util.JsonReader;
+
+import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeAction;
+import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeActionChanges;
+import de.danoeh.antennapod.net.sync.serviceinterface.SubscriptionChanges;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+public class ResponseMapperTest {
+
+    @Test
+    public void testReadEpisodeActions() throws IOException {
+        String json = "{\"actions\": ["
+                + "{\"podcast\": \"https://example.com/feed\", \"episode\": \"https://example.com/1.mp3\","
+                + " \"guid\": \"guid-1\", \"action\": \"play\", \"timestamp\": \"2021-01-01T08:00:00\","
+                + " \"started\": 10, \"position\": 20, \"total\": 100, \"device\": {\"id\": \"phone\"}},"
+                + "{\"podcast\": \"https://example.com/feed\", \"episode\": \"https://example.com/2.mp3\","
+                + " \"guid\": null, \"action\": \"download\"},"
+                + "{\"podcast\": \"https://example.com/feed\", \"action\": \"play\"}"
+                + "], \"timestamp\": 12345}";
+        EpisodeActionChanges changes = ResponseMapper.readEpisodeActionsFromJsonReader(reader(json));
+
+        assertEquals(12345, changes.getTimestamp());
+        assertEquals(2, changes.getEpisodeActions().size());
+        EpisodeAction play = changes.getEpisodeActions().get(0);
+        assertEquals("https://example.com/1.mp3", play.getEpisode());
+        assertEquals("guid-1", play.getGuid());
+        assertEquals(EpisodeAction.PLAY, play.getAction());
+        assertEquals(10, play.getStarted());
+        assertEquals(20, play.getPosition());
+        assertEquals(100, play.getTotal());
+        EpisodeAction download = changes.getEpisodeActions().get(1);
+        assertEquals(EpisodeAction.DOWNLOAD, download.getAction());
+        assertNull(download.getGuid());
+    }
+
+    @Test
+    public void testReadSubscriptionChanges() throws IOException {
+        String json = "{\"add\": [\"https%3A//example.com/a\", \"https://example.com/b\"],"
+                + " \"remove\": [], \"timestamp\": 42}";
+        SubscriptionChanges changes = ResponseMapper.readSubscriptionChangesFromJsonReader(reader(json));
+
+        assertEquals(Arrays.asList("https://example.com/a", "https://example.com/b"), changes.getAdded());
+        assertEquals(Collections.emptyList(), changes.getRemoved());
+        assertEquals(42, changes.getTimestamp());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadIncompleteEpisodeActions() throws IOException {
+        ResponseMapper.readEpisodeActionsFromJsonReader(reader("{\"actions\": []}"));
+    }
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(new StringReader(json));
+    }
+}
@@ -1,6 +1,8 @@
 package de.danoeh.antennapod.net.sync.serviceinterface;
 
 import android.text.TextUtils;
+import android.util.JsonReader;
+import android.util.JsonToken;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -8,6 +10,7 @@ import androidx.annotation.NonNull;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -53,9 +56,80 @@ public class EpisodeAction {
      * @return episode action object, or null if mandatory values are missing
      */
     public static EpisodeAction readFromJsonObject(JSONObject object) {
-        String podcast = object.optString("podcast", null);
-        String episode = object.optString("episode", null);
-        String actionString = object.optString("action", null);
+        return create(object.optString("podcast", null), object.optString("episode", null),
+                object.optString("action", null), object.optString("timestamp", null),
+                object.optString("guid", null), object.optInt("started", -1),
+                object.optInt("position", -1), object.optInt("total", -1));
+    }
+
+    /**
+     * Reads an episode action object token by token, without building a JSON tree first.
+     * The reader must be positioned at the start of the object and is left after its end.
+     *
+     * @param reader JSON reader positioned at the action object
+     * @return episode action object, or null if mandatory values are missing
+     */
+    public static EpisodeAction readFromJsonReader(JsonReader reader) throws IOException {
+        String podcast = null;
+        String episode = null;
+        String action = null;
+        String timestamp = null;
+        String guid = null;
+        int started = -1;
+        int position = -1;
+        int total = -1;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "podcast":
+                    podcast = reader.nextString();
+                    break;
+                case "episode":
+                    episode = reader.nextString();
+                    break;
+                case "action":
+                    action = reader.nextString();
+                    break;
+                case "timestamp":
+                    timestamp = reader.nextString();
+                    break;
+                case "guid":
+                    guid = reader.nextString();
+                    break;
+                case "started":
+                    started = readInt(reader);
+                    break;
+                case "position":
+                    position = readInt(reader);
+                    break;
+                case "total":
+                    total = readInt(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return create(podcast, episode, action, timestamp, guid, started, position, total);
+    }
+
+    private static int readInt(JsonReader reader) throws IOException {
+        String value = reader.nextString(); // Also accepts numbers sent as strings, like optInt does
+        try {
+            return (int) Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static EpisodeAction create(String podcast, String episode, String actionString, String utcTimestamp,
+                                        String guid, int started, int position, int total) {
         if (TextUtils.isEmpty(podcast) || TextUtils.isEmpty(episode) || TextUtils.isEmpty(actionString)) {
             return null;
         }
@@ -66,7 +140,6 @@ public class EpisodeAction {
             return null;
         }
         EpisodeAction.Builder builder = new EpisodeAction.Builder(podcast, episode, action);
-        String utcTimestamp = object.optString("timestamp", null);
         if (!TextUtils.isEmpty(utcTimestamp)) {
             try {
                 SimpleDateFormat parser = new SimpleDateFormat(PATTERN_ISO_DATEFORMAT, Locale.US);
@@ -76,14 +149,10 @@ public class EpisodeAction {
                 e.printStackTrace();
             }
         }
-        String guid = object.optString("guid", null);
         if (!TextUtils.isEmpty(guid)) {
             builder.guid(guid);
         }
         if (action == EpisodeAction.Action.PLAY) {
-            int started = object.optInt("started", -1);
-            int position = object.optInt("position", -1);
-            int total = object.optInt("total", -1);
             if (started >= 0 && position > 0 && total > 0) {
                 builder
                         .started(started)
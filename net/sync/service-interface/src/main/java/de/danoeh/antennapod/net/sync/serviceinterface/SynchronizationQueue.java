@@ -20,6 +20,11 @@ public abstract class SynchronizationQueue {
 
     public abstract void syncImmediately();
 
+    /**
+     * Sync right away, including episode actions, even though the feed update that calls this is still running.
+     */
+    public abstract void syncAfterFeedUpdate();
+
     public abstract void fullSync();
 
     public abstract void syncIfNotSyncedRecently();
@@ -11,6 +11,10 @@ public class SynchronizationQueueStub extends SynchronizationQueue {
     public void syncImmediately() {
     }
 
+    @Override
+    public void syncAfterFeedUpdate() {
+    }
+
     @Override
     public void fullSync() {
     }
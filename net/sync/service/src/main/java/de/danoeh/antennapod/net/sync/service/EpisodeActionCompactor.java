@@ -0,0 +1,87 @@
+package de.danoeh.antennapod.net.sync.service;
+
+import androidx.core.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeAction;
+
+/**
+ * Shrinks the queue of episode actions before it is uploaded, without changing what the server ends up with.
+ */
+public class EpisodeActionCompactor {
+
+    private EpisodeActionCompactor() {
+    }
+
+    /**
+     * Merges consecutive PLAY actions of the same episode into one action with the earliest start,
+     * the position and timestamp of the newest action. A DOWNLOAD that is directly followed by a DELETE
+     * of the same episode is dropped together with the DELETE.
+     * Consecutive means that there is no other action for the same episode in between,
+     * actions of other episodes do not matter.
+     *
+     * @return the remaining actions, a merged action takes the place of the last action it replaces
+     */
+    public static List<EpisodeAction> compact(List<EpisodeAction> actions) {
+        List<EpisodeAction> compacted = new ArrayList<>(actions);
+        Map<Pair<String, String>, Integer> previousIndices = new HashMap<>();
+        for (int i = 0; i < compacted.size(); i++) {
+            EpisodeAction action = compacted.get(i);
+            Pair<String, String> key = new Pair<>(action.getPodcast(), action.getEpisode());
+            Integer previousIndex = previousIndices.get(key);
+            EpisodeAction previous = previousIndex == null ? null : compacted.get(previousIndex);
+            if (previous != null && previous.getAction() == EpisodeAction.PLAY
+                    && action.getAction() == EpisodeAction.PLAY) {
+                compacted.set(previousIndex, null);
+                compacted.set(i, mergePlayActions(previous, action));
+            } else if (previous != null && previous.getAction() == EpisodeAction.DOWNLOAD
+                    && action.getAction() == EpisodeAction.DELETE) {
+                compacted.set(previousIndex, null);
+                compacted.set(i, null);
+                previousIndices.remove(key);
+                continue;
+            }
+            previousIndices.put(key, i);
+        }
+
+        List<EpisodeAction> result = new ArrayList<>();
+        for (EpisodeAction action : compacted) {
+            if (action != null) {
+                result.add(action);
+            }
+        }
+        return result;
+    }
+
+    private static EpisodeAction mergePlayActions(EpisodeAction first, EpisodeAction second) {
+        EpisodeAction newest = isNewer(first, second) ? first : second;
+        int started;
+        if (first.getStarted() < 0) {
+            started = second.getStarted();
+        } else if (second.getStarted() < 0) {
+            started = first.getStarted();
+        } else {
+            started = Math.min(first.getStarted(), second.getStarted());
+        }
+        String guid = newest.getGuid() != null ? newest.getGuid()
+                : (first.getGuid() != null ? first.getGuid() : second.getGuid());
+        return new EpisodeAction.Builder(newest.getPodcast(), newest.getEpisode(), EpisodeAction.PLAY)
+                .guid(guid)
+                .timestamp(newest.getTimestamp())
+                .started(started)
+                .position(newest.getPosition())
+                .total(newest.getTotal())
+                .build();
+    }
+
+    private static boolean isNewer(EpisodeAction action, EpisodeAction other) {
+        Date timestamp = action.getTimestamp();
+        Date otherTimestamp = other.getTimestamp();
+        return timestamp != null && (otherTimestamp == null || timestamp.after(otherTimestamp));
+    }
+}
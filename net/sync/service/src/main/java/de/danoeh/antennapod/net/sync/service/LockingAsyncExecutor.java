@@ -1,36 +1,32 @@
 package de.danoeh.antennapod.net.sync.service;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.ReentrantLock;
 
-import io.reactivex.rxjava3.core.Completable;
-import io.reactivex.rxjava3.schedulers.Schedulers;
-
 public class LockingAsyncExecutor {
 
     private static final ReentrantLock lock = new ReentrantLock();
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r);
+        t.setName("SynchronizationQueue");
+        return t;
+    });
 
     /**
-     * Take the lock and execute runnable (to prevent changes to preferences being lost when enqueueing while sync is
-     * in progress). If the lock is free, the runnable is directly executed in the calling thread to prevent overhead.
+     * Take the lock and execute runnable (to prevent changes to the queue being lost when enqueueing while sync is
+     * in progress). Runnables are executed one after another in the order they were submitted, on a background
+     * thread because they access the database.
      */
     public static void executeLockedAsync(Runnable runnable) {
-        if (lock.tryLock()) {
+        executor.execute(() -> {
+            lock.lock();
             try {
                 runnable.run();
             } finally {
                 lock.unlock();
             }
-        } else {
-            Completable.fromRunnable(() -> {
-                lock.lock();
-                try {
-                    runnable.run();
-                } finally {
-                    lock.unlock();
-                }
-            }).subscribeOn(Schedulers.io())
-                    .subscribe();
-        }
+        });
     }
 
     public static void unlock() {
@@ -13,9 +13,9 @@ import androidx.annotation.NonNull;
 import androidx.core.app.NotificationCompat;
 import androidx.core.content.ContextCompat;
 import androidx.core.util.Pair;
+import androidx.work.Data;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
-import de.danoeh.antennapod.event.FeedUpdateRunningEvent;
 import de.danoeh.antennapod.event.MessageEvent;
 import de.danoeh.antennapod.event.SyncServiceEvent;
 import de.danoeh.antennapod.model.feed.Feed;
@@ -49,11 +49,16 @@ import org.greenrobot.eventbus.EventBus;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class SyncService extends Worker {
     public static final String TAG = "SyncService";
+    private static final int UPLOAD_BATCH_SIZE = 500;
+    private static final String EXTRA_AFTER_FEED_UPDATE = "after_feed_update";
 
     private static boolean currentlyActive = false;
     private final SynchronizationQueueStorage synchronizationQueueStorage;
@@ -79,8 +84,14 @@ public class SyncService extends Worker {
         try {
             activeSyncProvider.login();
             syncSubscriptions(activeSyncProvider);
-            waitForDownloadServiceCompleted();
-            if (someFeedWasNotRefreshedYet()) {
+            if (mustWaitForFeedUpdate(getApplicationContext(), getInputData())) {
+                // Episode actions can only be applied to refreshed feeds.
+                // The feed update starts the sync again when it is done, so do not block a worker until then.
+                Log.d(TAG, "Feed update running. Syncing episode actions after it completed");
+                EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_wait_for_downloads));
+                return Result.success();
+            }
+            if (DBReader.hasFeedsNeverRefreshed()) {
                 // Note that this service might get called several times before the FeedUpdate completes
                 Log.d(TAG, "Found new subscriptions. Need to refresh them before syncing episode actions");
                 EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_wait_for_downloads));
@@ -113,29 +124,19 @@ public class SyncService extends Worker {
         }
     }
 
-    private void waitForDownloadServiceCompleted() {
-        EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_wait_for_downloads));
-        try {
-            while (true) {
-                FeedUpdateRunningEvent event = EventBus.getDefault().getStickyEvent(FeedUpdateRunningEvent.class);
-                if (event == null || !event.isFeedUpdateRunning) {
-                    return;
-                }
-                //noinspection BusyWait
-                Thread.sleep(1000);
-            }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+    static Data createInputDataAfterFeedUpdate() {
+        return new Data.Builder().putBoolean(EXTRA_AFTER_FEED_UPDATE, true).build();
     }
 
-    private boolean someFeedWasNotRefreshedYet() {
-        for (Feed feed : DBReader.getFeedList()) {
-            if (feed.getPreferences().getKeepUpdated() && feed.getLastRefreshAttempt() == 0) {
-                return true;
-            }
+    /**
+     * The feed update that starts a sync when it is done still counts as running while it does so.
+     * That sync must not wait for the feed update, otherwise nobody would start the sync again.
+     */
+    /* package-private */ static boolean mustWaitForFeedUpdate(Context context, Data inputData) {
+        if (inputData.getBoolean(EXTRA_AFTER_FEED_UPDATE, false)) {
+            return false;
         }
-        return false;
+        return FeedUpdateManager.getInstance().isFeedUpdateRunning(context);
     }
 
     /* package-private */ static boolean isCurrentlyActive() {
@@ -216,17 +217,56 @@ public class SyncService extends Worker {
         EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_episodes_download));
         EpisodeActionChanges getResponse = syncServiceImpl.getEpisodeActionChanges(lastSync);
         long newTimeStamp = getResponse.getTimestamp();
+        LockingAsyncExecutor.lock();
+        try {
+            synchronizationQueueStorage.compactEpisodeActionQueue();
+        } finally {
+            LockingAsyncExecutor.unlock();
+        }
         List<EpisodeAction> remoteActions = getResponse.getEpisodeActions();
         processEpisodeActions(remoteActions);
 
         // upload local actions
         EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_episodes_upload));
-        List<EpisodeAction> queuedEpisodeActions = synchronizationQueueStorage.getQueuedEpisodeActions();
+        long lastUploadedId = 0;
+        while (true) {
+            SynchronizationQueueStorage.EpisodeActionBatch batch = synchronizationQueueStorage
+                    .getQueuedEpisodeActionBatch(lastUploadedId, UPLOAD_BATCH_SIZE);
+            if (batch.lastId == lastUploadedId) {
+                break;
+            }
+            if (!batch.actions.isEmpty()) {
+                newTimeStamp = uploadEpisodeActions(syncServiceImpl, batch.actions);
+            }
+            synchronizationQueueStorage.removeQueuedEpisodeActions(batch);
+            lastUploadedId = batch.lastId;
+        }
         if (lastSync == 0) {
             EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_upload_played));
-            List<FeedItem> readItems = DBReader.getEpisodes(0, Integer.MAX_VALUE,
-                    new FeedItemFilter(FeedItemFilter.PLAYED), SortOrder.DATE_NEW_OLD);
-            Log.d(TAG, "First sync. Upload state for all " + readItems.size() + " played episodes");
+            newTimeStamp = Math.max(newTimeStamp, uploadPlayedEpisodes(syncServiceImpl));
+        }
+        SynchronizationSettings.setLastEpisodeActionSynchronizationAttemptTimestamp(newTimeStamp);
+    }
+
+    /**
+     * Uploads the state of all played episodes, one page at a time. The number of uploaded episodes
+     * is saved after each page, so an interrupted first sync continues where it stopped.
+     * Oldest episodes come first, so that episodes played in the meantime do not shift the pages
+     * that were already uploaded. Those are in the queue anyway.
+     *
+     * @return the timestamp of the last upload, or 0 if nothing was uploaded
+     */
+    private long uploadPlayedEpisodes(ISyncService syncServiceImpl) throws SyncServiceException {
+        long timestamp = 0;
+        int offset = SynchronizationSettings.getPlayedEpisodesUploadProgress();
+        Log.d(TAG, "First sync. Upload state of played episodes, starting at " + offset);
+        while (true) {
+            List<FeedItem> readItems = DBReader.getEpisodes(offset, UPLOAD_BATCH_SIZE,
+                    new FeedItemFilter(FeedItemFilter.PLAYED), SortOrder.DATE_OLD_NEW);
+            if (readItems.isEmpty()) {
+                break;
+            }
+            List<EpisodeAction> playedEpisodeActions = new ArrayList<>();
             for (FeedItem item : readItems) {
                 FeedMedia media = item.getMedia();
                 if (media == null) {
@@ -238,23 +278,29 @@ public class SyncService extends Worker {
                         .position(media.getDuration() / 1000)
                         .total(media.getDuration() / 1000)
                         .build();
-                queuedEpisodeActions.add(played);
+                playedEpisodeActions.add(played);
             }
-        }
-        if (!queuedEpisodeActions.isEmpty()) {
-            LockingAsyncExecutor.lock();
-            try {
-                Log.d(TAG, "Uploading " + queuedEpisodeActions.size() + " actions: "
-                        + StringUtils.join(queuedEpisodeActions, ", "));
-                UploadChangesResponse postResponse = syncServiceImpl.uploadEpisodeActions(queuedEpisodeActions);
-                newTimeStamp = postResponse.timestamp;
-                Log.d(TAG, "Upload episode response: " + postResponse);
-                synchronizationQueueStorage.clearEpisodeActionQueue();
-            } finally {
-                LockingAsyncExecutor.unlock();
+            if (!playedEpisodeActions.isEmpty()) {
+                timestamp = uploadEpisodeActions(syncServiceImpl, playedEpisodeActions);
             }
+            offset += readItems.size();
+            SynchronizationSettings.setPlayedEpisodesUploadProgress(offset);
+        }
+        SynchronizationSettings.setPlayedEpisodesUploadProgress(0);
+        return timestamp;
+    }
+
+    private long uploadEpisodeActions(ISyncService syncServiceImpl, List<EpisodeAction> actions)
+            throws SyncServiceException {
+        LockingAsyncExecutor.lock();
+        try {
+            Log.d(TAG, "Uploading " + actions.size() + " actions: " + StringUtils.join(actions, ", "));
+            UploadChangesResponse postResponse = syncServiceImpl.uploadEpisodeActions(actions);
+            Log.d(TAG, "Upload episode response: " + postResponse);
+            return postResponse.timestamp;
+        } finally {
+            LockingAsyncExecutor.unlock();
         }
-        SynchronizationSettings.setLastEpisodeActionSynchronizationAttemptTimestamp(newTimeStamp);
     }
 
     private synchronized void processEpisodeActions(List<EpisodeAction> remoteActions) {
@@ -266,11 +312,32 @@ public class SyncService extends Worker {
         Map<Pair<String, String>, EpisodeAction> playActionsToUpdate = EpisodeActionFilter
                 .getRemoteActionsOverridingLocalActions(remoteActions,
                         synchronizationQueueStorage.getQueuedEpisodeActions());
+        // Look up all items at once. Like getFeedItemByGuidOrEpisodeUrl, match by guid if it is valid.
+        Set<String> guids = new HashSet<>();
+        Set<String> episodeUrls = new HashSet<>();
+        for (EpisodeAction action : playActionsToUpdate.values()) {
+            if (GuidValidator.isValidGuid(action.getGuid())) {
+                guids.add(action.getGuid());
+            } else {
+                episodeUrls.add(action.getEpisode());
+            }
+        }
+        Map<String, FeedItem> itemsByGuid = new HashMap<>();
+        Map<String, FeedItem> itemsByEpisodeUrl = new HashMap<>();
+        for (FeedItem item : DBReader.getFeedItemsByGuidsOrEpisodeUrls(guids, episodeUrls)) {
+            if (item.getItemIdentifier() != null && guids.contains(item.getItemIdentifier())) {
+                itemsByGuid.put(item.getItemIdentifier(), item);
+            }
+            if (item.getMedia() != null && episodeUrls.contains(item.getMedia().getDownloadUrl())) {
+                itemsByEpisodeUrl.put(item.getMedia().getDownloadUrl(), item);
+            }
+        }
+
         LongList queueToBeRemoved = new LongList();
-        List<FeedItem> updatedItems = new ArrayList<>();
+        Map<Long, FeedItem> updatedItems = new HashMap<>();
         for (EpisodeAction action : playActionsToUpdate.values()) {
-            String guid = GuidValidator.isValidGuid(action.getGuid()) ? action.getGuid() : null;
-            FeedItem feedItem = DBReader.getFeedItemByGuidOrEpisodeUrl(guid, action.getEpisode());
+            FeedItem feedItem = GuidValidator.isValidGuid(action.getGuid())
+                    ? itemsByGuid.get(action.getGuid()) : itemsByEpisodeUrl.get(action.getEpisode());
             if (feedItem == null) {
                 Log.i(TAG, "Unknown feed item: " + action);
                 continue;
@@ -292,11 +359,12 @@ public class SyncService extends Worker {
             } else {
                 Log.d(TAG, "Setting position: " + action);
             }
-            updatedItems.add(feedItem);
+            updatedItems.put(feedItem.getId(), feedItem);
         }
         DBWriter.removeQueueItem(getApplicationContext(), false, queueToBeRemoved.toArray());
-        DBReader.loadAdditionalFeedItemListData(updatedItems);
-        DBWriter.setItemList(updatedItems);
+        List<FeedItem> updatedItemList = new ArrayList<>(updatedItems.values());
+        DBReader.loadAdditionalFeedItemListData(updatedItemList);
+        DBWriter.setItemPlaybackStates(updatedItemList);
     }
 
     private void clearErrorNotifications() {
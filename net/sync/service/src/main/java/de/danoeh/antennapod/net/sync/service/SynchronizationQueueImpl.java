@@ -44,6 +44,14 @@ public class SynchronizationQueueImpl extends SynchronizationQueue {
         WorkManager.getInstance(context).enqueueUniqueWork(WORK_ID_SYNC, ExistingWorkPolicy.REPLACE, workRequest);
     }
 
+    public void syncAfterFeedUpdate() {
+        OneTimeWorkRequest workRequest = getWorkRequest()
+                .setInitialDelay(0L, TimeUnit.SECONDS)
+                .setInputData(SyncService.createInputDataAfterFeedUpdate())
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_ID_SYNC, ExistingWorkPolicy.REPLACE, workRequest);
+    }
+
     public void fullSync() {
         LockingAsyncExecutor.executeLockedAsync(() -> {
             SynchronizationSettings.resetTimestamps();
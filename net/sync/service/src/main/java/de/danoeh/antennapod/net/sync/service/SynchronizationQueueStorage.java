@@ -2,10 +2,13 @@ package de.danoeh.antennapod.net.sync.service;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.database.Cursor;
 
 import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeAction;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
 import org.json.JSONArray;
 import org.json.JSONException;
+import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -13,12 +16,17 @@ import java.util.List;
 
 import de.danoeh.antennapod.storage.preferences.SynchronizationSettings;
 
+/**
+ * Stores changes that still need to be uploaded. Episode actions are appended to a table in the database,
+ * feed changes are kept in the shared preferences.
+ */
 public class SynchronizationQueueStorage {
 
     private static final String NAME = "synchronization";
     private static final String QUEUED_EPISODE_ACTIONS = "sync_queued_episode_actions";
     private static final String QUEUED_FEEDS_REMOVED = "sync_removed";
     private static final String QUEUED_FEEDS_ADDED = "sync_added";
+    private static final Object legacyQueueLock = new Object();
     private final SharedPreferences sharedPreferences;
 
     public SynchronizationQueueStorage(Context context) {
@@ -26,18 +34,49 @@ public class SynchronizationQueueStorage {
     }
 
     public ArrayList<EpisodeAction> getQueuedEpisodeActions() {
-        ArrayList<EpisodeAction> actions = new ArrayList<>();
-        try {
-            String json = getSharedPreferences()
-                    .getString(QUEUED_EPISODE_ACTIONS, "[]");
-            JSONArray queue = new JSONArray(json);
-            for (int i = 0; i < queue.length(); i++) {
-                actions.add(EpisodeAction.readFromJsonObject(queue.getJSONObject(i)));
+        return new ArrayList<>(getQueuedEpisodeActionBatch(0, Integer.MAX_VALUE).actions);
+    }
+
+    /**
+     * Loads the oldest queued episode actions. Once they are uploaded, remove them
+     * with {@link #removeQueuedEpisodeActions(EpisodeActionBatch)}.
+     *
+     * @param afterId only actions queued after the last action of a previous batch are returned,
+     *                use 0 to start at the beginning of the queue
+     * @param limit   maximum number of actions
+     */
+    public EpisodeActionBatch getQueuedEpisodeActionBatch(long afterId, int limit) {
+        migrateLegacyEpisodeActionQueue();
+        List<EpisodeAction> actions = new ArrayList<>();
+        long lastId = afterId;
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getQueuedEpisodeActionsCursor(afterId, limit)) {
+            while (cursor.moveToNext()) {
+                lastId = cursor.getLong(0);
+                try {
+                    EpisodeAction action = EpisodeAction.readFromJsonObject(new JSONObject(cursor.getString(1)));
+                    if (action != null) {
+                        actions.add(action);
+                    }
+                } catch (JSONException e) {
+                    e.printStackTrace();
+                }
             }
-        } catch (JSONException e) {
-            e.printStackTrace();
+        } finally {
+            adapter.close();
         }
-        return actions;
+        return new EpisodeActionBatch(actions, lastId);
+    }
+
+    /**
+     * Removes the actions of the given batch, and all actions queued before it, after they have been uploaded.
+     */
+    public void removeQueuedEpisodeActions(EpisodeActionBatch batch) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.removeQueuedEpisodeActions(batch.lastId);
+        adapter.close();
     }
 
     public ArrayList<String> getQueuedRemovedFeeds() {
@@ -71,10 +110,35 @@ public class SynchronizationQueueStorage {
         return addedFeedUrls;
     }
 
-    public void clearEpisodeActionQueue() {
-        getSharedPreferences().edit()
-                .putString(QUEUED_EPISODE_ACTIONS, "[]").apply();
+    /**
+     * Shrinks the queued episode actions, see {@link EpisodeActionCompactor}.
+     * Must be called while holding the lock of {@link LockingAsyncExecutor}.
+     */
+    public void compactEpisodeActionQueue() {
+        List<EpisodeAction> queued = getQueuedEpisodeActions();
+        List<EpisodeAction> compacted = EpisodeActionCompactor.compact(queued);
+        if (compacted.size() == queued.size()) {
+            return;
+        }
+        List<String> serialized = new ArrayList<>(compacted.size());
+        for (EpisodeAction action : compacted) {
+            JSONObject json = action.writeToJsonObject();
+            if (json != null) {
+                serialized.add(json.toString());
+            }
+        }
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setQueuedEpisodeActions(serialized);
+        adapter.close();
+    }
 
+    public void clearEpisodeActionQueue() {
+        getSharedPreferences().edit().remove(QUEUED_EPISODE_ACTIONS).apply();
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.clearQueuedEpisodeActions();
+        adapter.close();
     }
 
     public void clearFeedQueues() {
@@ -86,12 +150,8 @@ public class SynchronizationQueueStorage {
 
     protected void clearQueue() {
         SynchronizationSettings.resetTimestamps();
-        getSharedPreferences().edit()
-                .putString(QUEUED_EPISODE_ACTIONS, "[]")
-                .putString(QUEUED_FEEDS_ADDED, "[]")
-                .putString(QUEUED_FEEDS_REMOVED, "[]")
-                .apply();
-
+        clearEpisodeActionQueue();
+        clearFeedQueues();
     }
 
     protected void enqueueFeedAdded(String downloadUrl) {
@@ -157,20 +217,64 @@ public class SynchronizationQueueStorage {
     }
 
     protected void enqueueEpisodeAction(EpisodeAction action) {
-        SharedPreferences sharedPreferences = getSharedPreferences();
-        String json = sharedPreferences.getString(QUEUED_EPISODE_ACTIONS, "[]");
-        try {
-            JSONArray queue = new JSONArray(json);
-            queue.put(action.writeToJsonObject());
-            sharedPreferences.edit().putString(
-                    QUEUED_EPISODE_ACTIONS, queue.toString()
-            ).apply();
-        } catch (JSONException jsonException) {
-            jsonException.printStackTrace();
+        migrateLegacyEpisodeActionQueue();
+        JSONObject json = action.writeToJsonObject();
+        if (json == null) {
+            return;
+        }
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.addQueuedEpisodeAction(json.toString());
+        adapter.close();
+    }
+
+    /**
+     * Older versions stored the queued episode actions as a JSON array in the shared preferences.
+     * Moves them to the database, keeping their order. The actions are only committed to the database
+     * together with removing them from the preferences, so they cannot be moved twice.
+     */
+    private void migrateLegacyEpisodeActionQueue() {
+        synchronized (legacyQueueLock) {
+            SharedPreferences sharedPreferences = getSharedPreferences();
+            if (!sharedPreferences.contains(QUEUED_EPISODE_ACTIONS)) {
+                return;
+            }
+            List<String> actions = new ArrayList<>();
+            try {
+                JSONArray queue = new JSONArray(sharedPreferences.getString(QUEUED_EPISODE_ACTIONS, "[]"));
+                for (int i = 0; i < queue.length(); i++) {
+                    actions.add(queue.getJSONObject(i).toString());
+                }
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            try {
+                adapter.addQueuedEpisodeActions(actions, () -> {
+                    if (!sharedPreferences.edit().remove(QUEUED_EPISODE_ACTIONS).commit()) {
+                        throw new IllegalStateException("Unable to remove legacy episode action queue");
+                    }
+                });
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                adapter.close();
+            }
         }
     }
 
     private SharedPreferences getSharedPreferences() {
         return sharedPreferences;
     }
+
+    public static class EpisodeActionBatch {
+        public final List<EpisodeAction> actions;
+        public final long lastId;
+
+        EpisodeActionBatch(List<EpisodeAction> actions, long lastId) {
+            this.actions = actions;
+            this.lastId = lastId;
+        }
+    }
 }
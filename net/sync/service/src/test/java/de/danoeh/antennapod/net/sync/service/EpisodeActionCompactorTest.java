@@ -0,0 +1,107 @@
+package de.danoeh.antennapod.net.sync.service;
+
+import junit.framework.TestCase;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeAction;
+
+public class EpisodeActionCompactorTest extends TestCase {
+
+    public void testMergesConsecutivePlayActions() throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        Date morning = format.parse("2021-01-01 08:00:00");
+        Date lateMorning = format.parse("2021-01-01 09:00:00");
+
+        List<EpisodeAction> episodeActions = new ArrayList<>();
+        episodeActions.add(play("podcast.a", "episode.1", morning, 10, 20));
+        episodeActions.add(play("podcast.b", "episode.2", morning, 0, 5));
+        episodeActions.add(play("podcast.a", "episode.1", lateMorning, 20, 50));
+
+        List<EpisodeAction> compacted = EpisodeActionCompactor.compact(episodeActions);
+        assertEquals(2, compacted.size());
+        assertEquals("episode.2", compacted.get(0).getEpisode());
+        EpisodeAction merged = compacted.get(1);
+        assertEquals("episode.1", merged.getEpisode());
+        assertEquals(10, merged.getStarted());
+        assertEquals(50, merged.getPosition());
+        assertEquals(lateMorning, merged.getTimestamp());
+    }
+
+    public void testKeepsNewestPositionOfOutOfOrderPlayActions() throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        Date morning = format.parse("2021-01-01 08:00:00");
+        Date lateMorning = format.parse("2021-01-01 09:00:00");
+
+        List<EpisodeAction> episodeActions = new ArrayList<>();
+        episodeActions.add(play("podcast.a", "episode.1", lateMorning, 30, 40));
+        episodeActions.add(play("podcast.a", "episode.1", morning, 0, 10));
+
+        List<EpisodeAction> compacted = EpisodeActionCompactor.compact(episodeActions);
+        assertEquals(1, compacted.size());
+        assertEquals(0, compacted.get(0).getStarted());
+        assertEquals(40, compacted.get(0).getPosition());
+        assertEquals(lateMorning, compacted.get(0).getTimestamp());
+    }
+
+    public void testDoesNotMergePlayActionsAcrossOtherActions() throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        Date morning = format.parse("2021-01-01 08:00:00");
+        Date lateMorning = format.parse("2021-01-01 09:00:00");
+
+        List<EpisodeAction> episodeActions = new ArrayList<>();
+        episodeActions.add(play("podcast.a", "episode.1", morning, 0, 10));
+        episodeActions.add(new EpisodeAction.Builder("podcast.a", "episode.1", EpisodeAction.Action.DELETE)
+                .timestamp(morning)
+                .build());
+        episodeActions.add(play("podcast.a", "episode.1", lateMorning, 10, 20));
+
+        assertEquals(3, EpisodeActionCompactor.compact(episodeActions).size());
+    }
+
+    public void testDropsDownloadFollowedByDelete() throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        Date morning = format.parse("2021-01-01 08:00:00");
+
+        List<EpisodeAction> episodeActions = new ArrayList<>();
+        episodeActions.add(new EpisodeAction.Builder("podcast.a", "episode.1", EpisodeAction.Action.DOWNLOAD)
+                .timestamp(morning)
+                .build());
+        episodeActions.add(play("podcast.b", "episode.2", morning, 0, 5));
+        episodeActions.add(new EpisodeAction.Builder("podcast.a", "episode.1", EpisodeAction.Action.DELETE)
+                .timestamp(morning)
+                .build());
+
+        List<EpisodeAction> compacted = EpisodeActionCompactor.compact(episodeActions);
+        assertEquals(1, compacted.size());
+        assertEquals("episode.2", compacted.get(0).getEpisode());
+    }
+
+    public void testKeepsDeleteFollowedByDownload() throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        Date morning = format.parse("2021-01-01 08:00:00");
+
+        List<EpisodeAction> episodeActions = new ArrayList<>();
+        episodeActions.add(new EpisodeAction.Builder("podcast.a", "episode.1", EpisodeAction.Action.DELETE)
+                .timestamp(morning)
+                .build());
+        episodeActions.add(new EpisodeAction.Builder("podcast.a", "episode.1", EpisodeAction.Action.DOWNLOAD)
+                .timestamp(morning)
+                .build());
+
+        assertEquals(2, EpisodeActionCompactor.compact(episodeActions).size());
+    }
+
+    private static EpisodeAction play(String podcast, String episode, Date timestamp, int started, int position) {
+        return new EpisodeAction.Builder(podcast, episode, EpisodeAction.Action.PLAY)
+                .timestamp(timestamp)
+                .started(started)
+                .position(position)
+                .total(100)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package de.danoeh.antennapod.net.sync.service;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.work.Data;
+import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.net.download.serviceinterface.FeedUpdateManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SyncServiceTest {
+    private FeedUpdateManager previousFeedUpdateManager;
+
+    @Before
+    public void setUp() {
+        previousFeedUpdateManager = FeedUpdateManager.getInstance();
+        FeedUpdateManager.setInstance(new RunningFeedUpdateManager());
+    }
+
+    @After
+    public void tearDown() {
+        FeedUpdateManager.setInstance(previousFeedUpdateManager);
+    }
+
+    @Test
+    public void testRegularSyncWaitsForFeedUpdate() {
+        assertTrue(SyncService.mustWaitForFeedUpdate(null, Data.EMPTY));
+    }
+
+    @Test
+    public void testSyncStartedByFeedUpdateDoesNotWait() {
+        // The feed update still counts as running when it starts the sync
+        assertFalse(SyncService.mustWaitForFeedUpdate(null, SyncService.createInputDataAfterFeedUpdate()));
+    }
+
+    private static class RunningFeedUpdateManager extends FeedUpdateManager {
+        @Override
+        public void restartUpdateAlarm(Context context, boolean replace) {
+        }
+
+        @Override
+        public void runOnce(Context context) {
+        }
+
+        @Override
+        public void runOnce(Context context, Feed feed) {
+        }
+
+        @Override
+        public void runOnce(Context context, Feed feed, boolean nextPage) {
+        }
+
+        @Override
+        public void runOnceOrAsk(@NonNull Context context) {
+        }
+
+        @Override
+        public void runOnceOrAsk(@NonNull Context context, @Nullable Feed feed) {
+        }
+
+        @Override
+        public boolean isFeedUpdateRunning(@NonNull Context context) {
+            return true;
+        }
+
+        @Override
+        public void deleteLocalFeedIndex(@NonNull Context context, long feedId) {
+        }
+    }
+}
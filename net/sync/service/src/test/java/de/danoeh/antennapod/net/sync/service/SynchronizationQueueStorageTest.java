@@ -0,0 +1,110 @@
+package de.danoeh.antennapod.net.sync.service;
+
+import android.content.Context;
+import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeAction;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class SynchronizationQueueStorageTest {
+    private Context context;
+    private SynchronizationQueueStorage storage;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        PodDBAdapter.init(context);
+        PodDBAdapter.deleteDatabase();
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.close();
+        context.getSharedPreferences("synchronization", Context.MODE_PRIVATE).edit().clear().commit();
+        storage = new SynchronizationQueueStorage(context);
+    }
+
+    @After
+    public void tearDown() {
+        PodDBAdapter.tearDownTests();
+    }
+
+    @Test
+    public void testBatchesKeepOrder() {
+        for (int i = 0; i < 5; i++) {
+            storage.enqueueEpisodeAction(play("episode." + i));
+        }
+        SynchronizationQueueStorage.EpisodeActionBatch first = storage.getQueuedEpisodeActionBatch(0, 3);
+        assertEquals(Arrays.asList("episode.0", "episode.1", "episode.2"), episodes(first.actions));
+        SynchronizationQueueStorage.EpisodeActionBatch second = storage.getQueuedEpisodeActionBatch(first.lastId, 3);
+        assertEquals(Arrays.asList("episode.3", "episode.4"), episodes(second.actions));
+        assertTrue(storage.getQueuedEpisodeActionBatch(second.lastId, 3).actions.isEmpty());
+    }
+
+    @Test
+    public void testRemovingBatchKeepsActionsQueuedLater() {
+        storage.enqueueEpisodeAction(play("episode.0"));
+        storage.enqueueEpisodeAction(play("episode.1"));
+        storage.enqueueEpisodeAction(play("episode.2"));
+        SynchronizationQueueStorage.EpisodeActionBatch batch = storage.getQueuedEpisodeActionBatch(0, 2);
+        // Queued while the batch is being uploaded
+        storage.enqueueEpisodeAction(play("episode.3"));
+
+        storage.removeQueuedEpisodeActions(batch);
+        assertEquals(Arrays.asList("episode.2", "episode.3"), episodes(storage.getQueuedEpisodeActions()));
+    }
+
+    @Test
+    public void testLegacyQueueIsMigratedOnce() throws Exception {
+        JSONArray legacyQueue = new JSONArray();
+        legacyQueue.put(play("legacy.0").writeToJsonObject());
+        legacyQueue.put(play("legacy.1").writeToJsonObject());
+        context.getSharedPreferences("synchronization", Context.MODE_PRIVATE).edit()
+                .putString("sync_queued_episode_actions", legacyQueue.toString()).commit();
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> storage.getQueuedEpisodeActionBatch(0, 10));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        storage.enqueueEpisodeAction(play("episode.0"));
+
+        assertEquals(Arrays.asList("legacy.0", "legacy.1", "episode.0"),
+                episodes(storage.getQueuedEpisodeActions()));
+        assertFalse(context.getSharedPreferences("synchronization", Context.MODE_PRIVATE)
+                .contains("sync_queued_episode_actions"));
+    }
+
+    private static EpisodeAction play(String episode) {
+        return new EpisodeAction.Builder("podcast", episode, EpisodeAction.Action.PLAY)
+                .timestamp(new Date(1000))
+                .started(0)
+                .position(10)
+                .total(100)
+                .build();
+    }
+
+    private static List<String> episodes(List<EpisodeAction> actions) {
+        List<String> episodes = new ArrayList<>();
+        for (EpisodeAction action : actions) {
+            episodes.add(action.getEpisode());
+        }
+        return episodes;
+    }
+}
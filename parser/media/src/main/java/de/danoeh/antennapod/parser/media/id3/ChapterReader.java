@@ -6,10 +6,11 @@ import androidx.annotation.NonNull;
 import de.danoeh.antennapod.model.feed.Chapter;
 import de.danoeh.antennapod.model.feed.EmbeddedChapterImage;
 import de.danoeh.antennapod.parser.media.id3.model.FrameHeader;
-import org.apache.commons.io.input.CountingInputStream;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,7 +30,11 @@ public class ChapterReader extends ID3Reader {
 
     private final List<Chapter> chapters = new ArrayList<>();
 
-    public ChapterReader(CountingInputStream input) {
+    public ChapterReader(InputStream input) {
+        super(input);
+    }
+
+    public ChapterReader(ByteBuffer input) {
         super(input);
     }
 
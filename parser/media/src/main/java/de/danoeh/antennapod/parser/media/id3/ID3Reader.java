@@ -5,11 +5,16 @@ import androidx.annotation.NonNull;
 import de.danoeh.antennapod.parser.media.id3.model.FrameHeader;
 import de.danoeh.antennapod.parser.media.id3.model.TagHeader;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.input.CountingInputStream;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.MalformedInputException;
 
@@ -20,28 +25,61 @@ import java.nio.charset.MalformedInputException;
 public class ID3Reader {
     private static final String TAG = "ID3Reader";
     private static final int FRAME_ID_LENGTH = 4;
+    private static final int FRAME_HEADER_LENGTH = 10;
     public static final byte ENCODING_ISO = 0;
     public static final byte ENCODING_UTF16_WITH_BOM = 1;
     public static final byte ENCODING_UTF16_WITHOUT_BOM = 2;
     public static final byte ENCODING_UTF8 = 3;
 
+    private static final int STREAM_CHUNK_SIZE = 8192;
+
     private TagHeader tagHeader;
-    private final CountingInputStream inputStream;
+    private final InputStream inputStream;
+    private ByteBuffer buffer;
+    /** Absolute position of the first byte in {@link #buffer}. */
+    private int bufferOffset = 0;
 
-    public ID3Reader(CountingInputStream input) {
+    /**
+     * Reads the tag from a stream. The stream is consumed in bulk chunks rather than byte by byte.
+     */
+    public ID3Reader(InputStream input) {
         inputStream = input;
+        buffer = ByteBuffer.allocate(STREAM_CHUNK_SIZE);
+        buffer.limit(0);
+    }
+
+    /**
+     * Reads the tag from a buffer that contains the file, starting at index 0 (for example a memory-mapped file).
+     * Positions reported by this reader are absolute indices into the buffer.
+     */
+    public ID3Reader(ByteBuffer input) {
+        inputStream = null;
+        buffer = input.duplicate().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Maps the given file into memory, so that it can be read without copying it.
+     */
+    public static ByteBuffer mapFile(File file) throws IOException {
+        try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+        }
     }
 
     public void readInputStream() throws IOException, ID3ReaderException {
         tagHeader = readTagHeader();
         int tagContentStartPosition = getPosition();
-        while (getPosition() < tagContentStartPosition + tagHeader.getSize()) {
-            FrameHeader frameHeader = readFrameHeader();
-            if (frameHeader.getId().charAt(0) < '0' || frameHeader.getId().charAt(0) > 'z') {
-                Log.d(TAG, "Stopping because of invalid frame: " + frameHeader.toString());
-                return;
+        try {
+            while (getPosition() < tagContentStartPosition + tagHeader.getSize()) {
+                FrameHeader frameHeader = readFrameHeader();
+                if (frameHeader.getId().charAt(0) < '0' || frameHeader.getId().charAt(0) > 'z') {
+                    Log.d(TAG, "Stopping because of invalid frame: " + frameHeader.toString());
+                    return;
+                }
+                readFrame(frameHeader);
             }
-            readFrame(frameHeader);
+        } catch (EOFException e) {
+            Log.d(TAG, "Stopping because tag is truncated");
         }
     }
 
@@ -51,7 +89,39 @@ public class ID3Reader {
     }
 
     int getPosition() {
-        return inputStream.getCount();
+        return bufferOffset + buffer.position();
+    }
+
+    /**
+     * Makes sure that at least the given number of bytes can be read from the buffer.
+     * When reading from a stream, this compacts the buffer and fills it with the next chunk.
+     */
+    private void require(int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return;
+        } else if (inputStream == null) {
+            throw new EOFException("Trying to read beyond the end of the buffer");
+        }
+        bufferOffset += buffer.position();
+        if (buffer.capacity() < count) {
+            ByteBuffer larger = ByteBuffer.allocate(count);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        byte[] array = buffer.array();
+        while (buffer.position() < count) {
+            int read = inputStream.read(array, buffer.position(), buffer.remaining());
+            if (read < 0) {
+                break;
+            }
+            buffer.position(buffer.position() + read);
+        }
+        buffer.flip();
+        if (buffer.remaining() < count) {
+            throw new EOFException("Unexpected end of stream");
+        }
     }
 
     /**
@@ -60,30 +130,36 @@ public class ID3Reader {
     void skipBytes(int number) throws IOException, ID3ReaderException {
         if (number < 0) {
             throw new ID3ReaderException("Trying to read a negative number of bytes");
+        } else if (number <= buffer.remaining()) {
+            buffer.position(buffer.position() + number);
+        } else if (inputStream == null) {
+            throw new EOFException("Trying to skip beyond the end of the buffer");
+        } else {
+            int skipInStream = number - buffer.remaining();
+            bufferOffset += buffer.limit() + skipInStream;
+            buffer.clear();
+            buffer.limit(0);
+            IOUtils.skipFully(inputStream, skipInStream);
         }
-        IOUtils.skipFully(inputStream, number);
     }
 
     byte readByte() throws IOException {
-        return (byte) inputStream.read();
+        require(1);
+        return buffer.get();
     }
 
     short readShort() throws IOException {
-        char firstByte = (char) inputStream.read();
-        char secondByte = (char) inputStream.read();
-        return (short) ((firstByte << 8) | secondByte);
+        require(2);
+        return buffer.getShort();
     }
 
     int readInt() throws IOException {
-        char firstByte = (char) inputStream.read();
-        char secondByte = (char) inputStream.read();
-        char thirdByte = (char) inputStream.read();
-        char fourthByte = (char) inputStream.read();
-        return (firstByte << 24) | (secondByte << 16) | (thirdByte << 8) | fourthByte;
+        require(4);
+        return buffer.getInt();
     }
 
     void expectChar(char expected) throws ID3ReaderException, IOException {
-        char read = (char) inputStream.read();
+        char read = (char) (readByte() & 0xff);
         if (read != expected) {
             throw new ID3ReaderException("Expected " + expected + " and got " + read);
         }
@@ -106,13 +182,19 @@ public class ID3Reader {
 
     @NonNull
     FrameHeader readFrameHeader() throws IOException {
-        String id = readPlainBytesToString(FRAME_ID_LENGTH);
-        int size = readInt();
+        require(FRAME_HEADER_LENGTH);
+        int start = buffer.position();
+        char[] id = new char[FRAME_ID_LENGTH];
+        for (int i = 0; i < FRAME_ID_LENGTH; i++) {
+            id[i] = (char) (buffer.get(start + i) & 0xff);
+        }
+        int size = buffer.getInt(start + FRAME_ID_LENGTH);
         if (tagHeader != null && tagHeader.getVersion() >= 0x0400) {
             size = unsynchsafe(size);
         }
-        short flags = readShort();
-        return new FrameHeader(id, size, flags);
+        short flags = buffer.getShort(start + FRAME_ID_LENGTH + 4);
+        buffer.position(start + FRAME_HEADER_LENGTH);
+        return new FrameHeader(new String(id), size, flags);
     }
 
     private int unsynchsafe(int in) {
@@ -137,13 +219,12 @@ public class ID3Reader {
     }
 
     protected String readPlainBytesToString(int length) throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
-        int bytesRead = 0;
-        while (bytesRead < length) {
-            stringBuilder.append((char) readByte());
-            bytesRead++;
+        require(length);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (buffer.get() & 0xff);
         }
-        return stringBuilder.toString();
+        return new String(chars);
     }
 
     protected String readIsoStringNullTerminated(int max) throws IOException {
@@ -2,9 +2,10 @@ package de.danoeh.antennapod.parser.media.id3;
 
 import androidx.annotation.NonNull;
 import de.danoeh.antennapod.parser.media.id3.model.FrameHeader;
-import org.apache.commons.io.input.CountingInputStream;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads general ID3 metadata like comment, which Android's MediaMetadataReceiver does not support.
@@ -14,7 +15,11 @@ public class Id3MetadataReader extends ID3Reader {
 
     private String comment = null;
 
-    public Id3MetadataReader(CountingInputStream input) {
+    public Id3MetadataReader(InputStream input) {
+        super(input);
+    }
+
+    public Id3MetadataReader(ByteBuffer input) {
         super(input);
     }
 
@@ -0,0 +1,186 @@
+package de.danoeh.antennapod.parser.media.m4a;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Random-access navigation over the atoms (boxes) of an MP4 file.
+ * Only atom headers are read while searching, payloads are jumped over.
+ * See ISO/IEC 14496-12, section 4.2
+ */
+public class AtomNavigator {
+    private static final int HEADER_SIZE = 8;
+    private static final int LARGE_HEADER_SIZE = 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer headerBuffer = ByteBuffer.allocate(LARGE_HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+
+    public AtomNavigator(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Finds an atom by its path from the top level of the file.
+     *
+     * @param path the types of the atoms to descend into, separated by dots, e.g. "moov.udta.chpl"
+     * @return the atom, or null if it does not exist
+     */
+    @Nullable
+    public Atom findAtom(String path) throws IOException {
+        return findAtom(null, path);
+    }
+
+    /**
+     * Finds an atom by its path relative to the given atom.
+     *
+     * @param parent the atom to start at, or null to start at the top level of the file
+     * @param path the types of the atoms to descend into, separated by dots, e.g. "mdia.minf.stbl"
+     * @return the atom, or null if it does not exist
+     */
+    @Nullable
+    public Atom findAtom(@Nullable Atom parent, String path) throws IOException {
+        Atom atom = parent;
+        for (String type : path.split("\\.")) {
+            atom = findChild(atom, type);
+            if (atom == null) {
+                return null;
+            }
+        }
+        return atom;
+    }
+
+    /**
+     * Finds the first direct child of the given atom with the given type.
+     *
+     * @param parent the atom to search in, or null to search the top level of the file
+     */
+    @Nullable
+    public Atom findChild(@Nullable Atom parent, String type) throws IOException {
+        long position = parent == null ? 0 : parent.getPayloadStart();
+        long end = parent == null ? channel.size() : parent.getEnd();
+        while (position + HEADER_SIZE <= end) {
+            Atom atom = readHeader(position, end);
+            if (atom.getType().equals(type)) {
+                return atom;
+            }
+            position = atom.getEnd();
+        }
+        return null;
+    }
+
+    /**
+     * Lists all direct children of the given atom with the given type.
+     */
+    @NonNull
+    public List<Atom> findChildren(@NonNull Atom parent, String type) throws IOException {
+        List<Atom> children = new ArrayList<>();
+        long position = parent.getPayloadStart();
+        while (position + HEADER_SIZE <= parent.getEnd()) {
+            Atom atom = readHeader(position, parent.getEnd());
+            if (atom.getType().equals(type)) {
+                children.add(atom);
+            }
+            position = atom.getEnd();
+        }
+        return children;
+    }
+
+    /**
+     * Reads the payload of an atom, without its header.
+     */
+    @NonNull
+    public ByteBuffer readPayload(@NonNull Atom atom) throws IOException {
+        if (atom.getPayloadSize() > Integer.MAX_VALUE) {
+            throw new IOException("Atom too large to read: " + atom);
+        }
+        return read(atom.getPayloadStart(), (int) atom.getPayloadSize());
+    }
+
+    /**
+     * Reads the given number of bytes at an absolute position of the file.
+     */
+    @NonNull
+    public ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
+        readFully(position, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    private Atom readHeader(long position, long parentEnd) throws IOException {
+        headerBuffer.clear();
+        headerBuffer.limit(HEADER_SIZE);
+        readFully(position, headerBuffer);
+        long size = headerBuffer.getInt(0) & 0xffffffffL;
+        String type = new String(headerBuffer.array(), 4, 4, StandardCharsets.ISO_8859_1);
+        int headerSize = HEADER_SIZE;
+        if (size == 1) {
+            // 64-bit size follows the type
+            headerBuffer.limit(LARGE_HEADER_SIZE);
+            readFully(position + HEADER_SIZE, headerBuffer);
+            size = headerBuffer.getLong(HEADER_SIZE);
+            headerSize = LARGE_HEADER_SIZE;
+        } else if (size == 0) {
+            // Atom extends to the end of its parent
+            size = parentEnd - position;
+        }
+        if (size < headerSize || position + size > parentEnd) {
+            throw new IOException("Invalid size " + size + " of atom " + type + " at " + position);
+        }
+        return new Atom(type, position, headerSize, size);
+    }
+
+    private void readFully(long position, ByteBuffer buffer) throws IOException {
+        channel.position(position);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of file at " + channel.position());
+            }
+        }
+    }
+
+    public static class Atom {
+        private final String type;
+        private final long start;
+        private final int headerSize;
+        private final long size;
+
+        Atom(String type, long start, int headerSize, long size) {
+            this.type = type;
+            this.start = start;
+            this.headerSize = headerSize;
+            this.size = size;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public long getPayloadStart() {
+            return start + headerSize;
+        }
+
+        public long getPayloadSize() {
+            return size - headerSize;
+        }
+
+        public long getEnd() {
+            return start + size;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Atom [type=" + type + ", start=" + start + ", size=" + size + "]";
+        }
+    }
+}
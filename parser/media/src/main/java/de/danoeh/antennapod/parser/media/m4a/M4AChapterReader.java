@@ -5,11 +5,17 @@ import android.util.Log;
 import org.apache.commons.io.IOUtils;
 
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import de.danoeh.antennapod.model.feed.Chapter;
+import de.danoeh.antennapod.model.feed.EmbeddedChapterImage;
+import de.danoeh.antennapod.parser.media.m4a.AtomNavigator.Atom;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -19,16 +25,33 @@ public class M4AChapterReader {
     private static final String TAG = "M4AChapterReader";
     private final List<Chapter> chapters = new ArrayList<>();
     private final InputStream inputStream;
+    private final FileChannel channel;
     private static final int FTYP_CODE = 0x66747970; // "ftyp"
+    private static final String HANDLER_TEXT = "text";
+    private static final String HANDLER_VIDEO = "vide";
+    private static final String MODIFIER_HREF = "href";
 
     public M4AChapterReader(InputStream input) {
         inputStream = input;
+        channel = null;
+    }
+
+    /**
+     * Reads from a file channel. Besides Nero chapters, this also supports QuickTime chapter tracks.
+     */
+    public M4AChapterReader(FileChannel input) {
+        inputStream = null;
+        channel = input;
     }
 
     /**
      * Read the input stream populating the chapters list
      */
     public void readInputStream() {
+        if (channel != null) {
+            readChannel();
+            return;
+        }
         try {
             isM4A(inputStream);
             int dataSize = this.findAtom("moov.udta.chpl");
@@ -112,6 +135,10 @@ public class M4AChapterReader {
         // Read the Nero Chapter Atom data into a buffer
         ByteBuffer byteBuffer = ByteBuffer.allocate((int) chunkSize).order(ByteOrder.BIG_ENDIAN);
         IOUtils.readFully(inputStream, byteBuffer.array());
+        parseNeroChapterAtom(byteBuffer);
+    }
+
+    private void parseNeroChapterAtom(ByteBuffer byteBuffer) {
         // Skip the 5-byte header
         // Nero Chapter Atom consists of a 5-byte header followed by chapter data
         // The first 4 bytes are the version and flags, the 5th byte is reserved
@@ -138,6 +165,230 @@ public class M4AChapterReader {
         }
     }
 
+    private void readChannel() {
+        try {
+            AtomNavigator navigator = new AtomNavigator(channel);
+            Atom ftyp = navigator.findChild(null, "ftyp");
+            if (ftyp == null || ftyp.getPayloadStart() != 8) {
+                throw new IOException("Not an M4A file");
+            }
+            Atom neroChapterAtom = navigator.findAtom("moov.udta.chpl");
+            if (neroChapterAtom != null) {
+                Log.d(TAG, "Nero Chapter Atom found. Data Size: " + neroChapterAtom.getPayloadSize());
+                parseNeroChapterAtom(navigator.readPayload(neroChapterAtom));
+            } else {
+                Log.d(TAG, "Nero Chapter Atom not found");
+                readQuickTimeChapterTracks(navigator);
+            }
+        } catch (Exception e) {
+            Log.d(TAG, "ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read the chapter tracks referenced by "tref.chap" of any track.
+     * Text tracks provide titles (and links), video tracks provide chapter images.
+     *
+     * @see <a href="https://developer.apple.com/documentation/quicktime-file-format/base_media_information_header_atom/text_sample_data">Text Sample Data</a>
+     */
+    private void readQuickTimeChapterTracks(AtomNavigator navigator) throws IOException {
+        Atom moov = navigator.findAtom("moov");
+        if (moov == null) {
+            return;
+        }
+        Map<Integer, Atom> tracks = new HashMap<>();
+        List<Integer> chapterTrackIds = new ArrayList<>();
+        for (Atom trak : navigator.findChildren(moov, "trak")) {
+            Atom tkhd = navigator.findChild(trak, "tkhd");
+            if (tkhd == null) {
+                continue;
+            }
+            ByteBuffer trackHeader = navigator.readPayload(tkhd);
+            // Version 1 uses 64-bit creation and modification times
+            tracks.put(trackHeader.getInt(trackHeader.get(0) == 1 ? 20 : 12), trak);
+
+            Atom chap = navigator.findAtom(trak, "tref.chap");
+            if (chap != null) {
+                ByteBuffer references = navigator.readPayload(chap);
+                while (references.remaining() >= 4) {
+                    int trackId = references.getInt();
+                    if (!chapterTrackIds.contains(trackId)) {
+                        chapterTrackIds.add(trackId);
+                    }
+                }
+            }
+        }
+
+        List<Atom> imageTracks = new ArrayList<>();
+        for (int trackId : chapterTrackIds) {
+            Atom trak = tracks.get(trackId);
+            if (trak == null) {
+                continue;
+            }
+            String handler = readHandlerType(navigator, trak);
+            if (HANDLER_TEXT.equals(handler)) {
+                readTextChapterTrack(navigator, trak);
+            } else if (HANDLER_VIDEO.equals(handler)) {
+                imageTracks.add(trak);
+            }
+        }
+        for (Atom trak : imageTracks) {
+            for (Sample sample : readSamples(navigator, trak)) {
+                Chapter chapter = findChapterStartingAt(sample.start);
+                if (chapter != null && chapter.getImageUrl() == null && sample.offset <= Integer.MAX_VALUE) {
+                    chapter.setImageUrl(EmbeddedChapterImage.makeUrl((int) sample.offset, sample.size));
+                }
+            }
+        }
+    }
+
+    private String readHandlerType(AtomNavigator navigator, Atom trak) throws IOException {
+        Atom hdlr = navigator.findAtom(trak, "mdia.hdlr");
+        if (hdlr == null) {
+            return null;
+        }
+        ByteBuffer handler = navigator.readPayload(hdlr);
+        // Skip version, flags and pre-defined field
+        return new String(handler.array(), 8, 4, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * The first text track defines the chapters, further text tracks can only add links.
+     */
+    private void readTextChapterTrack(AtomNavigator navigator, Atom trak) throws IOException {
+        boolean isFirstTextTrack = chapters.isEmpty();
+        for (Sample sample : readSamples(navigator, trak)) {
+            ByteBuffer data = navigator.read(sample.offset, sample.size);
+            if (data.remaining() < 2) {
+                continue;
+            }
+            int textLength = Math.min(data.getShort() & 0xffff, data.remaining());
+            String title = decodeText(data, textLength);
+            String link = null;
+            // Text modifier atoms follow the text
+            while (data.remaining() >= 8) {
+                int atomStart = data.position();
+                int atomSize = data.getInt();
+                String atomType = new String(data.array(), data.position(), 4, StandardCharsets.ISO_8859_1);
+                if (atomSize < 8 || atomStart + atomSize > data.limit()) {
+                    break;
+                }
+                if (MODIFIER_HREF.equals(atomType) && atomSize > 13) {
+                    // Skip type and start and end offsets of the linked text
+                    data.position(atomStart + 12);
+                    int linkLength = Math.min(data.get() & 0xff, atomStart + atomSize - data.position());
+                    link = new String(data.array(), data.position(), linkLength, StandardCharsets.UTF_8);
+                }
+                data.position(atomStart + atomSize);
+            }
+
+            if (isFirstTextTrack) {
+                Chapter chapter = new Chapter();
+                chapter.setStart(sample.start);
+                chapter.setTitle(title);
+                chapter.setLink(link);
+                chapter.setChapterId(String.valueOf(chapters.size() + 1));
+                chapters.add(chapter);
+                Log.d(TAG, "QuickTime Chapter " + chapters.size() + ": " + chapter);
+            } else if (link != null) {
+                Chapter chapter = findChapterStartingAt(sample.start);
+                if (chapter != null && chapter.getLink() == null) {
+                    chapter.setLink(link);
+                }
+            }
+        }
+    }
+
+    private static String decodeText(ByteBuffer data, int length) {
+        Charset charset = StandardCharsets.UTF_8;
+        if (length >= 2 && data.get(data.position()) == (byte) 0xfe && data.get(data.position() + 1) == (byte) 0xff) {
+            charset = StandardCharsets.UTF_16;
+        }
+        String text = new String(data.array(), data.position(), length, charset);
+        data.position(data.position() + length);
+        return text;
+    }
+
+    private Chapter findChapterStartingAt(long start) {
+        for (Chapter chapter : chapters) {
+            if (chapter.getStart() == start) {
+                return chapter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the position, size and start time of each sample in a track from its sample table.
+     */
+    private List<Sample> readSamples(AtomNavigator navigator, Atom trak) throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        Atom mdhd = navigator.findAtom(trak, "mdia.mdhd");
+        Atom stbl = navigator.findAtom(trak, "mdia.minf.stbl");
+        if (mdhd == null || stbl == null) {
+            return samples;
+        }
+        ByteBuffer mediaHeader = navigator.readPayload(mdhd);
+        // Version 1 uses 64-bit creation and modification times
+        long timescale = mediaHeader.getInt(mediaHeader.get(0) == 1 ? 20 : 12) & 0xffffffffL;
+        Atom stts = navigator.findChild(stbl, "stts");
+        Atom stsz = navigator.findChild(stbl, "stsz");
+        Atom stsc = navigator.findChild(stbl, "stsc");
+        Atom stco = navigator.findChild(stbl, "stco");
+        Atom co64 = stco == null ? navigator.findChild(stbl, "co64") : null;
+        if (timescale == 0 || stts == null || stsz == null || stsc == null || (stco == null && co64 == null)) {
+            return samples;
+        }
+
+        ByteBuffer sizes = navigator.readPayload(stsz);
+        int constantSize = sizes.getInt(4);
+        int sampleCount = sizes.getInt(8);
+        sizes.position(12);
+
+        ByteBuffer timeToSample = navigator.readPayload(stts);
+        timeToSample.position(8);
+        int deltaCount = 0;
+        long delta = 0;
+        long time = 0;
+
+        ByteBuffer sampleToChunk = navigator.readPayload(stsc);
+        int sampleToChunkEntries = sampleToChunk.getInt(4);
+        sampleToChunk.position(8);
+        int samplesPerChunk = 0;
+        int nextEntryFirstChunk = 1;
+
+        ByteBuffer chunkOffsets = navigator.readPayload(stco != null ? stco : co64);
+        int chunkCount = chunkOffsets.getInt(4);
+        chunkOffsets.position(8);
+
+        for (int chunk = 1; chunk <= chunkCount && samples.size() < sampleCount; chunk++) {
+            while (chunk >= nextEntryFirstChunk && sampleToChunkEntries > 0) {
+                sampleToChunk.getInt(); // First chunk of this entry
+                samplesPerChunk = sampleToChunk.getInt();
+                sampleToChunk.getInt(); // Sample description index
+                sampleToChunkEntries--;
+                nextEntryFirstChunk = sampleToChunkEntries > 0
+                        ? sampleToChunk.getInt(sampleToChunk.position()) : Integer.MAX_VALUE;
+            }
+            long offset = stco != null ? chunkOffsets.getInt() & 0xffffffffL : chunkOffsets.getLong();
+            for (int i = 0; i < samplesPerChunk && samples.size() < sampleCount; i++) {
+                if (deltaCount == 0 && timeToSample.remaining() >= 8) {
+                    deltaCount = timeToSample.getInt();
+                    delta = timeToSample.getInt() & 0xffffffffL;
+                }
+                deltaCount--;
+                Sample sample = new Sample();
+                sample.start = time * 1000 / timescale;
+                sample.offset = offset;
+                sample.size = constantSize != 0 ? constantSize : sizes.getInt();
+                samples.add(sample);
+                offset += sample.size;
+                time += delta;
+            }
+        }
+        return samples;
+    }
+
     public List<Chapter> getChapters() {
         return chapters;
     }
@@ -158,4 +409,10 @@ public class M4AChapterReader {
         }
         IOUtils.skipFully(inputStream, ftypSize - 8);
     }
+
+    private static class Sample {
+        long start;
+        long offset;
+        int size;
+    }
 }
@@ -9,6 +9,7 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
@@ -185,6 +186,20 @@ public class ChapterReaderTest {
         assertEquals(EmbeddedChapterImage.makeUrl(9498, 4364), chapters.get(1).getImageUrl());
     }
 
+    @Test
+    public void testRealFileHindenburgJournalistProMapped() throws Exception {
+        File file = new File(getClass().getClassLoader().getResource("hindenburg-journalist-pro.mp3").toURI());
+        ChapterReader reader = new ChapterReader(ChapterReader.mapFile(file));
+        reader.readInputStream();
+        List<Chapter> chapters = reader.getChapters();
+
+        assertEquals(2, chapters.size());
+        assertEquals(5006, chapters.get(1).getStart());
+        assertEquals("Chapter Marker 2", chapters.get(1).getTitle());
+        assertEquals(EmbeddedChapterImage.makeUrl(5330, 4015), chapters.get(0).getImageUrl());
+        assertEquals(EmbeddedChapterImage.makeUrl(9498, 4364), chapters.get(1).getImageUrl());
+    }
+
     @Test
     public void testRealFileMp3chapsPy() throws IOException, ID3ReaderException {
         CountingInputStream inputStream = new CountingInputStream(getClass().getClassLoader()
@@ -9,7 +9,9 @@ import org.robolectric.RobolectricTestRunner;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertEquals;
@@ -120,6 +122,38 @@ public class Id3ReaderTest {
         assertEquals(42, header.getSize());
     }
 
+    @Test
+    public void testReadFrameHeaderFromBuffer() throws IOException, ID3ReaderException {
+        byte[] data = concat(new byte[] {'X', 'Y'}, generateFrameHeader("CHAP", 42));
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        ID3Reader reader = new ID3Reader(buffer);
+        reader.skipBytes(2);
+        FrameHeader header = reader.readFrameHeader();
+        assertEquals("CHAP", header.getId());
+        assertEquals(42, header.getSize());
+        assertEquals(data.length, reader.getPosition());
+        assertEquals("Should not modify the position of the given buffer", 0, buffer.position());
+    }
+
+    @Test
+    public void testSkipBeyondChunk() throws IOException, ID3ReaderException {
+        byte[] data = new byte[20000];
+        data[15000] = 'A';
+        data[15001] = 'B';
+        ID3Reader reader = new ID3Reader(new ByteArrayInputStream(data));
+        reader.readByte();
+        reader.skipBytes(14999);
+        assertEquals(15000, reader.getPosition());
+        assertEquals("AB", reader.readPlainBytesToString(2));
+        assertEquals(15002, reader.getPosition());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadBeyondEndOfStream() throws IOException {
+        byte[] data = {0, 1, 2};
+        new ID3Reader(new ByteArrayInputStream(data)).readInt();
+    }
+
     public static byte[] generateFrameHeader(String id, int size) {
         return concat(
             id.getBytes(StandardCharsets.ISO_8859_1), // Frame ID
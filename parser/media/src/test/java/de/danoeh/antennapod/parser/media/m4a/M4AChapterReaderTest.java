@@ -1,12 +1,16 @@
 package de.danoeh.antennapod.parser.media.m4a;
 
 import de.danoeh.antennapod.model.feed.Chapter;
+import de.danoeh.antennapod.model.feed.EmbeddedChapterImage;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -38,4 +42,68 @@ public class M4AChapterReaderTest {
         assertEquals("Chapter 3 - 爱", chapters.get(2).getTitle());
         assertEquals("Chapter 4", chapters.get(3).getTitle());
     }
+
+    @Test
+    public void testNeroChaptersFromChannel() throws Exception {
+        List<Chapter> chapters = readFromChannel("nero-chapters.m4a");
+
+        assertEquals(4, chapters.size());
+        assertEquals(9000, chapters.get(3).getStart());
+        assertEquals("Chapter 1 - ❤️😊", chapters.get(0).getTitle());
+        assertEquals("Chapter 4", chapters.get(3).getTitle());
+    }
+
+    @Test
+    public void testQuickTimeChapterTrackAuphonic() throws Exception {
+        List<Chapter> chapters = readFromChannel("auphonic.m4a");
+
+        assertEquals(4, chapters.size());
+
+        assertEquals(0, chapters.get(0).getStart());
+        assertEquals(3000, chapters.get(1).getStart());
+        assertEquals(6000, chapters.get(2).getStart());
+        assertEquals(9000, chapters.get(3).getStart());
+
+        assertEquals("Chapter 1 - ❤️😊", chapters.get(0).getTitle());
+        assertEquals("Chapter 2 - ßöÄ", chapters.get(1).getTitle());
+        assertEquals("Chapter 3 - 爱", chapters.get(2).getTitle());
+        assertEquals("Chapter 4", chapters.get(3).getTitle());
+
+        assertEquals("https://example.com", chapters.get(0).getLink());
+        assertEquals(EmbeddedChapterImage.makeUrl(11404, 308), chapters.get(0).getImageUrl());
+    }
+
+    @Test
+    public void testQuickTimeChapterTrackHindenburgJournalistPro() throws Exception {
+        List<Chapter> chapters = readFromChannel("hindenburg-journalist-pro.m4a");
+
+        assertEquals(2, chapters.size());
+
+        assertEquals(0, chapters.get(0).getStart());
+        assertEquals(5005, chapters.get(1).getStart());
+
+        assertEquals("Chapter Marker 1", chapters.get(0).getTitle());
+        assertEquals("Chapter Marker 2", chapters.get(1).getTitle());
+
+        assertEquals("https://example.com/chapter1url", chapters.get(0).getLink());
+        assertEquals("https://example.com/chapter2url", chapters.get(1).getLink());
+
+        assertEquals(EmbeddedChapterImage.makeUrl(12337, 4015), chapters.get(0).getImageUrl());
+        assertEquals(EmbeddedChapterImage.makeUrl(16352, 4364), chapters.get(1).getImageUrl());
+    }
+
+    @Test
+    public void testNoChaptersInAudioFile() throws Exception {
+        List<Chapter> chapters = readFromChannel("auphonic.mp3");
+        assertEquals(0, chapters.size());
+    }
+
+    private List<Chapter> readFromChannel(String resource) throws Exception {
+        File file = new File(getClass().getClassLoader().getResource(resource).toURI());
+        try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+            M4AChapterReader reader = new M4AChapterReader(channel);
+            reader.readInputStream();
+            return reader.getChapters();
+        }
+    }
 }
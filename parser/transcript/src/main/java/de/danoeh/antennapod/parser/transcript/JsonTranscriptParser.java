@@ -10,7 +10,6 @@ import java.util.HashSet;
 import java.util.Set;
 
 import de.danoeh.antennapod.model.feed.Transcript;
-import de.danoeh.antennapod.model.feed.TranscriptSegment;
 
 public class JsonTranscriptParser {
     public static Transcript parse(String jsonStr) {
@@ -58,10 +57,7 @@ public class JsonTranscriptParser {
                 if (!prevSpeaker.equals(speaker)) {
                     if (StringUtils.isNotEmpty(segmentBody)) {
                         segmentBody = StringUtils.trim(segmentBody);
-                        transcript.addSegment(new TranscriptSegment(segmentStartTime,
-                                segmentEndTime,
-                                segmentBody,
-                                prevSpeaker));
+                        transcript.addSegment(segmentStartTime, segmentEndTime, segmentBody, prevSpeaker);
                         segmentStartTime = startTime;
                         segmentBody = body.toString();
                         duration = 0L;
@@ -83,7 +79,7 @@ public class JsonTranscriptParser {
                         }
                     }
                     segmentBody = StringUtils.trim(segmentBody);
-                    transcript.addSegment(new TranscriptSegment(segmentStartTime, endTime, segmentBody, speaker));
+                    transcript.addSegment(segmentStartTime, endTime, segmentBody, speaker);
                     duration = 0L;
                     segmentBody = "";
                     segmentStartTime = -1L;
@@ -92,7 +88,7 @@ public class JsonTranscriptParser {
 
             if (!StringUtil.isBlank(segmentBody)) {
                 segmentBody = StringUtils.trim(segmentBody);
-                transcript.addSegment(new TranscriptSegment(segmentStartTime, endTime, segmentBody, speaker));
+                transcript.addSegment(segmentStartTime, endTime, segmentBody, speaker);
             }
 
             if (transcript.getSegmentCount() > 0) {
@@ -0,0 +1,81 @@
+package de.danoeh.antennapod.parser.transcript;
+
+/**
+ * Walks the lines of a string without splitting it up front.
+ * Lines can be terminated by "\n", "\r\n" or "\r".
+ */
+class LineReader {
+    private final String text;
+    private int start = 0;
+    private int end = 0;
+    private int next = 0;
+
+    LineReader(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Moves to the next line.
+     *
+     * @return false if there are no more lines
+     */
+    boolean next() {
+        if (next >= text.length()) {
+            return false;
+        }
+        start = next;
+        end = start;
+        while (end < text.length() && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+            end++;
+        }
+        next = end + 1;
+        if (end < text.length() && text.charAt(end) == '\r'
+                && next < text.length() && text.charAt(next) == '\n') {
+            next++;
+        }
+        return true;
+    }
+
+    /**
+     * Start index of the current line in the text.
+     */
+    int start() {
+        return start;
+    }
+
+    /**
+     * End index (exclusive) of the current line in the text.
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * Index of the given string in the current line, or -1.
+     */
+    int indexOf(String str) {
+        for (int i = start; i <= end - str.length(); i++) {
+            if (text.startsWith(str, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    boolean isEmpty() {
+        return start == end;
+    }
+
+    boolean isBlank() {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String line() {
+        return text.substring(start, end);
+    }
+}
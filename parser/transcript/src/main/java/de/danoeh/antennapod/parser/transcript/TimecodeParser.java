@@ -0,0 +1,87 @@
+package de.danoeh.antennapod.parser.transcript;
+
+/**
+ * Parses the timecodes of SRT and WebVTT files in place, without creating substrings.
+ */
+class TimecodeParser {
+    private TimecodeParser() {
+    }
+
+    /**
+     * Parses a timecode like "01:02:03,456" in the given range of the text.
+     * Whitespace around the timecode is ignored.
+     *
+     * @return the time in milliseconds, or -1 if the timecode is invalid
+     */
+    static long parseSrt(String text, int start, int end) {
+        start = skipWhitespace(text, start, end);
+        end = trimWhitespace(text, start, end);
+        if (end - start != 12 || text.charAt(start + 2) != ':' || text.charAt(start + 5) != ':'
+                || text.charAt(start + 8) != ',') {
+            return -1;
+        }
+        return toMillis(parseDigits(text, start, 2), parseDigits(text, start + 3, 2),
+                parseDigits(text, start + 6, 2), parseDigits(text, start + 9, 3));
+    }
+
+    /**
+     * Parses a timestamp like "01:02:03.456" or "02:03.456" in the given range of the text.
+     * Whitespace around the timestamp is ignored.
+     *
+     * @return the time in milliseconds, or -1 if the timestamp is invalid
+     */
+    static long parseVtt(String text, int start, int end) {
+        start = skipWhitespace(text, start, end);
+        end = trimWhitespace(text, start, end);
+        int length = end - start;
+        if (length != 9 && length != 11 && length != 12) {
+            return -1;
+        }
+        int minutesStart = end - 9;
+        if (text.charAt(minutesStart + 2) != ':' || text.charAt(minutesStart + 5) != '.') {
+            return -1;
+        }
+        long hours = 0;
+        if (length > 9) {
+            if (text.charAt(minutesStart - 1) != ':') {
+                return -1;
+            }
+            hours = parseDigits(text, start, length - 10);
+        }
+        return toMillis(hours, parseDigits(text, minutesStart, 2),
+                parseDigits(text, minutesStart + 3, 2), parseDigits(text, minutesStart + 6, 3));
+    }
+
+    static int skipWhitespace(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    static int trimWhitespace(String text, int start, int end) {
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static long parseDigits(String text, int start, int count) {
+        long value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static long toMillis(long hours, long minutes, long seconds, long milliseconds) {
+        if (hours < 0 || minutes < 0 || seconds < 0 || milliseconds < 0) {
+            return -1;
+        }
+        return (hours * 60 * 60 * 1000) + (minutes * 60 * 1000) + (seconds * 1000) + milliseconds;
+    }
+}
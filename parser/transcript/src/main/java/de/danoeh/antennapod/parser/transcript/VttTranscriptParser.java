@@ -5,11 +5,9 @@ import androidx.annotation.Nullable;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jsoup.Jsoup;
+import org.jsoup.internal.StringUtil;
 
-import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -18,9 +16,6 @@ import de.danoeh.antennapod.model.feed.Transcript;
 import de.danoeh.antennapod.model.feed.TranscriptSegment;
 
 public class VttTranscriptParser {
-    private static final Pattern TIMESTAMP_PATTERN =
-            Pattern.compile("^(?:([0-9]{1,2}):)?([0-9]{2}):([0-9]{2})\\.([0-9]{3})$");
-
     private static final Pattern VOICE_SPAN =
             Pattern.compile("<v(?:\\.[^\\t\\n\\r &<>.]+)*[ \\t]([^\\n\\r&>]+)>");
 
@@ -35,38 +30,40 @@ public class VttTranscriptParser {
             return null;
         }
 
-        // WebVTT line terminator can be \r\n, \n or \n, let's use only one
-        str = str.replaceAll("\r\n?", "\n");
-        List<String> lines = Arrays.asList(str.split("\n"));
-
+        // WebVTT line terminator can be \r\n, \n or \r, LineReader handles all of them
         Transcript transcript = new Transcript();
-        Iterator<String> iterator = lines.iterator();
+        LineReader lines = new LineReader(str);
         Set<String> speakers = new HashSet<>();
         String speaker = "";
         TranscriptSegment segment = null;
 
         // Iterate through cue blocks
-        while (iterator.hasNext()) {
-            String line = iterator.next();
-
-            if (!line.contains("-->")) {
+        while (lines.next()) {
+            int arrow = lines.indexOf("-->");
+            if (arrow == -1) {
                 continue;
             }
 
-            Timings timings = parseCueTimings(line);
+            Timings timings = parseCueTimings(str, lines.start(), arrow, lines.end());
             if (timings == null) {
                 return null; // Input is broken
             }
 
-            String payload = parseCuePayload(iterator);
+            String payload = parseCuePayload(lines);
 
-            Matcher matcher = VOICE_SPAN.matcher(payload);
-            if (matcher.find()) {
-                speaker = matcher.group(1);
-                speakers.add(speaker);
+            if (payload.contains("<v")) {
+                Matcher matcher = VOICE_SPAN.matcher(payload);
+                if (matcher.find()) {
+                    speaker = matcher.group(1);
+                    speakers.add(speaker);
+                }
             }
 
-            payload = Jsoup.parse(payload).text(); // remove all HTML tags
+            if (payload.indexOf('<') != -1 || payload.indexOf('&') != -1) {
+                payload = Jsoup.parse(payload).text(); // remove all HTML tags
+            } else {
+                payload = StringUtil.normaliseWhitespace(payload);
+            }
 
             // should we merge this segment with the previous one?
             if (segment != null && segment.getSpeaker().equals(speaker)
@@ -97,30 +94,16 @@ public class VttTranscriptParser {
         return transcript;
     }
 
-    private static long parseIntOrNull(@Nullable String s) {
-        return StringUtils.isEmpty(s) ? 0 : Integer.parseInt(s);
-    }
-
-    private static long parseTimestamp(@NonNull String timestamp) {
-        Matcher matcher = TIMESTAMP_PATTERN.matcher(timestamp);
-        if (!matcher.matches()) {
-            return -1;
-        }
-        long hours = parseIntOrNull(matcher.group(1));
-        long minutes = parseIntOrNull(matcher.group(2));
-        long seconds = parseIntOrNull(matcher.group(3));
-        long milliseconds = parseIntOrNull(matcher.group(4));
-        return (hours * 60 * 60 * 1000) + (minutes * 60 * 1000) + (seconds * 1000) + milliseconds;
-    }
-
     @Nullable
-    private static Timings parseCueTimings(@NonNull String line) {
-        String[] timestamps = line.split("-->");
-        if (timestamps.length < 2) {
-            return null;
+    private static Timings parseCueTimings(@NonNull String text, int lineStart, int arrow, int lineEnd) {
+        long start = TimecodeParser.parseVtt(text, lineStart, arrow);
+        // Cue settings may follow the end timestamp
+        int endStart = TimecodeParser.skipWhitespace(text, arrow + 3, lineEnd);
+        int endEnd = endStart;
+        while (endEnd < lineEnd && text.charAt(endEnd) != ' ' && text.charAt(endEnd) != '\t') {
+            endEnd++;
         }
-        long start = parseTimestamp(timestamps[0].trim());
-        long end = parseTimestamp(timestamps[1].trim().split("[ \\t]")[0]);
+        long end = TimecodeParser.parseVtt(text, endStart, endEnd);
         if (start == -1 || end == -1) {
             return null;
         }
@@ -128,14 +111,13 @@ public class VttTranscriptParser {
     }
 
     @NonNull
-    private static String parseCuePayload(@NonNull Iterator<String> iterator) {
+    private static String parseCuePayload(@NonNull LineReader lines) {
         StringBuilder body = new StringBuilder();
-        while (iterator.hasNext()) {
-            String line = iterator.next();
-            if (line.isEmpty()) {
+        while (lines.next()) {
+            if (lines.isEmpty()) {
                 break;
             }
-            body.append(line.strip());
+            body.append(lines.line().strip());
             body.append(" ");
         }
         return body.toString().strip();
@@ -31,6 +31,16 @@ public class SrtTranscriptParserTest {
                 result.getSegmentAtTime(90740).getWords());
     }
 
+    @Test
+    public void testParseSrtWindowsLineEndings() {
+        Transcript result = SrtTranscriptParser.parse(srtStr.replace("\n", "\r\n"));
+
+        assertEquals(result.getSegmentAtTime(0L).getWords(), "Promoting your podcast in a new");
+        assertEquals(result.getSegmentAtTime(0L).getEndTime(), 50730L);
+        assertEquals("way. The latest from PogNews. We bring your favorite podcast.",
+                result.getSegmentAtTime(90740).getWords());
+    }
+
     @Test
     public void testParse() {
         String type = "application/srr";
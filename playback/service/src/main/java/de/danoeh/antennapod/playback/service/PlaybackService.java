@@ -59,11 +59,12 @@ import de.danoeh.antennapod.net.sync.serviceinterface.SynchronizationQueue;
 import de.danoeh.antennapod.playback.service.internal.ClockSleepTimer;
 import de.danoeh.antennapod.playback.service.internal.EpisodeSleepTimer;
 import de.danoeh.antennapod.playback.service.internal.LocalPSMP;
-import de.danoeh.antennapod.playback.service.internal.PlayableUtils;
+import de.danoeh.antennapod.playback.service.internal.PlaybackPositionBuffer;
 import de.danoeh.antennapod.playback.service.internal.PlaybackServiceNotificationBuilder;
 import de.danoeh.antennapod.playback.service.internal.PlaybackServiceStateManager;
 import de.danoeh.antennapod.playback.service.internal.PlaybackServiceTaskManager;
 import de.danoeh.antennapod.playback.service.internal.PlaybackVolumeUpdater;
+import de.danoeh.antennapod.playback.service.internal.QueuePrefetcher;
 import de.danoeh.antennapod.model.playback.TimerValue;
 import de.danoeh.antennapod.playback.service.internal.WearMediaSession;
 import de.danoeh.antennapod.storage.preferences.SleepTimerType;
@@ -168,6 +169,8 @@ public class PlaybackService extends MediaBrowserServiceCompat {
 
     private PlaybackServiceMediaPlayer mediaPlayer;
     private PlaybackServiceTaskManager taskManager;
+    private PlaybackPositionBuffer positionBuffer;
+    private QueuePrefetcher queuePrefetcher;
     private SleepTimer sleepTimer;
     private PlaybackServiceStateManager stateManager;
     private Disposable positionEventTimer;
@@ -259,6 +262,11 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         registerReceiver(audioBecomingNoisy, new IntentFilter(AudioManager.ACTION_AUDIO_BECOMING_NOISY));
         EventBus.getDefault().register(this);
         taskManager = new PlaybackServiceTaskManager(this, taskManagerCallback);
+        positionBuffer = new PlaybackPositionBuffer(this);
+        queuePrefetcher = new QueuePrefetcher(this);
+        singleShotDisposables.add(Completable.fromAction(positionBuffer::recover)
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> { }, error -> Log.e(TAG, Log.getStackTraceString(error))));
 
         recreateMediaSessionIfNeeded();
         castStateListener = new CastStateListener(this) {
@@ -344,6 +352,8 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         unregisterReceiver(bluetoothStateUpdated);
         unregisterReceiver(audioBecomingNoisy);
         mediaPlayer.shutdown();
+        positionBuffer.flush();
+        queuePrefetcher.shutdown();
         taskManager.shutdown();
         disableSleepTimer();
         EventBus.getDefault().unregister(this);
@@ -595,6 +605,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
             }
             Disposable d = Observable.fromCallable(
                     () -> {
+                        positionBuffer.recover();
                         if (playable instanceof FeedMedia) {
                             return DBReader.getFeedMedia(((FeedMedia) playable).getId());
                         } else {
@@ -797,7 +808,10 @@ public class PlaybackService extends MediaBrowserServiceCompat {
     }
 
     private void startPlayingFromPreferences() {
-        Disposable d = Observable.fromCallable(() -> DBReader.getFeedMedia(PlaybackPreferences.getCurrentlyPlayingFeedMediaId()))
+        Disposable d = Observable.fromCallable(() -> {
+                    positionBuffer.recover();
+                    return DBReader.getFeedMedia(PlaybackPreferences.getCurrentlyPlayingFeedMediaId());
+                })
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
@@ -857,7 +871,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
     private final PlaybackServiceTaskManager.PSTMCallback taskManagerCallback = new PlaybackServiceTaskManager.PSTMCallback() {
         @Override
         public void positionSaverTick() {
-            saveCurrentPosition(true, null, Playable.INVALID_TIME);
+            saveCurrentPosition(true, null, Playable.INVALID_TIME, false);
         }
 
         @Override
@@ -910,7 +924,8 @@ public class PlaybackService extends MediaBrowserServiceCompat {
                     break;
                 case PLAYING:
                     PlaybackPreferences.setCurrentPlayerStatus(PlaybackPreferences.PLAYER_STATUS_PLAYING);
-                    saveCurrentPosition(true, null, Playable.INVALID_TIME);
+                    // Also reached after seeking
+                    saveCurrentPosition(true, null, Playable.INVALID_TIME, true);
                     recreateMediaSessionIfNeeded();
                     updateNotificationAndMediaSession(newInfo.getPlayable());
                     setupPositionObserver();
@@ -994,6 +1009,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
             }
             playable.onPlaybackStart();
             taskManager.startPositionSaver();
+            queuePrefetcher.prefetchAfter(playable);
         }
 
         @Override
@@ -1005,7 +1021,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
                 FeedMedia media = (FeedMedia) playable;
                 if (!media.getItem().getIdentifyingValue().equals(positionJustResetAfterPlayback)) {
                     // Don't store position after position is already reset
-                    saveCurrentPosition(position == Playable.INVALID_TIME, playable, position);
+                    saveCurrentPosition(position == Playable.INVALID_TIME, playable, position, true);
                 }
                 SynchronizationQueue.getInstance().enqueueEpisodePlayed(media, false);
             }
@@ -1254,6 +1270,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
             return;
         }
         Log.d(TAG, "onPostPlayback(): media=" + playable.getEpisodeTitle());
+        positionBuffer.flush(); // Before the position might be reset below
 
         if (!(playable instanceof FeedMedia)) {
             Log.d(TAG, "Not doing post-playback processing: media not of type FeedMedia");
@@ -1731,8 +1748,10 @@ public class PlaybackService extends MediaBrowserServiceCompat {
      * @param playable        the playable for which the current position should be saved, unless
      *                        {@param fromMediaPlayer} is true.
      * @param position        the position that should be saved, unless {@param fromMediaPlayer} is true.
+     * @param flush           if false, the position is only written to the database every few minutes.
      */
-    private synchronized void saveCurrentPosition(boolean fromMediaPlayer, Playable playable, int position) {
+    private synchronized void saveCurrentPosition(boolean fromMediaPlayer, Playable playable, int position,
+                                                  boolean flush) {
         int duration;
         if (fromMediaPlayer) {
             position = getCurrentPosition();
@@ -1743,7 +1762,10 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         }
         if (position != Playable.INVALID_TIME && duration != Playable.INVALID_TIME && playable != null) {
             Log.d(TAG, "Saving current position to " + position);
-            PlayableUtils.saveCurrentPosition(playable, position, System.currentTimeMillis());
+            positionBuffer.update(playable, position, System.currentTimeMillis());
+            if (flush) {
+                positionBuffer.flush();
+            }
         }
     }
 
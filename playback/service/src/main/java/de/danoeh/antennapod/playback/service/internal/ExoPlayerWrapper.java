@@ -19,14 +19,10 @@ import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import androidx.media3.common.C;
 import androidx.media3.common.PlaybackException;
 import androidx.media3.common.util.UnstableApi;
-import androidx.media3.database.StandaloneDatabaseProvider;
 import androidx.media3.datasource.DataSource;
 import androidx.media3.datasource.DefaultDataSource;
 import androidx.media3.datasource.DefaultHttpDataSource;
 import androidx.media3.datasource.HttpDataSource;
-import androidx.media3.datasource.cache.CacheDataSource;
-import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor;
-import androidx.media3.datasource.cache.SimpleCache;
 import androidx.media3.exoplayer.DefaultLoadControl;
 import androidx.media3.exoplayer.DefaultRenderersFactory;
 import androidx.media3.common.Format;
@@ -58,7 +54,6 @@ import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.Disposable;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -81,7 +76,6 @@ public class ExoPlayerWrapper {
     private Consumer<Integer> bufferingUpdateListener;
     private PlaybackParameters playbackParameters;
     private DefaultTrackSelector trackSelector;
-    private SimpleCache simpleCache;
     @Nullable
     private LoudnessEnhancer loudnessEnhancer = null;
     @Nullable
@@ -173,8 +167,6 @@ public class ExoPlayerWrapper {
                 initLoudnessEnhancer(audioSessionId);
             }
         });
-        simpleCache = new SimpleCache(new File(context.getCacheDir(), "streaming"),
-                new LeastRecentlyUsedCacheEvictor(100 * 1024 * 1024), new StandaloneDatabaseProvider(context));
         initLoudnessEnhancer(exoPlayer.getAudioSessionId());
     }
 
@@ -227,10 +219,6 @@ public class ExoPlayerWrapper {
         if (exoPlayer != null) {
             exoPlayer.release();
         }
-        if (simpleCache != null) {
-            simpleCache.release();
-            simpleCache = null;
-        }
         if (loudnessEnhancer != null) {
             try {
                 loudnessEnhancer.release();
@@ -255,10 +243,6 @@ public class ExoPlayerWrapper {
 
     public void reset() {
         exoPlayer.release();
-        if (simpleCache != null) {
-            simpleCache.release();
-            simpleCache = null;
-        }
         createPlayer();
     }
 
@@ -281,21 +265,10 @@ public class ExoPlayerWrapper {
     public void setDataSource(String s, String user, String password)
             throws IllegalArgumentException, IllegalStateException {
         Log.d(TAG, "setDataSource: " + s);
-        final DefaultHttpDataSource.Factory httpDataSourceFactory = new DefaultHttpDataSource.Factory();
-        httpDataSourceFactory.setUserAgent(UserAgentInterceptor.USER_AGENT);
-        httpDataSourceFactory.setAllowCrossProtocolRedirects(true);
-        httpDataSourceFactory.setKeepPostFor302Redirects(true);
-
-        if (!TextUtils.isEmpty(user) && !TextUtils.isEmpty(password)) {
-            final HashMap<String, String> requestProperties = new HashMap<>();
-            requestProperties.put("Authorization", HttpCredentialEncoder.encode(user, password, "ISO-8859-1"));
-            httpDataSourceFactory.setDefaultRequestProperties(requestProperties);
-        }
+        final DefaultHttpDataSource.Factory httpDataSourceFactory = createHttpDataSourceFactory(user, password);
         DataSource.Factory dataSourceFactory = new DefaultDataSource.Factory(context, httpDataSourceFactory);
         if (s.startsWith("http")) {
-            dataSourceFactory = new CacheDataSource.Factory()
-                    .setCache(simpleCache)
-                    .setUpstreamDataSourceFactory(httpDataSourceFactory);
+            dataSourceFactory = StreamingCache.createDataSourceFactory(context, httpDataSourceFactory);
         }
         DefaultExtractorsFactory extractorsFactory = new DefaultExtractorsFactory();
         extractorsFactory.setConstantBitrateSeekingEnabled(true);
@@ -309,6 +282,20 @@ public class ExoPlayerWrapper {
         setDataSource(s, null, null);
     }
 
+    static DefaultHttpDataSource.Factory createHttpDataSourceFactory(@Nullable String user, @Nullable String password) {
+        final DefaultHttpDataSource.Factory httpDataSourceFactory = new DefaultHttpDataSource.Factory();
+        httpDataSourceFactory.setUserAgent(UserAgentInterceptor.USER_AGENT);
+        httpDataSourceFactory.setAllowCrossProtocolRedirects(true);
+        httpDataSourceFactory.setKeepPostFor302Redirects(true);
+
+        if (!TextUtils.isEmpty(user) && !TextUtils.isEmpty(password)) {
+            final HashMap<String, String> requestProperties = new HashMap<>();
+            requestProperties.put("Authorization", HttpCredentialEncoder.encode(user, password, "ISO-8859-1"));
+            httpDataSourceFactory.setDefaultRequestProperties(requestProperties);
+        }
+        return httpDataSourceFactory;
+    }
+
     public void setDisplay(SurfaceHolder sh) {
         exoPlayer.setVideoSurfaceHolder(sh);
     }
@@ -640,22 +627,11 @@ public class ExoPlayerWrapper {
         crossfadePlayer = createCrossfadePlayer();
 
         // Build the media source (same as setDataSource)
-        final DefaultHttpDataSource.Factory httpDataSourceFactory = new DefaultHttpDataSource.Factory();
-        httpDataSourceFactory.setUserAgent(UserAgentInterceptor.USER_AGENT);
-        httpDataSourceFactory.setAllowCrossProtocolRedirects(true);
-        httpDataSourceFactory.setKeepPostFor302Redirects(true);
-
-        if (!TextUtils.isEmpty(user) && !TextUtils.isEmpty(password)) {
-            final HashMap<String, String> requestProperties = new HashMap<>();
-            requestProperties.put("Authorization", HttpCredentialEncoder.encode(user, password, "ISO-8859-1"));
-            httpDataSourceFactory.setDefaultRequestProperties(requestProperties);
-        }
+        final DefaultHttpDataSource.Factory httpDataSourceFactory = createHttpDataSourceFactory(user, password);
 
         DataSource.Factory dataSourceFactory;
         if (url.startsWith("http")) {
-            dataSourceFactory = new CacheDataSource.Factory()
-                    .setCache(simpleCache)
-                    .setUpstreamDataSourceFactory(httpDataSourceFactory);
+            dataSourceFactory = StreamingCache.createDataSourceFactory(context, httpDataSourceFactory);
         } else {
             dataSourceFactory = new DefaultDataSource.Factory(context, httpDataSourceFactory);
         }
@@ -18,21 +18,40 @@ public abstract class PlayableUtils {
      * @param timestamp  current time in ms
      */
     public static void saveCurrentPosition(Playable playable, int newPosition, long timestamp) {
+        updateCurrentPosition(playable, newPosition, timestamp);
+        if (playable instanceof FeedMedia) {
+            writeCurrentPosition((FeedMedia) playable);
+        }
+    }
+
+    /**
+     * Updates the current position of this object in memory only.
+     *
+     * @param newPosition  new playback position in ms
+     * @param timestamp  current time in ms
+     */
+    public static void updateCurrentPosition(Playable playable, int newPosition, long timestamp) {
         playable.setPosition(newPosition);
         playable.setLastPlayedTimeStatistics(timestamp);
 
         if (playable instanceof FeedMedia) {
             FeedMedia media = (FeedMedia) playable;
             media.setLastPlayedTimeHistory(new Date(timestamp));
-            FeedItem item = media.getItem();
-            if (item != null && item.isNew()) {
-                DBWriter.markItemPlayed(FeedItem.UNPLAYED, item.getId());
-            }
             if (media.getStartPosition() >= 0 && playable.getPosition() > media.getStartPosition()) {
                 media.setPlayedDuration(media.getPlayedDurationWhenStarted()
                         + playable.getPosition() - media.getStartPosition());
             }
-            DBWriter.setFeedMediaPlaybackInformation(media);
         }
     }
+
+    /**
+     * Writes the position that was set with {@link #updateCurrentPosition} to the database.
+     */
+    public static void writeCurrentPosition(FeedMedia media) {
+        FeedItem item = media.getItem();
+        if (item != null && item.isNew()) {
+            DBWriter.markItemPlayed(FeedItem.UNPLAYED, item.getId());
+        }
+        DBWriter.setFeedMediaPlaybackInformation(media);
+    }
 }
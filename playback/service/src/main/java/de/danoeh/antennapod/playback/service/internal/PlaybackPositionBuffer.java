@@ -0,0 +1,160 @@
+package de.danoeh.antennapod.playback.service.internal;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.model.playback.Playable;
+import de.danoeh.antennapod.storage.database.DBReader;
+import de.danoeh.antennapod.storage.database.DBWriter;
+
+/**
+ * Keeps the playback position in memory and writes it to the database only when flushed,
+ * or when the last write is older than {@link #FLUSH_INTERVAL_MS}.
+ * In between, the position goes to a small memory-mapped journal file. Writing to it does not need a
+ * database transaction, and the kernel keeps the data when the process dies.
+ * If the app is killed before the position is flushed, {@link #recover()} restores it from the journal.
+ */
+public class PlaybackPositionBuffer {
+    private static final String TAG = "PlaybackPositionBuffer";
+    private static final String JOURNAL_FILE_NAME = "playback_position.journal";
+    private static final long FLUSH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(2);
+    // media id (long), position (int), played duration (int), last played time (long)
+    private static final int JOURNAL_SIZE = 24;
+    private static final int OFFSET_MEDIA_ID = 0;
+    private static final int OFFSET_POSITION = 8;
+    private static final int OFFSET_PLAYED_DURATION = 12;
+    private static final int OFFSET_TIMESTAMP = 16;
+
+    private final File journalFile;
+    private MappedByteBuffer journal;
+    private FeedMedia pendingMedia;
+    private long lastFlushTime = 0;
+    private boolean recovered = false;
+
+    public PlaybackPositionBuffer(Context context) {
+        journalFile = new File(context.getFilesDir(), JOURNAL_FILE_NAME);
+    }
+
+    /**
+     * Updates the position of the playable in memory and in the journal.
+     * The database is only written if the last write was a while ago, or if the playable changed.
+     */
+    public synchronized void update(@NonNull Playable playable, int position, long timestamp) {
+        PlayableUtils.updateCurrentPosition(playable, position, timestamp);
+        if (!(playable instanceof FeedMedia)) {
+            return;
+        }
+        FeedMedia media = (FeedMedia) playable;
+        if (pendingMedia != null && pendingMedia.getId() != media.getId()) {
+            flush();
+        }
+        pendingMedia = media;
+        writeJournal(media);
+        if (timestamp - lastFlushTime >= FLUSH_INTERVAL_MS) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered position to the database.
+     */
+    public synchronized void flush() {
+        if (pendingMedia == null) {
+            return;
+        }
+        Log.d(TAG, "Writing position " + pendingMedia.getPosition() + " of " + pendingMedia.getId());
+        PlayableUtils.writeCurrentPosition(pendingMedia);
+        pendingMedia = null;
+        lastFlushTime = System.currentTimeMillis();
+        // The journal is not cleared. It is only replayed if it is newer than the database.
+    }
+
+    /**
+     * Writes the position from the journal to the database, if the app was killed before it was flushed.
+     * Only does something on the first call. Call before loading the playable from the database.
+     * The database is read and written outside the lock, so that {@link #update} does not wait for it.
+     */
+    @WorkerThread
+    public void recover() {
+        long mediaId;
+        int position;
+        int playedDuration;
+        long timestamp;
+        synchronized (this) {
+            if (recovered) {
+                return;
+            }
+            recovered = true;
+            MappedByteBuffer buffer = getJournal();
+            if (buffer == null || buffer.getLong(OFFSET_MEDIA_ID) == 0) {
+                return;
+            }
+            mediaId = buffer.getLong(OFFSET_MEDIA_ID);
+            position = buffer.getInt(OFFSET_POSITION);
+            playedDuration = buffer.getInt(OFFSET_PLAYED_DURATION);
+            timestamp = buffer.getLong(OFFSET_TIMESTAMP);
+        }
+        FeedMedia media = DBReader.getFeedMedia(mediaId);
+        if (media == null || media.getLastPlayedTimeStatistics() >= timestamp
+                || (media.getItem() != null && media.getItem().isPlayed())) {
+            return;
+        }
+        Log.d(TAG, "Recovering position " + position + " of " + media.getId());
+        media.setPosition(position);
+        media.setPlayedDuration(playedDuration);
+        media.setLastPlayedTimeStatistics(timestamp);
+        media.setLastPlayedTimeHistory(new Date(timestamp));
+        Future<?> write;
+        synchronized (this) {
+            if (journal.getLong(OFFSET_TIMESTAMP) != timestamp) {
+                return; // Playback continued in the meantime, its newer position wins
+            }
+            // Queued before any later flush, the database thread keeps the order
+            write = DBWriter.setFeedMediaPlaybackInformation(media);
+        }
+        try {
+            write.get();
+        } catch (ExecutionException | InterruptedException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+        }
+    }
+
+    private void writeJournal(FeedMedia media) {
+        MappedByteBuffer buffer = getJournal();
+        if (buffer == null) {
+            return;
+        }
+        buffer.putInt(OFFSET_POSITION, media.getPosition());
+        buffer.putInt(OFFSET_PLAYED_DURATION, media.getPlayedDuration());
+        buffer.putLong(OFFSET_TIMESTAMP, media.getLastPlayedTimeStatistics());
+        buffer.putLong(OFFSET_MEDIA_ID, media.getId());
+    }
+
+    @Nullable
+    private MappedByteBuffer getJournal() {
+        if (journal == null) {
+            try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+                // The mapping stays valid after the file is closed
+                journal = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, JOURNAL_SIZE);
+            } catch (IOException e) {
+                Log.e(TAG, "Unable to open position journal: " + e.getMessage());
+            }
+        }
+        return journal;
+    }
+}
@@ -0,0 +1,145 @@
+package de.danoeh.antennapod.playback.service.internal;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.CacheWriter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.model.feed.FeedPreferences;
+import de.danoeh.antennapod.model.playback.Playable;
+import de.danoeh.antennapod.net.common.NetworkUtils;
+import de.danoeh.antennapod.storage.database.DBReader;
+
+/**
+ * Loads the beginning of the next episodes in the queue into the {@link StreamingCache},
+ * so that streaming them starts without buffering. Only runs on unmetered networks.
+ * The prefetched episodes are pinned in the cache until the next prefetch.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class QueuePrefetcher {
+    private static final String TAG = "QueuePrefetcher";
+    private static final int NUM_ITEMS = 2;
+    private static final long NUM_BYTES = 5 * 1024 * 1024;
+
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, TAG);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private Future<?> currentTask;
+    private volatile CacheWriter currentWriter;
+
+    public QueuePrefetcher(@NonNull Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Starts prefetching the episodes that follow the given playable in the queue.
+     * Replaces a prefetch that is still running.
+     */
+    public synchronized void prefetchAfter(@NonNull Playable playable) {
+        if (!(playable instanceof FeedMedia) || executor.isShutdown()) {
+            return;
+        }
+        cancel();
+        long currentItemId = ((FeedMedia) playable).getItemId();
+        currentTask = executor.submit(() -> prefetch(currentItemId));
+    }
+
+    public synchronized void cancel() {
+        if (currentTask != null) {
+            currentTask.cancel(true);
+            currentTask = null;
+        }
+        CacheWriter writer = currentWriter;
+        if (writer != null) {
+            writer.cancel();
+        }
+    }
+
+    /**
+     * Cancels the running prefetch and stops the prefetching thread. Call when the service is destroyed.
+     */
+    public synchronized void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    private void prefetch(long currentItemId) {
+        StreamingCache.updatePlayedKeys(context);
+        if (!NetworkUtils.networkAvailable() || NetworkUtils.isNetworkRestricted()) {
+            return;
+        }
+        List<FeedMedia> upcoming = getUpcomingStreams(currentItemId);
+        Set<String> keys = new HashSet<>();
+        for (FeedMedia media : upcoming) {
+            keys.add(media.getStreamUrl());
+        }
+        StreamingCache.setPinnedKeys(context, keys);
+
+        for (FeedMedia media : upcoming) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            FeedPreferences preferences = media.getItem().getFeed().getPreferences();
+            CacheDataSource dataSource = new CacheDataSource.Factory()
+                    .setCache(StreamingCache.getInstance(context))
+                    .setUpstreamDataSourceFactory(ExoPlayerWrapper.createHttpDataSourceFactory(
+                            preferences != null ? preferences.getUsername() : null,
+                            preferences != null ? preferences.getPassword() : null))
+                    .createDataSource();
+            DataSpec dataSpec = new DataSpec(Uri.parse(media.getStreamUrl()), 0, NUM_BYTES);
+            currentWriter = new CacheWriter(dataSource, dataSpec, null, null);
+            try {
+                Log.d(TAG, "Prefetching " + media.getStreamUrl());
+                currentWriter.cache();
+            } catch (InterruptedIOException e) {
+                return;
+            } catch (IOException e) {
+                Log.d(TAG, "Prefetching failed: " + e.getMessage());
+            } finally {
+                currentWriter = null;
+            }
+        }
+    }
+
+    private List<FeedMedia> getUpcomingStreams(long currentItemId) {
+        List<FeedItem> queue = DBReader.getQueue();
+        int start = 0;
+        for (int i = 0; i < queue.size(); i++) {
+            if (queue.get(i).getId() == currentItemId) {
+                start = i + 1;
+                break;
+            }
+        }
+        List<FeedMedia> upcoming = new ArrayList<>();
+        for (int i = start; i < queue.size() && i < start + NUM_ITEMS; i++) {
+            FeedMedia media = queue.get(i).getMedia();
+            if (media != null && !media.localFileAvailable() && media.getStreamUrl() != null
+                    && media.getStreamUrl().startsWith("http") && media.getItem() != null
+                    && media.getItem().getFeed() != null) {
+                upcoming.add(media);
+            }
+        }
+        return upcoming;
+    }
+}
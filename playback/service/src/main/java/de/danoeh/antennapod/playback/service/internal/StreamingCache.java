@@ -0,0 +1,142 @@
+package de.danoeh.antennapod.playback.service.internal;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.annotation.WorkerThread;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.database.StandaloneDatabaseProvider;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.DefaultHttpDataSource;
+import androidx.media3.datasource.TransferListener;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.SimpleCache;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.storage.database.DBReader;
+import de.danoeh.antennapod.storage.preferences.UserPreferences;
+
+/**
+ * Holds the cache of streamed media. Only one SimpleCache can use a folder at a time,
+ * so all players and the {@link QueuePrefetcher} share this instance. It is never released,
+ * and its contents are kept across app restarts. The maximum size is set by the user.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class StreamingCache {
+    private static final String TAG = "StreamingCache";
+    private static SimpleCache cache;
+    private static StreamingCacheEvictor evictor;
+    private static final AtomicLong hitBytes = new AtomicLong();
+    private static final AtomicLong missBytes = new AtomicLong();
+
+    private StreamingCache() {
+    }
+
+    @NonNull
+    public static synchronized SimpleCache getInstance(@NonNull Context context) {
+        if (cache == null) {
+            Context appContext = context.getApplicationContext();
+            evictor = new StreamingCacheEvictor(UserPreferences.getStreamingCacheSize());
+            cache = new SimpleCache(new File(appContext.getCacheDir(), "streaming"),
+                    evictor, new StandaloneDatabaseProvider(appContext));
+        } else {
+            evictor.setMaxBytes(UserPreferences.getStreamingCacheSize());
+        }
+        return cache;
+    }
+
+    /**
+     * Creates a data source factory for playback that reads from the cache and counts hits and misses.
+     */
+    @NonNull
+    public static DataSource.Factory createDataSourceFactory(@NonNull Context context,
+                                                             @NonNull DefaultHttpDataSource.Factory upstream) {
+        upstream.setTransferListener(new TransferListener() {
+            @Override
+            public void onTransferInitializing(@NonNull DataSource source, @NonNull DataSpec dataSpec,
+                                               boolean isNetwork) {
+            }
+
+            @Override
+            public void onTransferStart(@NonNull DataSource source, @NonNull DataSpec dataSpec, boolean isNetwork) {
+            }
+
+            @Override
+            public void onBytesTransferred(@NonNull DataSource source, @NonNull DataSpec dataSpec,
+                                           boolean isNetwork, int bytesTransferred) {
+                missBytes.addAndGet(bytesTransferred);
+            }
+
+            @Override
+            public void onTransferEnd(@NonNull DataSource source, @NonNull DataSpec dataSpec, boolean isNetwork) {
+            }
+        });
+        return new CacheDataSource.Factory()
+                .setCache(getInstance(context))
+                .setUpstreamDataSourceFactory(upstream)
+                .setEventListener(new CacheDataSource.EventListener() {
+                    @Override
+                    public void onCachedBytesRead(long cacheSizeBytes, long cachedBytesRead) {
+                        hitBytes.addAndGet(cachedBytesRead);
+                    }
+
+                    @Override
+                    public void onCacheIgnored(int reason) {
+                    }
+                });
+    }
+
+    /**
+     * Number of bytes that playback read from the cache since the app was started.
+     */
+    public static long getHitBytes() {
+        return hitBytes.get();
+    }
+
+    /**
+     * Number of bytes that playback had to download since the app was started.
+     */
+    public static long getMissBytes() {
+        return missBytes.get();
+    }
+
+    /**
+     * Sets the cache keys (the stream URLs) that should be evicted last.
+     */
+    public static synchronized void setPinnedKeys(@NonNull Context context, @NonNull Set<String> keys) {
+        getInstance(context);
+        evictor.setPinnedKeys(keys);
+    }
+
+    /**
+     * Looks up which of the cached episodes are played, so that they are evicted first.
+     */
+    @WorkerThread
+    public static void updatePlayedKeys(@NonNull Context context) {
+        SimpleCache simpleCache = getInstance(context);
+        List<FeedItem> items = DBReader.getFeedItemsByGuidsOrEpisodeUrls(
+                Collections.emptyList(), new ArrayList<>(simpleCache.getKeys()));
+        Set<String> playedKeys = new HashSet<>();
+        for (FeedItem item : items) {
+            if (item.isPlayed() && item.getMedia() != null) {
+                playedKeys.add(item.getMedia().getDownloadUrl());
+            }
+        }
+        synchronized (StreamingCache.class) {
+            evictor.setPlayedKeys(playedKeys);
+        }
+        Log.d(TAG, "Cached: " + simpleCache.getCacheSpace() + " bytes, " + playedKeys.size() + " played episodes. "
+                + "Hits: " + hitBytes.get() + " bytes, misses: " + missBytes.get() + " bytes");
+    }
+}
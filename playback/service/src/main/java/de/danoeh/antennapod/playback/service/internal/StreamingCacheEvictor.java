@@ -0,0 +1,128 @@
+package de.danoeh.antennapod.playback.service.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.core.util.Predicate;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.cache.Cache;
+import androidx.media3.datasource.cache.CacheEvictor;
+import androidx.media3.datasource.cache.CacheSpan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Evicts the least recently used spans, like LeastRecentlyUsedCacheEvictor.
+ * Spans of played episodes are evicted first. Spans of pinned keys are only evicted
+ * if removing all other spans does not free enough space.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class StreamingCacheEvictor implements CacheEvictor {
+    private volatile long maxBytes;
+    private final TreeSet<CacheSpan> leastRecentlyUsed = new TreeSet<>(StreamingCacheEvictor::compare);
+    private long currentSize = 0;
+    private volatile Set<String> pinnedKeys = Collections.emptySet();
+    private volatile Set<String> playedKeys = Collections.emptySet();
+
+    public StreamingCacheEvictor(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Replaces the set of cache keys that should be kept as long as possible.
+     */
+    public void setPinnedKeys(@NonNull Set<String> pinnedKeys) {
+        this.pinnedKeys = pinnedKeys;
+    }
+
+    /**
+     * Replaces the set of cache keys that belong to played episodes and should be evicted first.
+     */
+    public void setPlayedKeys(@NonNull Set<String> playedKeys) {
+        this.playedKeys = playedKeys;
+    }
+
+    /**
+     * Changes the maximum size. A smaller size is applied when the next span is added.
+     */
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public boolean requiresCacheSpanTouches() {
+        return true;
+    }
+
+    @Override
+    public void onCacheInitialized() {
+        // Nothing to do
+    }
+
+    @Override
+    public void onStartFile(@NonNull Cache cache, @NonNull String key, long position, long length) {
+        if (length != C.LENGTH_UNSET) {
+            evictCache(cache, length);
+        }
+    }
+
+    @Override
+    public void onSpanAdded(@NonNull Cache cache, @NonNull CacheSpan span) {
+        leastRecentlyUsed.add(span);
+        currentSize += span.length;
+        evictCache(cache, 0);
+    }
+
+    @Override
+    public void onSpanRemoved(@NonNull Cache cache, @NonNull CacheSpan span) {
+        leastRecentlyUsed.remove(span);
+        currentSize -= span.length;
+    }
+
+    @Override
+    public void onSpanTouched(@NonNull Cache cache, @NonNull CacheSpan oldSpan, @NonNull CacheSpan newSpan) {
+        onSpanRemoved(cache, oldSpan);
+        onSpanAdded(cache, newSpan);
+    }
+
+    private void evictCache(Cache cache, long requiredSpace) {
+        if (currentSize + requiredSpace <= maxBytes) {
+            return;
+        }
+        Set<String> pinned = pinnedKeys;
+        Set<String> played = playedKeys;
+        evictMatching(cache, requiredSpace, span -> played.contains(span.key) && !pinned.contains(span.key));
+        evictMatching(cache, requiredSpace, span -> !pinned.contains(span.key));
+        while (currentSize + requiredSpace > maxBytes && !leastRecentlyUsed.isEmpty()) {
+            cache.removeSpan(leastRecentlyUsed.first());
+        }
+    }
+
+    private void evictMatching(Cache cache, long requiredSpace, Predicate<CacheSpan> filter) {
+        long sizeAfterEviction = currentSize;
+        List<CacheSpan> toRemove = new ArrayList<>();
+        for (CacheSpan span : leastRecentlyUsed) {
+            if (sizeAfterEviction + requiredSpace <= maxBytes) {
+                break;
+            }
+            if (filter.test(span)) {
+                toRemove.add(span);
+                sizeAfterEviction -= span.length;
+            }
+        }
+        for (CacheSpan span : toRemove) {
+            cache.removeSpan(span);
+        }
+    }
+
+    private static int compare(CacheSpan lhs, CacheSpan rhs) {
+        if (lhs.lastTouchTimestamp == rhs.lastTouchTimestamp) {
+            return lhs.compareTo(rhs);
+        }
+        return lhs.lastTouchTimestamp < rhs.lastTouchTimestamp ? -1 : 1;
+    }
+}
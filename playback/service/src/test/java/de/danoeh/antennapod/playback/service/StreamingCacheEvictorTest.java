@@ -0,0 +1,88 @@
+package de.danoeh.antennapod.playback.service;
+
+import androidx.media3.datasource.cache.Cache;
+import androidx.media3.datasource.cache.CacheSpan;
+import de.danoeh.antennapod.playback.service.internal.StreamingCacheEvictor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class StreamingCacheEvictorTest {
+
+    private StreamingCacheEvictor evictor;
+    private Cache cache;
+    private List<String> removedKeys;
+
+    @Before
+    public void setUp() {
+        evictor = new StreamingCacheEvictor(300);
+        cache = mock(Cache.class);
+        removedKeys = new ArrayList<>();
+        doAnswer(invocation -> {
+            CacheSpan span = invocation.getArgument(0);
+            removedKeys.add(span.key);
+            evictor.onSpanRemoved(cache, span);
+            return null;
+        }).when(cache).removeSpan(any());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedFirst() {
+        evictor.onSpanAdded(cache, span("a", 1));
+        evictor.onSpanAdded(cache, span("b", 2));
+        evictor.onSpanAdded(cache, span("c", 3));
+        evictor.onSpanAdded(cache, span("d", 4));
+        assertEquals(Collections.singletonList("a"), removedKeys);
+    }
+
+    @Test
+    public void evictsPlayedBeforeUnplayed() {
+        evictor.setPlayedKeys(Collections.singleton("b"));
+        evictor.onSpanAdded(cache, span("a", 1));
+        evictor.onSpanAdded(cache, span("b", 2));
+        evictor.onSpanAdded(cache, span("c", 3));
+        evictor.onSpanAdded(cache, span("d", 4));
+        assertEquals(Collections.singletonList("b"), removedKeys);
+    }
+
+    @Test
+    public void evictsPinnedLast() {
+        evictor.setPinnedKeys(Collections.singleton("a"));
+        evictor.setPlayedKeys(Collections.singleton("a"));
+        evictor.onSpanAdded(cache, span("a", 1));
+        evictor.onSpanAdded(cache, span("b", 2));
+        evictor.onSpanAdded(cache, span("c", 3));
+        evictor.onSpanAdded(cache, span("d", 4));
+        assertEquals(Collections.singletonList("b"), removedKeys);
+    }
+
+    @Test
+    public void evictsPinnedIfNothingElseIsLeft() {
+        evictor.setPinnedKeys(Collections.singleton("a"));
+        evictor.onSpanAdded(cache, span("a", 1));
+        evictor.onStartFile(cache, "b", 0, 250);
+        assertEquals(Collections.singletonList("a"), removedKeys);
+    }
+
+    @Test
+    public void appliesSmallerMaxSize() {
+        evictor.onSpanAdded(cache, span("a", 1));
+        evictor.onSpanAdded(cache, span("b", 2));
+        evictor.setMaxBytes(150);
+        evictor.onSpanAdded(cache, span("c", 3));
+        assertEquals(Arrays.asList("a", "b"), removedKeys);
+    }
+
+    private static CacheSpan span(String key, long lastTouchTimestamp) {
+        return new CacheSpan(key, 0, 100, lastTouchTimestamp, null);
+    }
+}
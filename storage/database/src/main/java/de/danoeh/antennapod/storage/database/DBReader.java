@@ -8,6 +8,7 @@ import androidx.annotation.Nullable;
 import androidx.collection.ArrayMap;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -94,6 +95,19 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Checks if there is a subscribed feed that should be kept updated but was never refreshed.
+     */
+    public static boolean hasFeedsNeverRefreshed() {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try {
+            return adapter.hasFeedsNeverRefreshed();
+        } finally {
+            adapter.close();
+        }
+    }
+
     /**
      * Loads additional data in to the feed items from other database queries
      *
@@ -252,6 +266,62 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Loads the episodes that automatic download may download, newest first.
+     * See {@link PodDBAdapter#getAutoDownloadCandidatesCursor(boolean, boolean, int)}.
+     *
+     * @param autoDownloadGlobal If automatic download is enabled for feeds that use the global setting
+     * @param includeQueue       If undownloaded episodes in the queue should be included
+     * @param limit              The maximum number of episodes to load
+     */
+    @NonNull
+    public static List<FeedItem> getAutoDownloadCandidates(boolean autoDownloadGlobal, boolean includeQueue,
+                                                           int limit) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (FeedItemCursor cursor = new FeedItemCursor(
+                adapter.getAutoDownloadCandidatesCursor(autoDownloadGlobal, includeQueue, limit))) {
+            List<FeedItem> items = extractItemlistFromCursor(cursor);
+            loadAdditionalFeedItemListData(items);
+            return items;
+        } finally {
+            adapter.close();
+        }
+    }
+
+    /**
+     * Loads the downloaded episodes that episode cleanup may delete, in the order in which they should be deleted.
+     * See {@link PodDBAdapter#getCleanupCandidatesCursor(FeedItemFilter, long, int)}.
+     *
+     * @param limit The maximum number of episodes to load, usually the number of episodes to delete
+     */
+    @NonNull
+    public static List<FeedItem> getCleanupCandidates(FeedItemFilter filter, long playedBefore, int limit) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (FeedItemCursor cursor = new FeedItemCursor(
+                adapter.getCleanupCandidatesCursor(filter, playedBefore, limit))) {
+            List<FeedItem> items = extractItemlistFromCursor(cursor);
+            loadAdditionalFeedItemListData(items);
+            return items;
+        } finally {
+            adapter.close();
+        }
+    }
+
+    public static int getCleanupCandidatesCount(FeedItemFilter filter, long playedBefore) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getCleanupCandidatesCountCursor(filter, playedBefore)) {
+            if (cursor.moveToFirst()) {
+                return cursor.getInt(0);
+            }
+            return 0;
+        } finally {
+            adapter.close();
+        }
+    }
+
     /**
      *
      * @param offset The first episode that should be loaded.
@@ -637,6 +707,52 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Loads the items matching any of the given guids or episode URLs, see
+     * {@link #getFeedItemByGuidOrEpisodeUrl(String, String)}. The lookups are done in chunks of IN queries,
+     * so this should be preferred when looking up many items at once.
+     * Additional data of the items (see {@link #loadAdditionalFeedItemListData(List)}) is not loaded.
+     *
+     * @return Each matching item once, in no particular order.
+     */
+    @NonNull
+    public static List<FeedItem> getFeedItemsByGuidsOrEpisodeUrls(final Collection<String> guids,
+                                                                  final Collection<String> episodeUrls) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try {
+            Map<Long, FeedItem> items = new HashMap<>();
+            List<String> guidList = new ArrayList<>(guids);
+            for (int i = 0; i < guidList.size(); i += PodDBAdapter.IN_OPERATOR_MAXIMUM) {
+                List<String> chunk = guidList.subList(i,
+                        Math.min(guidList.size(), i + PodDBAdapter.IN_OPERATOR_MAXIMUM));
+                try (FeedItemCursor cursor = new FeedItemCursor(adapter.getFeedItemCursorByGuids(chunk))) {
+                    extractItemsIntoMap(cursor, items);
+                }
+            }
+            List<String> urlList = new ArrayList<>(episodeUrls);
+            for (int i = 0; i < urlList.size(); i += PodDBAdapter.IN_OPERATOR_MAXIMUM) {
+                List<String> chunk = urlList.subList(i,
+                        Math.min(urlList.size(), i + PodDBAdapter.IN_OPERATOR_MAXIMUM));
+                try (FeedItemCursor cursor = new FeedItemCursor(adapter.getFeedItemCursorByEpisodeUrls(chunk))) {
+                    extractItemsIntoMap(cursor, items);
+                }
+            }
+            return new ArrayList<>(items.values());
+        } finally {
+            adapter.close();
+        }
+    }
+
+    private static void extractItemsIntoMap(FeedItemCursor cursor, Map<Long, FeedItem> items) {
+        while (cursor.moveToNext()) {
+            FeedItem item = cursor.getFeedItem();
+            if (!items.containsKey(item.getId())) {
+                items.put(item.getId(), item);
+            }
+        }
+    }
+
     /**
      * Loads shownotes information about a FeedItem.
      *
@@ -648,9 +764,7 @@ public final class DBReader {
         adapter.open();
         try (Cursor cursor = adapter.getDescriptionOfItem(item)) {
             if (cursor.moveToFirst()) {
-                int indexDescription = cursor.getColumnIndex(PodDBAdapter.KEY_DESCRIPTION);
-                String description = cursor.getString(indexDescription);
-                item.setDescriptionIfLonger(description);
+                item.setDescriptionIfLonger(DescriptionCodec.decode(cursor.getBlob(0)));
             }
         } finally {
             adapter.close();
@@ -777,7 +891,8 @@ public final class DBReader {
     }
 
     /**
-     * Searches the DB for statistics.
+     * Searches the DB for statistics. The played time is read from the daily aggregates,
+     * so the time filter is applied to whole days.
      *
      * @return The list of statistics objects
      */
@@ -788,6 +903,12 @@ public final class DBReader {
         adapter.open();
 
         StatisticsResult result = new StatisticsResult();
+        Map<Long, Long> playedTimePerFeed = new HashMap<>();
+        try (Cursor cursor = adapter.getPlayedTimePerFeedCursor(timeFilterFrom, timeFilterTo)) {
+            while (cursor.moveToNext()) {
+                playedTimePerFeed.put(cursor.getLong(0), cursor.getLong(1));
+            }
+        }
         long sixMonthsAgo = System.currentTimeMillis() - (long) (1000L * 3600 * 24 * 30.44 * 6);
         try (FeedCursor cursor = new FeedCursor(adapter.getFeedStatisticsCursor(
                 includeMarkedAsPlayed, timeFilterFrom, timeFilterTo, sixMonthsAgo))) {
@@ -795,7 +916,7 @@ public final class DBReader {
             int indexNumEpisodes = cursor.getColumnIndexOrThrow("num_episodes");
             int indexEpisodesStarted = cursor.getColumnIndexOrThrow("episodes_started");
             int indexTotalTime = cursor.getColumnIndexOrThrow("total_time");
-            int indexPlayedTime = cursor.getColumnIndexOrThrow("played_time");
+            int indexMarkedPlayedTime = cursor.getColumnIndexOrThrow("marked_played_time");
             int indexNumDownloaded = cursor.getColumnIndexOrThrow("num_downloaded");
             int indexDownloadSize = cursor.getColumnIndexOrThrow("download_size");
             int indexNumRecentUnplayed = cursor.getColumnIndexOrThrow("num_recent_unplayed");
@@ -803,7 +924,9 @@ public final class DBReader {
             while (cursor.moveToNext()) {
                 Feed feed = cursor.getFeed();
 
-                long feedPlayedTime = cursor.getLong(indexPlayedTime) / 1000;
+                Long playedTime = playedTimePerFeed.get(feed.getId());
+                long feedPlayedTime = ((playedTime != null ? playedTime : 0)
+                        + cursor.getLong(indexMarkedPlayedTime)) / 1000;
                 long feedTotalTime = cursor.getLong(indexTotalTime) / 1000;
                 long episodes = cursor.getLong(indexNumEpisodes);
                 long episodesStarted = cursor.getLong(indexEpisodesStarted);
@@ -824,15 +947,33 @@ public final class DBReader {
         return result;
     }
 
+    /**
+     * Median time between the release of an episode and playing it, in hours precision.
+     * Only looks at episodes that were released and played in the given time.
+     *
+     * @return The time in milliseconds, or 0 if no such episode was played
+     */
     public static long getTimeBetweenReleaseAndPlayback(long timeFilterFrom, long timeFilterTo) {
+        List<long[]> histogram = new ArrayList<>();
+        long numEpisodes = 0;
         PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
-        try (Cursor cursor = adapter.getTimeBetweenReleaseAndPlayback(timeFilterFrom, timeFilterTo)) {
-            cursor.moveToFirst();
-            long result = cursor.getLong(0);
-            adapter.close();
-            return result;
+        try (Cursor cursor = adapter.getReleasePlayDelaysCursor(timeFilterFrom, timeFilterTo)) {
+            while (cursor.moveToNext()) {
+                histogram.add(new long[]{cursor.getLong(0), cursor.getLong(1)});
+                numEpisodes += cursor.getLong(1);
+            }
+        }
+        adapter.close();
+
+        long seen = 0;
+        for (long[] bucket : histogram) {
+            seen += bucket[1];
+            if (seen > numEpisodes / 2) {
+                return bucket[0] * PodDBAdapter.MILLIS_PER_HOUR;
+            }
         }
+        return 0;
     }
 
     /**
@@ -997,6 +1138,36 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Searches the indexed transcripts. Returns one hit per episode, the earliest matching segment.
+     */
+    @NonNull
+    public static List<TranscriptSearchHit> searchTranscripts(final long feedId, final String query, int state) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        Cursor cursor = adapter.searchTranscripts(feedId, query, state);
+        if (cursor == null) {
+            adapter.close();
+            return Collections.emptyList();
+        }
+        try (FeedItemCursor searchResult = new FeedItemCursor(cursor)) {
+            int indexStart = searchResult.getColumnIndexOrThrow(PodDBAdapter.KEY_START);
+            int indexWords = searchResult.getColumnIndexOrThrow(PodDBAdapter.KEY_WORDS);
+            List<TranscriptSearchHit> hits = new ArrayList<>(searchResult.getCount());
+            List<FeedItem> items = new ArrayList<>(searchResult.getCount());
+            while (searchResult.moveToNext()) {
+                FeedItem item = searchResult.getFeedItem();
+                items.add(item);
+                hits.add(new TranscriptSearchHit(item,
+                        searchResult.getLong(indexStart), searchResult.getString(indexWords)));
+            }
+            loadAdditionalFeedItemListData(items);
+            return hits;
+        } finally {
+            adapter.close();
+        }
+    }
+
     public static List<Feed> searchFeeds(final String query, int state) {
         PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
@@ -355,6 +355,117 @@ class DBUpgrader {
             db.execSQL("DELETE FROM " + PodDBAdapter.TABLE_NAME_FAVORITES + " WHERE " + PodDBAdapter.KEY_FEEDITEM
                     + " NOT IN (SELECT " + PodDBAdapter.KEY_ID + " FROM " + PodDBAdapter.TABLE_NAME_FEED_ITEMS + ")");
         }
+        if (oldVersion < 3120000) {
+            db.execSQL(PodDBAdapter.CREATE_TABLE_TRANSCRIPT_INDEX);
+        }
+        if (oldVersion < 3130000) {
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDITEMS_ITEM_IDENTIFIER);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDMEDIA_DOWNLOAD_URL);
+        }
+        if (oldVersion < 3140000) {
+            db.execSQL(PodDBAdapter.CREATE_TABLE_EPISODE_ACTION_QUEUE);
+        }
+        if (oldVersion < 3150000) {
+            db.execSQL(PodDBAdapter.CREATE_TABLE_FEED_ITEM_DESCRIPTIONS);
+            moveDescriptionsOutOfItems(db);
+        }
+        if (oldVersion < 3160000) {
+            db.execSQL(PodDBAdapter.CREATE_TABLE_DAILY_PLAYED_TIME);
+            db.execSQL(PodDBAdapter.CREATE_TABLE_RELEASE_PLAY_DELAYS);
+            aggregateListeningStatistics(db);
+        }
+        if (oldVersion < 3180000) {
+            // Version 3170000 stored a copy of the text in the full-text table
+            db.execSQL("DROP TABLE IF EXISTS " + PodDBAdapter.TABLE_NAME_FEED_ITEM_SEARCH_TEXT);
+            db.execSQL(PodDBAdapter.CREATE_TABLE_FEED_ITEM_SEARCH_TEXT);
+            indexDescriptions(db);
+        }
+    }
+
+    /**
+     * Fills the listening statistics from the existing media. Before, only the total played duration of each media
+     * was known, so it is counted at the day the media was last played.
+     */
+    private static void aggregateListeningStatistics(final SQLiteDatabase db) {
+        final String lastPlayed = PodDBAdapter.TABLE_NAME_FEED_MEDIA + "."
+                + PodDBAdapter.KEY_LAST_PLAYED_TIME_STATISTICS;
+        final String pubDate = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_PUBDATE;
+        final String feed = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_FEED;
+        final String from = " FROM " + PodDBAdapter.TABLE_NAME_FEED_ITEMS
+                + " INNER JOIN " + PodDBAdapter.TABLE_NAME_FEED_MEDIA
+                + " ON " + PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_ID
+                + "=" + PodDBAdapter.TABLE_NAME_FEED_MEDIA + "." + PodDBAdapter.KEY_FEEDITEM
+                + " WHERE " + lastPlayed + " > 0";
+        db.execSQL("INSERT INTO " + PodDBAdapter.TABLE_NAME_DAILY_PLAYED_TIME
+                + " (" + PodDBAdapter.KEY_FEED + "," + PodDBAdapter.KEY_DAY + ","
+                + PodDBAdapter.KEY_PLAYED_DURATION + ")"
+                + " SELECT " + feed + ", " + lastPlayed + "/" + PodDBAdapter.MILLIS_PER_DAY + " AS d, "
+                + "SUM(" + PodDBAdapter.TABLE_NAME_FEED_MEDIA + "." + PodDBAdapter.KEY_PLAYED_DURATION + ")"
+                + from + " AND " + PodDBAdapter.TABLE_NAME_FEED_MEDIA + "." + PodDBAdapter.KEY_PLAYED_DURATION + " > 0"
+                + " GROUP BY " + feed + ", d");
+        db.execSQL("INSERT INTO " + PodDBAdapter.TABLE_NAME_RELEASE_PLAY_DELAYS
+                + " (" + PodDBAdapter.KEY_FEED + "," + PodDBAdapter.KEY_DAY + "," + PodDBAdapter.KEY_RELEASE_DAY + ","
+                + PodDBAdapter.KEY_DELAY_HOURS + "," + PodDBAdapter.KEY_NUM_EPISODES + ")"
+                + " SELECT " + feed + ", " + lastPlayed + "/" + PodDBAdapter.MILLIS_PER_DAY + " AS d, "
+                + pubDate + "/" + PodDBAdapter.MILLIS_PER_DAY + " AS r, "
+                + "(" + lastPlayed + "-" + pubDate + ")/" + PodDBAdapter.MILLIS_PER_HOUR + " AS h, COUNT(*)"
+                + from
+                + " GROUP BY " + feed + ", d, r, h");
+    }
+
+    /**
+     * Adds the existing descriptions to the full-text index. They are read in small batches,
+     * because a cursor window cannot hold many long descriptions.
+     */
+    private static void indexDescriptions(final SQLiteDatabase db) {
+        long lastId = 0;
+        while (true) {
+            try (Cursor cursor = db.rawQuery("SELECT " + PodDBAdapter.KEY_FEEDITEM + ", "
+                    + PodDBAdapter.KEY_CHECKSUM + ", " + PodDBAdapter.KEY_DESCRIPTION
+                    + " FROM " + PodDBAdapter.TABLE_NAME_FEED_ITEM_DESCRIPTIONS
+                    + " WHERE " + PodDBAdapter.KEY_FEEDITEM + " > " + lastId
+                    + " ORDER BY " + PodDBAdapter.KEY_FEEDITEM + " LIMIT 100", null)) {
+                if (!cursor.moveToFirst()) {
+                    break;
+                }
+                do {
+                    lastId = cursor.getLong(0);
+                    String description = DescriptionCodec.decode(cursor.getBlob(2));
+                    if (description != null) {
+                        PodDBAdapter.setSearchText(db, lastId, cursor.getLong(1), description);
+                    }
+                } while (cursor.moveToNext());
+            }
+        }
+    }
+
+    /**
+     * Compresses the descriptions into their own table. They are read in small batches,
+     * because a cursor window cannot hold many long descriptions.
+     */
+    private static void moveDescriptionsOutOfItems(final SQLiteDatabase db) {
+        long lastId = 0;
+        ContentValues values = new ContentValues();
+        while (true) {
+            try (Cursor cursor = db.rawQuery("SELECT " + PodDBAdapter.KEY_ID + ", " + PodDBAdapter.KEY_DESCRIPTION
+                    + " FROM " + PodDBAdapter.TABLE_NAME_FEED_ITEMS
+                    + " WHERE " + PodDBAdapter.KEY_DESCRIPTION + " IS NOT NULL AND " + PodDBAdapter.KEY_ID + " > "
+                    + lastId + " ORDER BY " + PodDBAdapter.KEY_ID + " LIMIT 100", null)) {
+                if (!cursor.moveToFirst()) {
+                    break;
+                }
+                do {
+                    lastId = cursor.getLong(0);
+                    String description = cursor.getString(1);
+                    values.put(PodDBAdapter.KEY_FEEDITEM, lastId);
+                    values.put(PodDBAdapter.KEY_CHECKSUM, DescriptionCodec.checksum(description));
+                    values.put(PodDBAdapter.KEY_DESCRIPTION, DescriptionCodec.encode(description));
+                    db.insert(PodDBAdapter.TABLE_NAME_FEED_ITEM_DESCRIPTIONS, null, values);
+                    values.clear();
+                } while (cursor.moveToNext());
+            }
+        }
+        db.execSQL("UPDATE " + PodDBAdapter.TABLE_NAME_FEED_ITEMS + " SET " + PodDBAdapter.KEY_DESCRIPTION + " = NULL");
     }
 
 }
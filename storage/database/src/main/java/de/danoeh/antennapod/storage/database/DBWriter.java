@@ -50,6 +50,7 @@ import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.model.feed.FeedPreferences;
 import de.danoeh.antennapod.model.feed.SortOrder;
+import de.danoeh.antennapod.model.feed.Transcript;
 import de.danoeh.antennapod.model.playback.Playable;
 import de.danoeh.antennapod.net.sync.serviceinterface.EpisodeAction;
 
@@ -147,6 +148,7 @@ public class DBWriter {
             PodDBAdapter adapter = PodDBAdapter.getInstance();
             adapter.open();
             adapter.setMedia(media);
+            adapter.removeTranscriptIndex(media.getId());
             adapter.close();
         }
 
@@ -192,7 +194,9 @@ public class DBWriter {
             adapter.removeFeed(feed);
             adapter.close();
 
-            if (!feed.isLocalFeed() && feed.getState() != Feed.STATE_NOT_SUBSCRIBED) {
+            if (feed.isLocalFeed()) {
+                FeedUpdateManager.getInstance().deleteLocalFeedIndex(context, feed.getId());
+            } else if (feed.getState() != Feed.STATE_NOT_SUBSCRIBED) {
                 SynchronizationQueue.getInstance().enqueueFeedRemoved(feed.getDownloadUrl());
             }
             EventBus.getDefault().post(new FeedListUpdateEvent(feed));
@@ -763,6 +767,20 @@ public class DBWriter {
         });
     }
 
+    /**
+     * Saves only the played state and playback position of the given items.
+     * Cheaper than {@link #setItemList(List)} when nothing else has changed.
+     */
+    public static Future<?> setItemPlaybackStates(final List<FeedItem> items) {
+        return runOnDbThread(() -> {
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setFeedItemPlaybackStates(items);
+            adapter.close();
+            EventBus.getDefault().post(FeedItemEvent.updated(items));
+        });
+    }
+
     /**
      * Saves a FeedMedia object in the database. This method will save all attributes of the FeedMedia object. The
      * contents of FeedComponent-attributes (e.g. the FeedMedia's 'item'-attribute) will not be saved.
@@ -792,6 +810,21 @@ public class DBWriter {
         });
     }
 
+    /**
+     * Replaces the indexed transcript segments of a FeedMedia object, so that they can be found when searching.
+     *
+     * @param media      The FeedMedia object the transcript belongs to.
+     * @param transcript The parsed transcript.
+     */
+    public static Future<?> setTranscriptIndex(final FeedMedia media, final Transcript transcript) {
+        return runOnDbThread(() -> {
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setTranscriptIndex(media.getId(), transcript);
+            adapter.close();
+        });
+    }
+
     /**
      * Saves a FeedItem object in the database. This method will save all attributes of the FeedItem object including
      * the content of FeedComponent-attributes.
@@ -0,0 +1,136 @@
+package de.danoeh.antennapod.storage.database;
+
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes the show notes of episodes for storing them in the database.
+ * Show notes are mostly HTML with the same tags and phrases in every episode,
+ * so they are compressed with Deflate and a preset dictionary of such phrases.
+ * The first byte of the encoded data is the format, so the dictionary can be replaced
+ * by adding a new format. Existing formats must never change.
+ */
+final class DescriptionCodec {
+    private static final byte FORMAT_PLAIN = 0;
+    private static final byte FORMAT_DEFLATE_V1 = 1;
+    /**
+     * Compressing shorter texts does not save enough space to be worth the time.
+     */
+    private static final int MIN_COMPRESSED_LENGTH = 256;
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Phrases that are common in show notes. Deflate prefers matches that are close,
+     * so the most common phrases are at the end.
+     */
+    private static final byte[] DICTIONARY_V1 = (
+            "Privacy Policy Terms of Service Learn more about your ad choices. Visit megaphone.fm/adchoices "
+            + "Hosted on Acast. See acast.com/privacy for more information. "
+            + "See omnystudio.com/listener for privacy information. "
+            + "Support the show Sponsored by Become a supporter of this podcast: "
+            + "https://www.patreon.com/ https://www.buymeacoffee.com/ "
+            + "https://twitter.com/ https://www.instagram.com/ https://www.facebook.com/ "
+            + "https://www.youtube.com/watch?v= https://open.spotify.com/ https://podcasts.apple.com/ "
+            + "Subscribe Follow us on Twitter Instagram Facebook YouTube Spotify Apple Podcasts Newsletter "
+            + "Chapters Timestamps Transcript Show notes Guest Host Links mentioned in this episode "
+            + "Leave us a review rate and review Thanks for listening! In this episode, we talk about "
+            + "the podcast episode <hr> <h1> </h1> <h2> </h2> <h3> </h3> <strong> </strong> <b> </b> "
+            + "<em> </em> <i> </i> <ol> </ol> <br /> <br/> <br> &amp; &nbsp; &quot; "
+            + "<ul> <li> </li> </ul> <p><a href=\"https:// target=\"_blank\" rel=\"noopener noreferrer\"> "
+            + "</a> <a href=\"https:// www. .com/ .org/ .html <p> </p> <p>"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private DescriptionCodec() {
+    }
+
+    static long checksum(String description) {
+        CRC32 crc = new CRC32();
+        crc.update(description.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    static byte[] encode(String description) {
+        byte[] text = description.getBytes(StandardCharsets.UTF_8);
+        if (text.length >= MIN_COMPRESSED_LENGTH) {
+            byte[] compressed = deflate(text);
+            if (compressed.length < text.length) {
+                return withFormat(FORMAT_DEFLATE_V1, compressed, compressed.length);
+            }
+        }
+        return withFormat(FORMAT_PLAIN, text, text.length);
+    }
+
+    /**
+     * @return The description, or null if the data cannot be decoded
+     */
+    @Nullable
+    static String decode(@Nullable byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        switch (data[0]) {
+            case FORMAT_PLAIN:
+                return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+            case FORMAT_DEFLATE_V1:
+                return inflate(data, DICTIONARY_V1);
+            default:
+                return null;
+        }
+    }
+
+    private static byte[] deflate(byte[] text) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(text);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(text.length / 3);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Nullable
+    private static String inflate(byte[] data, byte[] dictionary) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput()) {
+                        return null; // Truncated
+                    }
+                }
+                out.write(buffer, 0, length);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] withFormat(byte format, byte[] data, int length) {
+        byte[] result = new byte[length + 1];
+        result[0] = format;
+        System.arraycopy(data, 0, result, 1, length);
+        return result;
+    }
+}
@@ -18,8 +18,10 @@ import org.greenrobot.eventbus.EventBus;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -267,6 +269,37 @@ public abstract class FeedDatabaseWriter {
         return resultFeed;
     }
 
+    /**
+     * Adds feeds that are not in the database yet, all in one transaction. Unlike {@link #updateFeed}, this does not
+     * look up every feed on its own and does not merge episodes, so it is meant for adding many feeds without episodes
+     * at once, for example from an OPML file. The feeds get their episodes when they are refreshed afterwards.
+     *
+     * @param context Used for accessing the DB.
+     * @param newFeeds The feeds to add. Feeds with a download URL that is already in the database or that is listed
+     *                 more than once are skipped.
+     * @return The feeds that were actually added.
+     */
+    public static synchronized List<Feed> addNewFeeds(Context context, List<Feed> newFeeds) {
+        Set<String> knownUrls = new HashSet<>(DBReader.getFeedListDownloadUrls());
+        List<Feed> feedsToAdd = new ArrayList<>();
+        for (Feed feed : newFeeds) {
+            if (feed.getDownloadUrl() != null && knownUrls.add(feed.getDownloadUrl())) {
+                feedsToAdd.add(feed);
+            }
+        }
+        Log.d(TAG, "Adding " + feedsToAdd.size() + " of " + newFeeds.size() + " feeds");
+        if (feedsToAdd.isEmpty()) {
+            return feedsToAdd;
+        }
+        try {
+            DBWriter.addNewFeed(context, feedsToAdd.toArray(new Feed[0])).get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        EventBus.getDefault().post(new FeedListUpdateEvent(feedsToAdd));
+        return feedsToAdd;
+    }
+
     private static String duplicateEpisodeDetails(FeedItem item) {
         return "Title: " + item.getTitle()
                 + "\nID: " + item.getItemIdentifier()
@@ -1,10 +1,11 @@
 package de.danoeh.antennapod.storage.database;
 
+import androidx.annotation.Nullable;
 import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 
-import java.text.DateFormat;
-import java.util.Locale;
+import java.util.Date;
+import java.util.TimeZone;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -13,6 +14,8 @@ import org.apache.commons.lang3.StringUtils;
  * even if their feed explicitly says that the episodes are different.
  */
 public class FeedItemDuplicateGuesser {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
     public static boolean seemDuplicates(FeedItem item1, FeedItem item2) {
         if (sameAndNotEmpty(item1.getItemIdentifier(), item2.getItemIdentifier())) {
             return true;
@@ -31,6 +34,21 @@ public class FeedItemDuplicateGuesser {
                 && mimeTypeLooksSimilar(media1, media2);
     }
 
+    /**
+     * Items that seem to be duplicates because of their title and publication date have the same fingerprint,
+     * so candidates can be found with a hash lookup. Their duration and media type still need to be compared.
+     *
+     * @return The fingerprint, or null if the item can only be a duplicate because of its ID or media URL
+     */
+    @Nullable
+    public static String fingerprint(FeedItem item) {
+        String title = canonicalizeTitle(item.getTitle());
+        if (item.getMedia() == null || item.getPubDate() == null || title.isEmpty()) {
+            return null;
+        }
+        return localDay(item.getPubDate()) + "|" + title;
+    }
+
     public static boolean sameAndNotEmpty(String string1, String string2) {
         if (StringUtils.isEmpty(string1) || StringUtils.isEmpty(string2)) {
             return false;
@@ -42,17 +60,19 @@ public class FeedItemDuplicateGuesser {
         if (item1.getPubDate() == null || item2.getPubDate() == null) {
             return false;
         }
-        DateFormat dateFormat = DateFormat.getDateInstance(DateFormat.SHORT, Locale.US); // MM/DD/YY
-        String dateOriginal = dateFormat.format(item2.getPubDate());
-        String dateNew = dateFormat.format(item1.getPubDate());
-        return StringUtils.equals(dateOriginal, dateNew); // Same date; time is ignored.
+        return localDay(item1.getPubDate()) == localDay(item2.getPubDate()); // Same date; time is ignored.
+    }
+
+    private static long localDay(Date date) {
+        long localTime = date.getTime() + TimeZone.getDefault().getOffset(date.getTime());
+        return localTime >= 0 ? localTime / DAY_MILLIS : (localTime + 1) / DAY_MILLIS - 1;
     }
 
-    private static boolean durationsLookSimilar(FeedMedia media1, FeedMedia media2) {
+    static boolean durationsLookSimilar(FeedMedia media1, FeedMedia media2) {
         return Math.abs(media1.getDuration() - media2.getDuration()) < 10 * 60L * 1000L;
     }
 
-    private static boolean mimeTypeLooksSimilar(FeedMedia media1, FeedMedia media2) {
+    static boolean mimeTypeLooksSimilar(FeedMedia media1, FeedMedia media2) {
         String mimeType1 = media1.getMimeType();
         String mimeType2 = media2.getMimeType();
         if (mimeType1 == null || mimeType2 == null) {
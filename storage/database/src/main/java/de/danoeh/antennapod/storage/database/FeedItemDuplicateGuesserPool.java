@@ -3,12 +3,17 @@ package de.danoeh.antennapod.storage.database;
 import de.danoeh.antennapod.model.feed.FeedItem;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Finds duplicates of an item with hash lookups instead of comparing it to every item.
+ * See {@link FeedItemDuplicateGuesser#fingerprint(FeedItem)}.
+ */
 public class FeedItemDuplicateGuesserPool {
-    private final Map<String, List<FeedItem>> normalizedTitles = new HashMap<>();
+    private final Map<String, List<FeedItem>> fingerprints = new HashMap<>();
     private final Map<String, FeedItem> downloadUrls = new HashMap<>();
     private final Map<String, FeedItem> identifiers = new HashMap<>();
 
@@ -19,11 +24,15 @@ public class FeedItemDuplicateGuesserPool {
     }
 
     public void add(FeedItem item) {
-        String normalizedTitle = FeedItemDuplicateGuesser.canonicalizeTitle(item.getTitle());
-        if (!normalizedTitles.containsKey(normalizedTitle)) {
-            normalizedTitles.put(normalizedTitle, new java.util.ArrayList<>());
+        String fingerprint = FeedItemDuplicateGuesser.fingerprint(item);
+        if (fingerprint != null) {
+            List<FeedItem> items = fingerprints.get(fingerprint);
+            if (items == null) {
+                items = new ArrayList<>(1);
+                fingerprints.put(fingerprint, items);
+            }
+            items.add(item);
         }
-        normalizedTitles.get(normalizedTitle).add(item);
         if (item.getMedia() != null && !StringUtils.isEmpty(item.getMedia().getStreamUrl())
                 && !downloadUrls.containsKey(item.getMedia().getStreamUrl())) {
             downloadUrls.put(item.getMedia().getStreamUrl(), item);
@@ -38,13 +47,25 @@ public class FeedItemDuplicateGuesserPool {
                 && downloadUrls.containsKey(searchItem.getMedia().getStreamUrl())) {
             return downloadUrls.get(searchItem.getMedia().getStreamUrl());
         }
-        String normalizedTitle = FeedItemDuplicateGuesser.canonicalizeTitle(searchItem.getTitle());
-        List<FeedItem> candidates = normalizedTitles.get(normalizedTitle);
+        if (!StringUtils.isEmpty(searchItem.getItemIdentifier())) {
+            FeedItem item = identifiers.get(searchItem.getIdentifyingValue());
+            if (item != null && FeedItemDuplicateGuesser.sameAndNotEmpty(
+                    FeedItemDuplicateGuesser.canonicalizeTitle(item.getTitle()),
+                    FeedItemDuplicateGuesser.canonicalizeTitle(searchItem.getTitle()))) {
+                return item;
+            }
+        }
+        String fingerprint = FeedItemDuplicateGuesser.fingerprint(searchItem);
+        if (fingerprint == null) {
+            return null;
+        }
+        List<FeedItem> candidates = fingerprints.get(fingerprint);
         if (candidates == null) {
             return null;
         }
         for (FeedItem item : candidates) {
-            if (FeedItemDuplicateGuesser.seemDuplicates(item, searchItem)) {
+            if (FeedItemDuplicateGuesser.durationsLookSimilar(item.getMedia(), searchItem.getMedia())
+                    && FeedItemDuplicateGuesser.mimeTypeLooksSimilar(item.getMedia(), searchItem.getMedia())) {
                 return item;
             }
         }
@@ -10,6 +10,7 @@ import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteDatabase.CursorFactory;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.os.Build;
 import android.os.Looper;
 import android.text.TextUtils;
@@ -24,6 +25,8 @@ import de.danoeh.antennapod.model.feed.FeedFunding;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -37,6 +40,7 @@ import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.model.feed.FeedPreferences;
+import de.danoeh.antennapod.model.feed.Transcript;
 import de.danoeh.antennapod.model.download.DownloadResult;
 import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.storage.database.mapper.FeedItemFilterQuery;
@@ -54,12 +58,12 @@ public class PodDBAdapter {
 
     private static final String TAG = "PodDBAdapter";
     public static final String DATABASE_NAME = "Antennapod.db";
-    public static final int VERSION = 3110000;
+    public static final int VERSION = 3180000;
 
     /**
      * Maximum number of arguments for IN-operator.
      */
-    private static final int IN_OPERATOR_MAXIMUM = 800;
+    static final int IN_OPERATOR_MAXIMUM = 800;
 
     // Key-constants
     public static final String KEY_ID = "id";
@@ -127,6 +131,13 @@ public class PodDBAdapter {
     public static final String KEY_STATE = "state";
     public static final String KEY_PODCASTINDEX_TRANSCRIPT_URL = "podcastindex_transcript_url";
     public static final String KEY_PODCASTINDEX_TRANSCRIPT_TYPE = "podcastindex_transcript_type";
+    public static final String KEY_WORDS = "words";
+    public static final String KEY_EPISODE_ACTION = "episode_action";
+    public static final String KEY_CHECKSUM = "checksum";
+    public static final String KEY_DAY = "day";
+    public static final String KEY_RELEASE_DAY = "release_day";
+    public static final String KEY_DELAY_HOURS = "delay_hours";
+    public static final String KEY_NUM_EPISODES = "num_episodes";
 
     // Table names
     public static final String TABLE_NAME_FEEDS = "Feeds";
@@ -137,6 +148,18 @@ public class PodDBAdapter {
     public static final String TABLE_NAME_QUEUE = "Queue";
     public static final String TABLE_NAME_SIMPLECHAPTERS = "SimpleChapters";
     public static final String TABLE_NAME_FAVORITES = "Favorites";
+    public static final String TABLE_NAME_TRANSCRIPT_INDEX = "TranscriptIndex";
+    public static final String TABLE_NAME_EPISODE_ACTION_QUEUE = "EpisodeActionQueue";
+    public static final String TABLE_NAME_FEED_ITEM_DESCRIPTIONS = "FeedItemDescriptions";
+    public static final String TABLE_NAME_FEED_ITEM_SEARCH_TEXT = "FeedItemSearchText";
+    public static final String TABLE_NAME_DAILY_PLAYED_TIME = "DailyPlayedTime";
+    public static final String TABLE_NAME_RELEASE_PLAY_DELAYS = "ReleasePlayDelays";
+
+    /**
+     * The listening statistics are aggregated per day since the epoch, in UTC.
+     */
+    static final long MILLIS_PER_DAY = 24L * 3600 * 1000;
+    static final long MILLIS_PER_HOUR = 3600L * 1000;
 
     // SQL Statements for creating new tables
     private static final String TABLE_PRIMARY_KEY = KEY_ID
@@ -216,6 +239,70 @@ public class PodDBAdapter {
             + TABLE_NAME_QUEUE + "(" + KEY_ID + " INTEGER PRIMARY KEY,"
             + KEY_FEEDITEM + " INTEGER," + KEY_FEED + " INTEGER)";
 
+    /**
+     * Full-text index over the segments of downloaded transcripts.
+     * Only the words are tokenized, the media id and segment start time are stored alongside.
+     */
+    static final String CREATE_TABLE_TRANSCRIPT_INDEX = "CREATE VIRTUAL TABLE "
+            + TABLE_NAME_TRANSCRIPT_INDEX + " USING fts4(" + KEY_MEDIA + "," + KEY_START + "," + KEY_WORDS + ","
+            + "notindexed=" + KEY_MEDIA + ",notindexed=" + KEY_START + ")";
+
+    /**
+     * Episode actions waiting to be uploaded to the synchronization server, in the order they were added.
+     */
+    static final String CREATE_TABLE_EPISODE_ACTION_QUEUE = "CREATE TABLE "
+            + TABLE_NAME_EPISODE_ACTION_QUEUE + " (" + KEY_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + KEY_EPISODE_ACTION + " TEXT)";
+
+    /**
+     * Show notes of the items, encoded with {@link DescriptionCodec}. They are kept out of the items table,
+     * so that queries for episode lists do not need to read them. The checksum is the one of the plain text.
+     */
+    static final String CREATE_TABLE_FEED_ITEM_DESCRIPTIONS = "CREATE TABLE "
+            + TABLE_NAME_FEED_ITEM_DESCRIPTIONS + " (" + KEY_FEEDITEM + " INTEGER PRIMARY KEY,"
+            + KEY_CHECKSUM + " INTEGER," + KEY_DESCRIPTION + " BLOB)";
+
+    /**
+     * Full-text index over the show notes without HTML tags, so that searching does not need to decode
+     * the compressed descriptions. The table is contentless, so the text is not stored a second time.
+     * Rows of a contentless table cannot be deleted. The docid therefore holds the item id in the upper
+     * and the checksum of the description in the lower 32 bits, and only rows matching the checksum
+     * in {@link #TABLE_NAME_FEED_ITEM_DESCRIPTIONS} count. Item ids are never reused.
+     */
+    static final String CREATE_TABLE_FEED_ITEM_SEARCH_TEXT = "CREATE VIRTUAL TABLE "
+            + TABLE_NAME_FEED_ITEM_SEARCH_TEXT + " USING fts4(content=\"\", " + KEY_DESCRIPTION + ")";
+
+    /**
+     * Ids of the items whose current description matches the full-text query given as argument.
+     */
+    private static final String SELECT_ITEMS_MATCHING_SEARCH_TEXT = "SELECT "
+            + TABLE_NAME_FEED_ITEM_DESCRIPTIONS + "." + KEY_FEEDITEM
+            + " FROM " + TABLE_NAME_FEED_ITEM_SEARCH_TEXT
+            + " INNER JOIN " + TABLE_NAME_FEED_ITEM_DESCRIPTIONS
+            + " ON " + TABLE_NAME_FEED_ITEM_DESCRIPTIONS + "." + KEY_FEEDITEM
+            + " = (" + TABLE_NAME_FEED_ITEM_SEARCH_TEXT + ".docid >> 32)"
+            + " AND " + TABLE_NAME_FEED_ITEM_DESCRIPTIONS + "." + KEY_CHECKSUM
+            + " = (" + TABLE_NAME_FEED_ITEM_SEARCH_TEXT + ".docid & 4294967295)"
+            + " WHERE " + TABLE_NAME_FEED_ITEM_SEARCH_TEXT + " MATCH ?";
+
+    /**
+     * Milliseconds played per feed and day. Updated whenever the played duration of a media is written,
+     * so statistics do not need to go through all media.
+     */
+    static final String CREATE_TABLE_DAILY_PLAYED_TIME = "CREATE TABLE "
+            + TABLE_NAME_DAILY_PLAYED_TIME + " (" + KEY_FEED + " INTEGER," + KEY_DAY + " INTEGER,"
+            + KEY_PLAYED_DURATION + " INTEGER,"
+            + "PRIMARY KEY (" + KEY_FEED + "," + KEY_DAY + "))";
+
+    /**
+     * Histogram of the hours between the release of an episode and the last time it was played.
+     * Every played episode is counted once, at the day it was last played.
+     */
+    static final String CREATE_TABLE_RELEASE_PLAY_DELAYS = "CREATE TABLE "
+            + TABLE_NAME_RELEASE_PLAY_DELAYS + " (" + KEY_FEED + " INTEGER," + KEY_DAY + " INTEGER,"
+            + KEY_RELEASE_DAY + " INTEGER," + KEY_DELAY_HOURS + " INTEGER," + KEY_NUM_EPISODES + " INTEGER,"
+            + "PRIMARY KEY (" + KEY_FEED + "," + KEY_DAY + "," + KEY_RELEASE_DAY + "," + KEY_DELAY_HOURS + "))";
+
     private static final String CREATE_TABLE_SIMPLECHAPTERS = "CREATE TABLE "
             + TABLE_NAME_SIMPLECHAPTERS + " (" + TABLE_PRIMARY_KEY + KEY_TITLE
             + " TEXT," + KEY_START + " INTEGER," + KEY_FEEDITEM + " INTEGER,"
@@ -242,6 +329,14 @@ public class PodDBAdapter {
             + TABLE_NAME_FEED_MEDIA + "_" + KEY_FEEDITEM + " ON " + TABLE_NAME_FEED_MEDIA + " ("
             + KEY_FEEDITEM + ")";
 
+    static final String CREATE_INDEX_FEEDITEMS_ITEM_IDENTIFIER = "CREATE INDEX "
+            + TABLE_NAME_FEED_ITEMS + "_" + KEY_ITEM_IDENTIFIER + " ON " + TABLE_NAME_FEED_ITEMS + " ("
+            + KEY_ITEM_IDENTIFIER + ")";
+
+    static final String CREATE_INDEX_FEEDMEDIA_DOWNLOAD_URL = "CREATE INDEX "
+            + TABLE_NAME_FEED_MEDIA + "_" + KEY_DOWNLOAD_URL + " ON " + TABLE_NAME_FEED_MEDIA + " ("
+            + KEY_DOWNLOAD_URL + ")";
+
     static final String CREATE_INDEX_SIMPLECHAPTERS_FEEDITEM = "CREATE INDEX "
             + TABLE_NAME_SIMPLECHAPTERS + "_" + KEY_FEEDITEM + " ON " + TABLE_NAME_SIMPLECHAPTERS + " ("
             + KEY_FEEDITEM + ")";
@@ -260,7 +355,12 @@ public class PodDBAdapter {
             TABLE_NAME_DOWNLOAD_LOG,
             TABLE_NAME_QUEUE,
             TABLE_NAME_SIMPLECHAPTERS,
-            TABLE_NAME_FAVORITES
+            TABLE_NAME_FAVORITES,
+            TABLE_NAME_TRANSCRIPT_INDEX,
+            TABLE_NAME_EPISODE_ACTION_QUEUE,
+            TABLE_NAME_FEED_ITEM_DESCRIPTIONS,
+            TABLE_NAME_DAILY_PLAYED_TIME,
+            TABLE_NAME_RELEASE_PLAY_DELAYS
     };
 
     public static final String SELECT_KEY_ITEM_ID = "item_id";
@@ -342,11 +442,6 @@ public class PodDBAdapter {
     private static final String JOIN_FEED_ITEM_AND_MEDIA = " LEFT JOIN " + TABLE_NAME_FEED_MEDIA
             + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + "=" + TABLE_NAME_FEED_MEDIA + "." + KEY_FEEDITEM + " ";
 
-    private static final String SELECT_FEED_ITEMS_AND_MEDIA_WITH_DESCRIPTION =
-            "SELECT " + KEYS_FEED_ITEM_WITHOUT_DESCRIPTION + ", " + KEYS_FEED_MEDIA + ", "
-                    + TABLE_NAME_FEED_ITEMS + "." + KEY_DESCRIPTION
-            + " FROM " + TABLE_NAME_FEED_ITEMS
-            + JOIN_FEED_ITEM_AND_MEDIA;
     private static final String SELECT_FEED_ITEMS_AND_MEDIA =
             "SELECT " + KEYS_FEED_ITEM_WITHOUT_DESCRIPTION + ", " + KEYS_FEED_MEDIA
             + " FROM " + TABLE_NAME_FEED_ITEMS
@@ -438,6 +533,9 @@ public class PodDBAdapter {
             for (String tableName : ALL_TABLES) {
                 adapter.db.delete(tableName, "1", null);
             }
+            // Rows of the contentless full-text table cannot be deleted
+            adapter.db.execSQL("DROP TABLE " + TABLE_NAME_FEED_ITEM_SEARCH_TEXT);
+            adapter.db.execSQL(CREATE_TABLE_FEED_ITEM_SEARCH_TEXT);
             return true;
         } finally {
             adapter.close();
@@ -528,7 +626,8 @@ public class PodDBAdapter {
     }
 
     /**
-     * Inserts or updates a media entry
+     * Inserts or updates a media entry. The last played time of existing entries is only written by
+     * {@link #setFeedMediaPlaybackInformation}, which keeps the listening statistics up to date.
      *
      * @return the id of the entry
      */
@@ -542,7 +641,6 @@ public class PodDBAdapter {
         values.put(KEY_DOWNLOAD_DATE, media.getDownloadDate());
         values.put(KEY_FILE_URL, media.getLocalFileUrl());
         values.put(KEY_HAS_EMBEDDED_PICTURE, media.hasEmbeddedPicture());
-        values.put(KEY_LAST_PLAYED_TIME_STATISTICS, media.getLastPlayedTimeStatistics());
 
         if (media.getLastPlayedTimeHistory() != null) {
             values.put(KEY_LAST_PLAYED_TIME_HISTORY, media.getLastPlayedTimeHistory().getTime());
@@ -553,6 +651,7 @@ public class PodDBAdapter {
             values.put(KEY_FEEDITEM, media.getItem().getId());
         }
         if (media.getId() == 0) {
+            values.put(KEY_LAST_PLAYED_TIME_STATISTICS, media.getLastPlayedTimeStatistics());
             media.setId(db.insert(TABLE_NAME_FEED_MEDIA, null, values));
         } else {
             db.update(TABLE_NAME_FEED_MEDIA, values, KEY_ID + "=?",
@@ -569,8 +668,17 @@ public class PodDBAdapter {
             values.put(KEY_PLAYED_DURATION, media.getPlayedDuration());
             values.put(KEY_LAST_PLAYED_TIME_STATISTICS, media.getLastPlayedTimeStatistics());
             values.put(KEY_LAST_PLAYED_TIME_HISTORY, media.getLastPlayedTimeHistory().getTime());
-            db.update(TABLE_NAME_FEED_MEDIA, values, KEY_ID + "=?",
-                    new String[]{String.valueOf(media.getId())});
+            try {
+                db.beginTransactionNonExclusive();
+                updateListeningStatistics(media, true);
+                db.update(TABLE_NAME_FEED_MEDIA, values, KEY_ID + "=?",
+                        new String[]{String.valueOf(media.getId())});
+                db.setTransactionSuccessful();
+            } catch (SQLException e) {
+                Log.e(TAG, Log.getStackTraceString(e));
+            } finally {
+                db.endTransaction();
+            }
         } else {
             Log.e(TAG, "setFeedMediaPlaybackInformation: ID of media was 0");
         }
@@ -581,19 +689,93 @@ public class PodDBAdapter {
             ContentValues values = new ContentValues();
             values.put(KEY_LAST_PLAYED_TIME_HISTORY, media.getLastPlayedTimeHistory().getTime());
             values.put(KEY_PLAYED_DURATION, media.getPlayedDuration());
-            db.update(TABLE_NAME_FEED_MEDIA, values, KEY_ID + "=?",
-                    new String[]{String.valueOf(media.getId())});
+            try {
+                db.beginTransactionNonExclusive();
+                updateListeningStatistics(media, false);
+                db.update(TABLE_NAME_FEED_MEDIA, values, KEY_ID + "=?",
+                        new String[]{String.valueOf(media.getId())});
+                db.setTransactionSuccessful();
+            } catch (SQLException e) {
+                Log.e(TAG, Log.getStackTraceString(e));
+            } finally {
+                db.endTransaction();
+            }
         } else {
             Log.e(TAG, "setFeedMediaLastPlayedTimeHistory: ID of media was 0");
         }
     }
 
+    /**
+     * Adds the difference between the stored and the new playback information of the media to the
+     * listening statistics. Needs to be called before the new values are written.
+     *
+     * @param lastPlayedTimeChanges Whether the last played time of the media is going to be written as well
+     */
+    private void updateListeningStatistics(FeedMedia media, boolean lastPlayedTimeChanges) {
+        final String query = "SELECT " + TABLE_NAME_FEED_MEDIA + "." + KEY_PLAYED_DURATION + ", "
+                + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME_STATISTICS + ", "
+                + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + ", "
+                + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE
+                + " FROM " + TABLE_NAME_FEED_ITEMS
+                + JOIN_FEED_ITEM_AND_MEDIA
+                + " WHERE " + TABLE_NAME_FEED_MEDIA + "." + KEY_ID + "=" + media.getId();
+        try (Cursor cursor = db.rawQuery(query, null)) {
+            if (!cursor.moveToFirst()) {
+                return;
+            }
+            long oldPlayedDuration = cursor.getLong(0);
+            long oldLastPlayedTime = cursor.getLong(1);
+            long feedId = cursor.getLong(2);
+            long pubDate = cursor.getLong(3);
+
+            long lastPlayedTime = lastPlayedTimeChanges ? media.getLastPlayedTimeStatistics() : oldLastPlayedTime;
+            long playedSinceLastWrite = media.getPlayedDuration() - oldPlayedDuration;
+            if (playedSinceLastWrite > 0) {
+                long playedTime = lastPlayedTime > 0 ? lastPlayedTime : System.currentTimeMillis();
+                db.execSQL("INSERT OR IGNORE INTO " + TABLE_NAME_DAILY_PLAYED_TIME
+                        + " (" + KEY_FEED + "," + KEY_DAY + "," + KEY_PLAYED_DURATION + ") VALUES (?,?,0)",
+                        new Object[]{feedId, playedTime / MILLIS_PER_DAY});
+                db.execSQL("UPDATE " + TABLE_NAME_DAILY_PLAYED_TIME
+                        + " SET " + KEY_PLAYED_DURATION + "=" + KEY_PLAYED_DURATION + "+?"
+                        + " WHERE " + KEY_FEED + "=? AND " + KEY_DAY + "=?",
+                        new Object[]{playedSinceLastWrite, feedId, playedTime / MILLIS_PER_DAY});
+            }
+            if (lastPlayedTime != oldLastPlayedTime) {
+                if (oldLastPlayedTime > 0) {
+                    addReleasePlayDelay(feedId, pubDate, oldLastPlayedTime, -1);
+                }
+                if (lastPlayedTime > 0) {
+                    addReleasePlayDelay(feedId, pubDate, lastPlayedTime, 1);
+                }
+            }
+        }
+    }
+
+    private void addReleasePlayDelay(long feedId, long pubDate, long lastPlayedTime, int numEpisodes) {
+        Object[] key = {feedId, lastPlayedTime / MILLIS_PER_DAY, pubDate / MILLIS_PER_DAY,
+                (lastPlayedTime - pubDate) / MILLIS_PER_HOUR};
+        final String where = " WHERE " + KEY_FEED + "=? AND " + KEY_DAY + "=? AND "
+                + KEY_RELEASE_DAY + "=? AND " + KEY_DELAY_HOURS + "=?";
+        if (numEpisodes > 0) {
+            db.execSQL("INSERT OR IGNORE INTO " + TABLE_NAME_RELEASE_PLAY_DELAYS + " (" + KEY_FEED + ","
+                    + KEY_DAY + "," + KEY_RELEASE_DAY + "," + KEY_DELAY_HOURS + "," + KEY_NUM_EPISODES + ")"
+                    + " VALUES (?,?,?,?,0)", key);
+        }
+        db.execSQL("UPDATE " + TABLE_NAME_RELEASE_PLAY_DELAYS
+                + " SET " + KEY_NUM_EPISODES + "=" + KEY_NUM_EPISODES + "+" + numEpisodes + where, key);
+        if (numEpisodes < 0) {
+            db.execSQL("DELETE FROM " + TABLE_NAME_RELEASE_PLAY_DELAYS + where
+                    + " AND " + KEY_NUM_EPISODES + "<=0", key);
+        }
+    }
+
     public void resetAllMediaPlayedDuration() {
         try {
             db.beginTransactionNonExclusive();
             ContentValues values = new ContentValues();
             values.put(KEY_PLAYED_DURATION, 0);
             db.update(TABLE_NAME_FEED_MEDIA, values, null, new String[0]);
+            db.delete(TABLE_NAME_DAILY_PLAYED_TIME, null, null);
             db.setTransactionSuccessful();
         } catch (SQLException e) {
             Log.e(TAG, Log.getStackTraceString(e));
@@ -682,9 +864,6 @@ public class PodDBAdapter {
         ContentValues values = new ContentValues();
         values.put(KEY_TITLE, item.getTitle());
         values.put(KEY_LINK, item.getLink());
-        if (item.getDescription() != null) {
-            values.put(KEY_DESCRIPTION, item.getDescription());
-        }
         values.put(KEY_PUBDATE, item.getPubDate().getTime());
         values.put(KEY_PAYMENT_LINK, item.getPaymentLink());
         if (saveFeed && item.getFeed() != null) {
@@ -719,6 +898,9 @@ public class PodDBAdapter {
             db.update(TABLE_NAME_FEED_ITEMS, values, KEY_ID + "=?",
                     new String[]{String.valueOf(item.getId())});
         }
+        if (item.getDescription() != null) {
+            setDescription(item.getId(), item.getDescription());
+        }
         if (item.getMedia() != null) {
             setMedia(item.getMedia());
             item.getMedia().setItemId(item.getId());
@@ -729,6 +911,36 @@ public class PodDBAdapter {
         return item.getId();
     }
 
+    /**
+     * Stores the description of an item, unless the stored description is the same.
+     */
+    private void setDescription(long itemId, String description) {
+        long checksum = DescriptionCodec.checksum(description);
+        try (Cursor cursor = db.rawQuery("SELECT " + KEY_CHECKSUM + " FROM " + TABLE_NAME_FEED_ITEM_DESCRIPTIONS
+                + " WHERE " + KEY_FEEDITEM + "=" + itemId, null)) {
+            if (cursor.moveToFirst() && cursor.getLong(0) == checksum) {
+                return;
+            }
+        }
+        ContentValues values = new ContentValues();
+        values.put(KEY_FEEDITEM, itemId);
+        values.put(KEY_CHECKSUM, checksum);
+        values.put(KEY_DESCRIPTION, DescriptionCodec.encode(description));
+        db.insertWithOnConflict(TABLE_NAME_FEED_ITEM_DESCRIPTIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        setSearchText(db, itemId, checksum, description);
+    }
+
+    /**
+     * Indexes the show notes of an item. Words of an older description of the item stay in the index,
+     * but no longer match its checksum.
+     */
+    static void setSearchText(SQLiteDatabase db, long itemId, long checksum, String description) {
+        ContentValues values = new ContentValues();
+        values.put("docid", (itemId << 32) | checksum);
+        values.put(KEY_DESCRIPTION, description.replaceAll("<[^>]*>", " "));
+        db.insert(TABLE_NAME_FEED_ITEM_SEARCH_TEXT, null, values);
+    }
+
     public void setFeedItemRead(FeedItem item, int played, boolean resetMediaPosition) {
         try {
             db.beginTransactionNonExclusive();
@@ -754,6 +966,36 @@ public class PodDBAdapter {
         }
     }
 
+    /**
+     * Updates only the played state and playback position of the given items and their media.
+     */
+    public void setFeedItemPlaybackStates(List<FeedItem> items) {
+        try {
+            db.beginTransactionNonExclusive();
+            SQLiteStatement updateRead = db.compileStatement("UPDATE " + TABLE_NAME_FEED_ITEMS
+                    + " SET " + KEY_READ + "=? WHERE " + KEY_ID + "=?");
+            SQLiteStatement updatePosition = db.compileStatement("UPDATE " + TABLE_NAME_FEED_MEDIA
+                    + " SET " + KEY_POSITION + "=? WHERE " + KEY_ID + "=?");
+            for (FeedItem item : items) {
+                updateRead.bindLong(1, item.getPlayState());
+                updateRead.bindLong(2, item.getId());
+                updateRead.executeUpdateDelete();
+                if (item.getMedia() != null) {
+                    updatePosition.bindLong(1, item.getMedia().getPosition());
+                    updatePosition.bindLong(2, item.getMedia().getId());
+                    updatePosition.executeUpdateDelete();
+                }
+            }
+            updateRead.close();
+            updatePosition.close();
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+        } finally {
+            db.endTransaction();
+        }
+    }
+
     /**
      * Sets the 'read' attribute of the item.
      *
@@ -842,6 +1084,99 @@ public class PodDBAdapter {
         return status.getId();
     }
 
+    /**
+     * Replaces the indexed transcript segments of a media object.
+     */
+    public void setTranscriptIndex(long mediaId, @NonNull Transcript transcript) {
+        try {
+            db.beginTransactionNonExclusive();
+            db.delete(TABLE_NAME_TRANSCRIPT_INDEX, KEY_MEDIA + "=" + mediaId, null);
+            SQLiteStatement insert = db.compileStatement("INSERT INTO " + TABLE_NAME_TRANSCRIPT_INDEX
+                    + " (" + KEY_MEDIA + "," + KEY_START + "," + KEY_WORDS + ") VALUES (?,?,?)");
+            for (int i = 0; i < transcript.getSegmentCount(); i++) {
+                insert.bindLong(1, mediaId);
+                insert.bindLong(2, transcript.getStartTimeAt(i));
+                insert.bindString(3, transcript.getWordsAt(i));
+                insert.executeInsert();
+            }
+            insert.close();
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Removes the indexed transcript segments of a media object, for example when its transcript is deleted.
+     */
+    public void removeTranscriptIndex(long mediaId) {
+        db.delete(TABLE_NAME_TRANSCRIPT_INDEX, KEY_MEDIA + "=" + mediaId, null);
+    }
+
+    /**
+     * Appends a serialized episode action to the upload queue.
+     *
+     * @return the id of the entry
+     */
+    public long addQueuedEpisodeAction(String episodeAction) {
+        ContentValues values = new ContentValues();
+        values.put(KEY_EPISODE_ACTION, episodeAction);
+        return db.insert(TABLE_NAME_EPISODE_ACTION_QUEUE, null, values);
+    }
+
+    /**
+     * Appends serialized episode actions to the upload queue in one transaction.
+     * The transaction is only committed if beforeCommit completes without throwing,
+     * so the caller can remove the actions from where they came from at the same time.
+     */
+    public void addQueuedEpisodeActions(List<String> episodeActions, Runnable beforeCommit) {
+        try {
+            db.beginTransactionNonExclusive();
+            ContentValues values = new ContentValues();
+            for (String episodeAction : episodeActions) {
+                values.put(KEY_EPISODE_ACTION, episodeAction);
+                db.insert(TABLE_NAME_EPISODE_ACTION_QUEUE, null, values);
+            }
+            beforeCommit.run();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Removes all queued episode actions up to and including the given id.
+     */
+    public void removeQueuedEpisodeActions(long lastId) {
+        db.delete(TABLE_NAME_EPISODE_ACTION_QUEUE, KEY_ID + "<=" + lastId, null);
+    }
+
+    public void clearQueuedEpisodeActions() {
+        db.delete(TABLE_NAME_EPISODE_ACTION_QUEUE, null, null);
+    }
+
+    /**
+     * Replaces the whole upload queue with the given serialized episode actions.
+     */
+    public void setQueuedEpisodeActions(List<String> episodeActions) {
+        try {
+            db.beginTransactionNonExclusive();
+            db.delete(TABLE_NAME_EPISODE_ACTION_QUEUE, null, null);
+            ContentValues values = new ContentValues();
+            for (String episodeAction : episodeActions) {
+                values.put(KEY_EPISODE_ACTION, episodeAction);
+                db.insert(TABLE_NAME_EPISODE_ACTION_QUEUE, null, values);
+            }
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+        } finally {
+            db.endTransaction();
+        }
+    }
+
     public void setFavorites(List<FeedItem> favorites) {
         ContentValues values = new ContentValues();
         try {
@@ -936,11 +1271,13 @@ public class PodDBAdapter {
 
             db.beginTransactionNonExclusive();
             db.delete(TABLE_NAME_SIMPLECHAPTERS, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_FEED_ITEM_DESCRIPTIONS, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
             db.delete(TABLE_NAME_DOWNLOAD_LOG, KEY_FEEDFILETYPE + "=" + FeedMedia.FEEDFILETYPE_FEEDMEDIA
                             + " AND " + KEY_FEEDFILE + " IN (" + mediaIds + ")", null);
             db.delete(TABLE_NAME_FEED_MEDIA, KEY_ID + " IN (" + mediaIds + ")", null);
             db.delete(TABLE_NAME_FEED_ITEMS, KEY_ID + " IN (" + itemIds + ")", null);
             db.delete(TABLE_NAME_FAVORITES, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_TRANSCRIPT_INDEX, KEY_MEDIA + " IN (" + mediaIds + ")", null);
             db.setTransactionSuccessful();
         } catch (SQLException e) {
             Log.e(TAG, Log.getStackTraceString(e));
@@ -962,6 +1299,9 @@ public class PodDBAdapter {
             db.delete(TABLE_NAME_DOWNLOAD_LOG, KEY_FEEDFILE + "=? AND " + KEY_FEEDFILETYPE + "=?",
                     new String[]{String.valueOf(feed.getId()), String.valueOf(Feed.FEEDFILETYPE_FEED)});
 
+            db.delete(TABLE_NAME_DAILY_PLAYED_TIME, KEY_FEED + "=?", new String[]{String.valueOf(feed.getId())});
+            db.delete(TABLE_NAME_RELEASE_PLAY_DELAYS, KEY_FEED + "=?", new String[]{String.valueOf(feed.getId())});
+
             db.delete(TABLE_NAME_FEEDS, KEY_ID + "=?",
                     new String[]{String.valueOf(feed.getId())});
             db.setTransactionSuccessful();
@@ -1023,12 +1363,12 @@ public class PodDBAdapter {
     }
 
     /**
-     * Return the description and content_encoded of item
+     * Return the encoded description of item, see {@link DescriptionCodec}
      */
     public final Cursor getDescriptionOfItem(final FeedItem item) {
         final String query = "SELECT " + KEY_DESCRIPTION
-                + " FROM " + TABLE_NAME_FEED_ITEMS
-                + " WHERE " + KEY_ID + "=" + item.getId();
+                + " FROM " + TABLE_NAME_FEED_ITEM_DESCRIPTIONS
+                + " WHERE " + KEY_FEEDITEM + "=" + item.getId();
         return db.rawQuery(query, null);
     }
 
@@ -1131,6 +1471,105 @@ public class PodDBAdapter {
         return db.rawQuery(query, null);
     }
 
+    /**
+     * Selects the episodes that automatic download may download: NEW episodes of subscribed feeds
+     * with automatic download enabled and, if requested, episodes in the queue.
+     * Episodes without media, downloaded episodes, episodes of local feeds
+     * and episodes with automatic download disabled are left out.
+     * For feeds without an episode filter, only the episodes from the day of the feed's newest candidate
+     * are returned. Feeds with a filter need to be reduced after applying the filter.
+     *
+     * @return The candidates, newest first
+     */
+    public final Cursor getAutoDownloadCandidatesCursor(boolean autoDownloadGlobal, boolean includeQueue, int limit) {
+        String feedAutoDownload = "(" + TABLE_NAME_FEEDS + "." + KEY_AUTO_DOWNLOAD_ENABLED + "="
+                + FeedPreferences.AutoDownloadSetting.ENABLED.code
+                + (autoDownloadGlobal ? " OR " + TABLE_NAME_FEEDS + "." + KEY_AUTO_DOWNLOAD_ENABLED + " NOT IN ("
+                        + FeedPreferences.AutoDownloadSetting.DISABLED.code + ","
+                        + FeedPreferences.AutoDownloadSetting.ENABLED.code + ")" : "") + ")";
+        String isNewCandidate = "(" + TABLE_NAME_FEED_ITEMS + "." + KEY_READ + "=" + FeedItem.NEW
+                + " AND " + TABLE_NAME_FEEDS + "." + KEY_STATE + "=" + Feed.STATE_SUBSCRIBED
+                + " AND " + feedAutoDownload + ")";
+        String isQueueCandidate = TABLE_NAME_FEED_ITEMS + "." + KEY_ID
+                + " IN (SELECT " + KEY_FEEDITEM + " FROM " + TABLE_NAME_QUEUE + ")";
+        String hasFilter = "(IFNULL(" + TABLE_NAME_FEEDS + "." + KEY_INCLUDE_FILTER + ", '') != ''"
+                + " OR IFNULL(" + TABLE_NAME_FEEDS + "." + KEY_EXCLUDE_FILTER + ", '') != ''"
+                + " OR IFNULL(" + TABLE_NAME_FEEDS + "." + KEY_MINIMAL_DURATION_FILTER + ", -1) > -1)";
+        String day = "date(%s / 1000, 'unixepoch', 'localtime')";
+
+        final String query = "WITH candidates AS ("
+                + "SELECT " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + " AS candidate_id, "
+                    + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + " AS candidate_feed, "
+                    + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + " AS candidate_pubdate, "
+                    + hasFilter + " AS candidate_has_filter"
+                + " FROM " + TABLE_NAME_FEED_ITEMS
+                + " INNER JOIN " + TABLE_NAME_FEED_MEDIA + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID
+                    + "=" + TABLE_NAME_FEED_MEDIA + "." + KEY_FEEDITEM
+                + " INNER JOIN " + TABLE_NAME_FEEDS + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED
+                    + "=" + TABLE_NAME_FEEDS + "." + KEY_ID
+                + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_AUTO_DOWNLOAD_ENABLED + " > 0"
+                + " AND IFNULL(" + TABLE_NAME_FEED_MEDIA + "." + KEY_DOWNLOAD_DATE + ", 0) <= 0"
+                + " AND " + TABLE_NAME_FEEDS + "." + KEY_DOWNLOAD_URL + " NOT LIKE '" + Feed.PREFIX_LOCAL_FOLDER + "%'"
+                + " AND (" + isNewCandidate + (includeQueue ? " OR " + isQueueCandidate : "") + ")"
+                + "), latest AS ("
+                + "SELECT candidate_feed AS latest_feed, "
+                    + String.format(day, "MAX(candidate_pubdate)") + " AS latest_day"
+                + " FROM candidates GROUP BY candidate_feed"
+                + ") "
+                + "SELECT " + KEYS_FEED_ITEM_WITHOUT_DESCRIPTION + ", " + KEYS_FEED_MEDIA
+                + " FROM candidates"
+                + " INNER JOIN latest ON latest_feed = candidate_feed"
+                + " INNER JOIN " + TABLE_NAME_FEED_ITEMS + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID
+                    + " = candidate_id"
+                + JOIN_FEED_ITEM_AND_MEDIA
+                + " WHERE candidate_has_filter OR latest_day IS NULL"
+                + " OR " + String.format(day, "candidate_pubdate") + " = latest_day"
+                + " ORDER BY candidate_pubdate DESC LIMIT " + limit;
+        return db.rawQuery(query, null);
+    }
+
+    /**
+     * Selects the downloaded episodes that episode cleanup may delete, in the order in which they should be deleted.
+     *
+     * @param filter       The episodes that may be deleted
+     * @param playedBefore If greater than 0, only episodes that were last played before this time are selected
+     *                     and the episode that was played first is deleted first.
+     *                     Otherwise, the oldest episode is deleted first.
+     * @param limit        The maximum number of episodes to select
+     */
+    public final Cursor getCleanupCandidatesCursor(FeedItemFilter filter, long playedBefore, int limit) {
+        String orderBy;
+        if (playedBefore > 0) {
+            orderBy = TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME_HISTORY;
+        } else {
+            orderBy = "IFNULL(" + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + ", " + System.currentTimeMillis() + "), "
+                    + TABLE_NAME_FEED_ITEMS + "." + KEY_ID;
+        }
+        final String query = SELECT_FEED_ITEMS_AND_MEDIA
+                + " WHERE " + generateCleanupCandidatesWhere(filter, playedBefore)
+                + " ORDER BY " + orderBy + " LIMIT " + limit;
+        return db.rawQuery(query, null);
+    }
+
+    public final Cursor getCleanupCandidatesCountCursor(FeedItemFilter filter, long playedBefore) {
+        final String query = "SELECT count(" + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + ") FROM " + TABLE_NAME_FEED_ITEMS
+                + JOIN_FEED_ITEM_AND_MEDIA + " WHERE " + generateCleanupCandidatesWhere(filter, playedBefore);
+        return db.rawQuery(query, null);
+    }
+
+    private static String generateCleanupCandidatesWhere(FeedItemFilter filter, long playedBefore) {
+        String where = TABLE_NAME_FEED_MEDIA + "." + KEY_DOWNLOAD_DATE + " > 0";
+        String filterQuery = FeedItemFilterQuery.generateFrom(filter);
+        if (!"".equals(filterQuery)) {
+            where += " AND " + filterQuery;
+        }
+        if (playedBefore > 0) {
+            String lastPlayed = TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME_HISTORY;
+            where += " AND " + lastPlayed + " > 0 AND " + lastPlayed + " < " + playedBefore;
+        }
+        return where;
+    }
+
     public final Cursor getEpisodeCountCursor(FeedItemFilter filter) {
         String filterQuery = FeedItemFilterQuery.generateFrom(filter);
         String whereClause = "".equals(filterQuery) ? "" : " WHERE " + filterQuery;
@@ -1244,6 +1683,36 @@ public class PodDBAdapter {
         return db.rawQuery(query, null);
     }
 
+    /**
+     * Loads the items with the given guids. Only items of existing feeds are returned.
+     */
+    public final Cursor getFeedItemCursorByGuids(List<String> guids) {
+        if (guids.size() > IN_OPERATOR_MAXIMUM) {
+            throw new IllegalArgumentException("number of IDs must not be larger than " + IN_OPERATOR_MAXIMUM);
+        }
+        final String query = SELECT_FEED_ITEMS_AND_MEDIA
+                + " INNER JOIN " + TABLE_NAME_FEEDS
+                + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + TABLE_NAME_FEEDS + "." + KEY_ID
+                + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_ITEM_IDENTIFIER
+                + " IN (" + TextUtils.join(",", Collections.nCopies(guids.size(), "?")) + ")";
+        return db.rawQuery(query, guids.toArray(new String[0]));
+    }
+
+    /**
+     * Loads the items whose media has one of the given download URLs. Only items of existing feeds are returned.
+     */
+    public final Cursor getFeedItemCursorByEpisodeUrls(List<String> episodeUrls) {
+        if (episodeUrls.size() > IN_OPERATOR_MAXIMUM) {
+            throw new IllegalArgumentException("number of IDs must not be larger than " + IN_OPERATOR_MAXIMUM);
+        }
+        final String query = SELECT_FEED_ITEMS_AND_MEDIA
+                + " INNER JOIN " + TABLE_NAME_FEEDS
+                + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + TABLE_NAME_FEEDS + "." + KEY_ID
+                + " WHERE " + TABLE_NAME_FEED_MEDIA + "." + KEY_DOWNLOAD_URL
+                + " IN (" + TextUtils.join(",", Collections.nCopies(episodeUrls.size(), "?")) + ")";
+        return db.rawQuery(query, episodeUrls.toArray(new String[0]));
+    }
+
     public final Cursor getFeedItemCursor(final String guid, final String episodeUrl) {
         String escapedEpisodeUrl = DatabaseUtils.sqlEscapeString(episodeUrl);
         String whereClauseCondition = TABLE_NAME_FEED_MEDIA + "." + KEY_DOWNLOAD_URL + "=" + escapedEpisodeUrl;
@@ -1260,17 +1729,45 @@ public class PodDBAdapter {
         return db.rawQuery(query, null);
     }
 
+    /**
+     * Loads queued episode actions in the order they were added.
+     *
+     * @param afterId only entries with a larger id are returned
+     * @param limit   maximum number of entries
+     * @return A cursor with the id and the serialized action of each entry
+     */
+    public final Cursor getQueuedEpisodeActionsCursor(long afterId, int limit) {
+        final String query = "SELECT " + KEY_ID + ", " + KEY_EPISODE_ACTION
+                + " FROM " + TABLE_NAME_EPISODE_ACTION_QUEUE
+                + " WHERE " + KEY_ID + ">" + afterId
+                + " ORDER BY " + KEY_ID + " ASC LIMIT " + limit;
+        return db.rawQuery(query, null);
+    }
+
     public final Cursor getMonthlyStatisticsCursor() {
+        final String seconds = KEY_DAY + "*" + (MILLIS_PER_DAY / 1000);
         final String query = "SELECT SUM(" + KEY_PLAYED_DURATION + ") AS total_duration"
-                + ", strftime('%m', datetime(" + KEY_LAST_PLAYED_TIME_STATISTICS + "/1000, 'unixepoch')) AS month"
-                + ", strftime('%Y', datetime(" + KEY_LAST_PLAYED_TIME_STATISTICS + "/1000, 'unixepoch')) AS year"
-                + " FROM " + TABLE_NAME_FEED_MEDIA
-                + " WHERE " + KEY_LAST_PLAYED_TIME_STATISTICS + " > 0 AND " + KEY_PLAYED_DURATION + " > 0"
+                + ", strftime('%m', datetime(" + seconds + ", 'unixepoch')) AS month"
+                + ", strftime('%Y', datetime(" + seconds + ", 'unixepoch')) AS year"
+                + " FROM " + TABLE_NAME_DAILY_PLAYED_TIME
+                + " WHERE " + KEY_PLAYED_DURATION + " > 0"
                 + " GROUP BY year, month"
                 + " ORDER BY year, month";
         return db.rawQuery(query, null);
     }
 
+    /**
+     * Milliseconds played per feed, from the daily aggregates. The filter is applied to whole days in UTC.
+     */
+    public final Cursor getPlayedTimePerFeedCursor(long timeFilterFrom, long timeFilterTo) {
+        final String query = "SELECT " + KEY_FEED + ", SUM(" + KEY_PLAYED_DURATION + ") AS played_time"
+                + " FROM " + TABLE_NAME_DAILY_PLAYED_TIME
+                + " WHERE " + KEY_DAY + ">=" + (timeFilterFrom / MILLIS_PER_DAY)
+                + " AND " + KEY_DAY + "<=" + ((timeFilterTo - 1) / MILLIS_PER_DAY)
+                + " GROUP BY " + KEY_FEED;
+        return db.rawQuery(query, null);
+    }
+
     public final Cursor getFeedStatisticsCursor(boolean includeMarkedAsPlayed, long timeFilterFrom,
                                                 long timeFilterTo, long sixMonthsAgo) {
         final String lastPlayedTimeStatistics = TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME_STATISTICS;
@@ -1283,13 +1780,12 @@ public class PodDBAdapter {
         }
         final String timeFilter = lastPlayedTimeStatistics + ">=" + timeFilterFrom
                 + " AND " + lastPlayedTimeStatistics + "<" + timeFilterTo;
-        String playedTime = TABLE_NAME_FEED_MEDIA + "." + KEY_PLAYED_DURATION;
+        // The time that was actually played comes from the daily aggregates, see getPlayedTimePerFeedCursor
+        String markedPlayedTime = "0";
         if (includeMarkedAsPlayed) {
-            playedTime = "(CASE WHEN " + playedTime + " != 0"
-                    + " THEN " + playedTime + " ELSE ("
-                            + "CASE WHEN " + TABLE_NAME_FEED_ITEMS + "." + KEY_READ + "=" + FeedItem.PLAYED
-                                + " THEN " + TABLE_NAME_FEED_MEDIA + "." + KEY_DURATION + " ELSE 0 END"
-                    + ") END)";
+            markedPlayedTime = "(CASE WHEN " + TABLE_NAME_FEED_MEDIA + "." + KEY_PLAYED_DURATION + " = 0"
+                    + " AND " + TABLE_NAME_FEED_ITEMS + "." + KEY_READ + "=" + FeedItem.PLAYED
+                    + " THEN " + TABLE_NAME_FEED_MEDIA + "." + KEY_DURATION + " ELSE 0 END)";
         }
 
         final String query = "SELECT " + KEYS_FEED + ", "
@@ -1299,7 +1795,7 @@ public class PodDBAdapter {
                                 + " ELSE " + Long.MAX_VALUE + " END) AS oldest_date, "
                         + "SUM(CASE WHEN (" + wasStarted + ") THEN 1 ELSE 0 END) AS episodes_started, "
                         + "IFNULL(SUM(CASE WHEN (" + timeFilter + ")"
-                                + " THEN (" + playedTime + ") ELSE 0 END), 0) AS played_time, "
+                                + " THEN (" + markedPlayedTime + ") ELSE 0 END), 0) AS marked_played_time, "
                         + "IFNULL(SUM(" + TABLE_NAME_FEED_MEDIA + "." + KEY_DURATION + "), 0) AS total_time, "
                         + "SUM(CASE WHEN " + TABLE_NAME_FEED_MEDIA + "." + KEY_DOWNLOAD_DATE + " > 0"
                                 + " THEN 1 ELSE 0 END) AS num_downloaded, "
@@ -1317,21 +1813,35 @@ public class PodDBAdapter {
         return db.rawQuery(query, null);
     }
 
-    public final Cursor getTimeBetweenReleaseAndPlayback(long timeFilterFrom, long timeFilterTo) {
-        final String from = " FROM " + TABLE_NAME_FEED_ITEMS
-                + JOIN_FEED_ITEM_AND_MEDIA
-                + " WHERE " + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME_STATISTICS + ">=" + timeFilterFrom
-                        + " AND " + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + ">=" + timeFilterFrom
-                        + " AND " + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME_STATISTICS + "<" + timeFilterTo;
-        final String query = "SELECT " + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME_STATISTICS
-                + " - " + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + " AS diff"
-                + from
-                + " ORDER BY diff ASC"
-                + " LIMIT 1"
-                + " OFFSET (SELECT count(*)/2 " + from + ")";
+    /**
+     * Histogram of the hours between release and playback of episodes that were released and played
+     * in the given time. The filter is applied to whole days in UTC.
+     */
+    public final Cursor getReleasePlayDelaysCursor(long timeFilterFrom, long timeFilterTo) {
+        final String query = "SELECT " + KEY_DELAY_HOURS + ", SUM(" + KEY_NUM_EPISODES + ")"
+                + " FROM " + TABLE_NAME_RELEASE_PLAY_DELAYS
+                + " WHERE " + KEY_DAY + ">=" + (timeFilterFrom / MILLIS_PER_DAY)
+                + " AND " + KEY_RELEASE_DAY + ">=" + (timeFilterFrom / MILLIS_PER_DAY)
+                + " AND " + KEY_DAY + "<=" + ((timeFilterTo - 1) / MILLIS_PER_DAY)
+                + " GROUP BY " + KEY_DELAY_HOURS
+                + " ORDER BY " + KEY_DELAY_HOURS + " ASC";
         return db.rawQuery(query, null);
     }
 
+    /**
+     * Checks if a subscribed feed that is kept updated was never refreshed, without loading the feed list.
+     */
+    public boolean hasFeedsNeverRefreshed() {
+        final String query = "SELECT " + KEY_ID + " FROM " + TABLE_NAME_FEEDS
+                + " WHERE " + KEY_KEEP_UPDATED + " > 0"
+                + " AND " + KEY_STATE + " = " + Feed.STATE_SUBSCRIBED
+                + " AND (" + KEY_LAST_REFRESH_ATTEMPT + " IS NULL OR " + KEY_LAST_REFRESH_ATTEMPT + " = 0)"
+                + " LIMIT 1";
+        try (Cursor cursor = db.rawQuery(query, null)) {
+            return cursor.moveToFirst();
+        }
+    }
+
     public int getQueueSize() {
         final String query = String.format("SELECT COUNT(%s) FROM %s", KEY_ID, TABLE_NAME_QUEUE);
         Cursor c = db.rawQuery(query, null);
@@ -1465,29 +1975,26 @@ public class PodDBAdapter {
             queryFeedId = "1 = 1";
         }
 
-        String queryStart = SELECT_FEED_ITEMS_AND_MEDIA_WITH_DESCRIPTION + " WHERE " + queryFeedId;
+        String queryStart = SELECT_FEED_ITEMS_AND_MEDIA + " WHERE " + queryFeedId;
         if (state == Feed.STATE_SUBSCRIBED && feedID == 0) {
             queryStart += " AND " + SELECT_WHERE_FEED_IS_SUBSCRIBED;
         }
-        queryStart += " AND (";
         StringBuilder sb = new StringBuilder(queryStart);
-
-        for (int i = 0; i < queryWords.length; i++) {
-            sb
-                    .append("(")
-                    .append(KEY_DESCRIPTION + " LIKE '%").append(queryWords[i])
-                    .append("%' OR ")
-                    .append(KEY_TITLE).append(" LIKE '%").append(queryWords[i])
-                    .append("%') ");
-
-            if (i != queryWords.length - 1) {
-                sb.append("AND ");
+        List<String> matchQueries = new ArrayList<>();
+        for (String queryWord : queryWords) {
+            sb.append(" AND (").append(TABLE_NAME_FEED_ITEMS).append(".").append(KEY_TITLE)
+                    .append(" LIKE '%").append(queryWord).append("%'");
+            // The descriptions are compressed, so their words are matched in the full-text index instead
+            String matchQuery = prepareFullTextQuery(queryWord);
+            if (!matchQuery.isEmpty()) {
+                sb.append(" OR ").append(TABLE_NAME_FEED_ITEMS).append(".").append(KEY_ID)
+                        .append(" IN (").append(SELECT_ITEMS_MATCHING_SEARCH_TEXT).append(")");
+                matchQueries.add(matchQuery);
             }
+            sb.append(")");
         }
-
-        sb.append(") ORDER BY " + KEY_PUBDATE + " DESC LIMIT 300");
-
-        return db.rawQuery(sb.toString(), null);
+        sb.append(" ORDER BY " + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + " DESC LIMIT 300");
+        return db.rawQuery(sb.toString(), matchQueries.toArray(new String[0]));
     }
 
     /**
@@ -1519,6 +2026,60 @@ public class PodDBAdapter {
         return db.rawQuery(sb.toString(), null);
     }
 
+    /**
+     * Searches for the given query in the indexed transcripts of all items or the items of a specified feed.
+     *
+     * @return A cursor with one row per item, containing the item, its media, and the start time and words
+     *         of the earliest matching segment, or null if the query does not contain any searchable words.
+     */
+    @Nullable
+    public Cursor searchTranscripts(long feedID, String searchQuery, int state) {
+        String matchQuery = prepareFullTextQuery(searchQuery);
+        if (matchQuery.isEmpty()) {
+            return null;
+        }
+        String query = "SELECT " + KEYS_FEED_ITEM_WITHOUT_DESCRIPTION + ", " + KEYS_FEED_MEDIA + ", "
+                + "MIN(" + TABLE_NAME_TRANSCRIPT_INDEX + "." + KEY_START + ") AS " + KEY_START + ", "
+                + TABLE_NAME_TRANSCRIPT_INDEX + "." + KEY_WORDS
+                + " FROM " + TABLE_NAME_TRANSCRIPT_INDEX
+                + " INNER JOIN " + TABLE_NAME_FEED_MEDIA + " ON " + TABLE_NAME_FEED_MEDIA + "." + KEY_ID
+                + "=" + TABLE_NAME_TRANSCRIPT_INDEX + "." + KEY_MEDIA
+                + " INNER JOIN " + TABLE_NAME_FEED_ITEMS + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID
+                + "=" + TABLE_NAME_FEED_MEDIA + "." + KEY_FEEDITEM
+                + " WHERE " + TABLE_NAME_TRANSCRIPT_INDEX + " MATCH ?";
+        if (feedID != 0) {
+            query += " AND " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + " = " + feedID;
+        } else if (state == Feed.STATE_SUBSCRIBED) {
+            query += " AND " + SELECT_WHERE_FEED_IS_SUBSCRIBED;
+        }
+        // Bare columns of an aggregate query are taken from the row with the minimum start time
+        query += " GROUP BY " + TABLE_NAME_TRANSCRIPT_INDEX + "." + KEY_MEDIA
+                + " ORDER BY " + KEY_PUBDATE + " DESC LIMIT 300";
+        return db.rawQuery(query, new String[]{matchQuery});
+    }
+
+    /**
+     * Turns user input into an FTS query that matches all words, the last one as a prefix.
+     * Every word is quoted so that operators and special characters are matched literally.
+     */
+    private static String prepareFullTextQuery(String query) {
+        String[] words = query.replaceAll("[^\\p{L}\\p{N}]+", " ").trim().split(" ");
+        StringBuilder builder = new StringBuilder();
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (builder.length() != 0) {
+                builder.append("\" ");
+            }
+            builder.append('"').append(word);
+        }
+        if (builder.length() != 0) {
+            builder.append("*\"");
+        }
+        return builder.toString();
+    }
+
     /**
      * Insert raw data to the database.
      * Call method only for unit tests.
@@ -1574,6 +2135,12 @@ public class PodDBAdapter {
             db.execSQL(CREATE_TABLE_QUEUE);
             db.execSQL(CREATE_TABLE_SIMPLECHAPTERS);
             db.execSQL(CREATE_TABLE_FAVORITES);
+            db.execSQL(CREATE_TABLE_TRANSCRIPT_INDEX);
+            db.execSQL(CREATE_TABLE_EPISODE_ACTION_QUEUE);
+            db.execSQL(CREATE_TABLE_FEED_ITEM_DESCRIPTIONS);
+            db.execSQL(CREATE_TABLE_FEED_ITEM_SEARCH_TEXT);
+            db.execSQL(CREATE_TABLE_DAILY_PLAYED_TIME);
+            db.execSQL(CREATE_TABLE_RELEASE_PLAY_DELAYS);
 
             db.execSQL(CREATE_INDEX_FEEDITEMS_FEED);
             db.execSQL(CREATE_INDEX_FEEDITEMS_PUBDATE);
@@ -1581,6 +2148,8 @@ public class PodDBAdapter {
             db.execSQL(CREATE_INDEX_FEEDMEDIA_FEEDITEM);
             db.execSQL(CREATE_INDEX_QUEUE_FEEDITEM);
             db.execSQL(CREATE_INDEX_SIMPLECHAPTERS_FEEDITEM);
+            db.execSQL(CREATE_INDEX_FEEDITEMS_ITEM_IDENTIFIER);
+            db.execSQL(CREATE_INDEX_FEEDMEDIA_DOWNLOAD_URL);
         }
 
         @Override
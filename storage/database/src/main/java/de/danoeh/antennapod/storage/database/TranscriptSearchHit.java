@@ -0,0 +1,26 @@
+package de.danoeh.antennapod.storage.database;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+
+/**
+ * An episode whose transcript matches a search query.
+ */
+public class TranscriptSearchHit {
+    public final FeedItem item;
+
+    /**
+     * Start of the first matching transcript segment in milliseconds.
+     */
+    public final long startTime;
+
+    /**
+     * Words of the first matching transcript segment.
+     */
+    public final String words;
+
+    public TranscriptSearchHit(FeedItem item, long startTime, String words) {
+        this.item = item;
+        this.startTime = startTime;
+        this.words = words;
+    }
+}
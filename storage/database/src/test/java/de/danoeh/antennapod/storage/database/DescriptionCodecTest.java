@@ -0,0 +1,58 @@
+package de.danoeh.antennapod.storage.database;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DescriptionCodecTest {
+
+    @Test
+    public void testShortDescriptionIsNotCompressed() {
+        String description = "<p>Short</p>";
+        byte[] encoded = DescriptionCodec.encode(description);
+        assertEquals(description.length() + 1, encoded.length);
+        assertEquals(description, DescriptionCodec.decode(encoded));
+        assertEquals("", DescriptionCodec.decode(DescriptionCodec.encode("")));
+    }
+
+    @Test
+    public void testLongDescriptionIsCompressed() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            description.append("<p><a href=\"https://example.com/").append(i).append("\">Link ümlaut ")
+                    .append(i).append("</a></p>");
+        }
+        byte[] encoded = DescriptionCodec.encode(description.toString());
+        assertTrue(encoded.length < description.length() / 3);
+        assertEquals(description.toString(), DescriptionCodec.decode(encoded));
+    }
+
+    @Test
+    public void testIncompressibleDescription() {
+        Random random = new Random(1);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            description.append((char) (0x4e00 + random.nextInt(0x5000)));
+        }
+        assertEquals(description.toString(), DescriptionCodec.decode(DescriptionCodec.encode(description.toString())));
+    }
+
+    @Test
+    public void testInvalidData() {
+        assertNull(DescriptionCodec.decode(null));
+        assertNull(DescriptionCodec.decode(new byte[0]));
+        assertNull(DescriptionCodec.decode(new byte[] {42, 1, 2}));
+        assertNull(DescriptionCodec.decode(new byte[] {1, 1, 2, 3}));
+    }
+
+    @Test
+    public void testChecksum() {
+        assertEquals(DescriptionCodec.checksum("<p>Notes</p>"), DescriptionCodec.checksum("<p>Notes</p>"));
+        assertNotEquals(DescriptionCodec.checksum("<p>Notes</p>"), DescriptionCodec.checksum("<p>Notes!</p>"));
+    }
+}
@@ -18,6 +18,7 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -292,6 +293,28 @@ public class FeedDatabaseWriterTest {
         assertEquals("id 0-duplicate", updatedItem.getItemIdentifier()); // Should use the new ID for sync etc
     }
 
+    @Test
+    public void testAddNewFeedsSkipsKnownUrls() {
+        FeedDatabaseWriter.updateFeed(context, createFeed(), false);
+
+        List<Feed> newFeeds = new ArrayList<>();
+        for (String url : Arrays.asList("url", "url-1", "url-2", "url-1")) {
+            Feed feed = new Feed(url, null, "Title of " + url);
+            feed.setItems(Collections.emptyList());
+            newFeeds.add(feed);
+        }
+        List<Feed> addedFeeds = FeedDatabaseWriter.addNewFeeds(context, newFeeds);
+        assertEquals(2, addedFeeds.size());
+        assertSame(newFeeds.get(1), addedFeeds.get(0));
+        assertSame(newFeeds.get(2), addedFeeds.get(1));
+        assertTrue(addedFeeds.get(0).getId() != 0);
+
+        List<String> storedUrls = DBReader.getFeedListDownloadUrls();
+        Collections.sort(storedUrls);
+        assertEquals(Arrays.asList("url", "url-1", "url-2"), storedUrls);
+        assertEquals(0, DBReader.getFeed(addedFeeds.get(1).getId(), false, 0, 0).getLastRefreshAttempt());
+        assertTrue(FeedDatabaseWriter.addNewFeeds(context, newFeeds).isEmpty());
+    }
 
     @SuppressWarnings("SameParameterValue")
     private void updatedFeedTest(final Feed newFeed, long feedID, List<Long> itemIDs,
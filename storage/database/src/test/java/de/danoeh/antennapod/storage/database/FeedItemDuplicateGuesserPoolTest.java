@@ -8,7 +8,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 @RunWith(JUnit4.class)
@@ -29,6 +32,25 @@ public class FeedItemDuplicateGuesserPoolTest {
         assertSame(item1, pool.guessDuplicate(item2));
     }
 
+    @Test
+    public void testFindsDuplicateByTitleAndDate() {
+        Feed feed = new Feed("url", null, null);
+        FeedItem item1 = createItem("id1", "Title", feed);
+        item1.setPubDate(new Date(1000));
+        FeedItem item2 = createItem("id2", "Other title", feed);
+        item2.setPubDate(new Date(1000));
+        FeedItemDuplicateGuesserPool pool = new FeedItemDuplicateGuesserPool(Arrays.asList(item1, item2));
+
+        FeedItem sameDay = createItem("id3", " Title ", feed);
+        sameDay.setPubDate(new Date(2000));
+        assertSame(item1, pool.guessDuplicate(sameDay));
+
+        FeedItem otherDay = createItem("id4", "Title", feed);
+        otherDay.setMedia(new FeedMedia(otherDay, "url-other", 2, "mime"));
+        otherDay.setPubDate(new Date(3 * 24 * 60 * 60 * 1000L));
+        assertNull(pool.guessDuplicate(otherDay));
+    }
+
     private FeedItem createItem(String identifier, String title, Feed feed) {
         FeedItem item = new FeedItem();
         item.setItemIdentifier(identifier);
@@ -30,6 +30,7 @@ import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.storage.database.DBReader;
@@ -140,11 +141,13 @@ public class OpmlBackupAgent extends BackupAgentHelper {
             try {
                 ArrayList<OpmlElement> opmlElements = new OpmlReader().readDocument(reader);
                 mChecksum = digester == null ? null : digester.digest();
+                List<Feed> feeds = new ArrayList<>();
                 for (OpmlElement opmlElem : opmlElements) {
                     Feed feed = new Feed(opmlElem.getXmlUrl(), null, opmlElem.getText());
                     feed.setItems(Collections.emptyList());
-                    FeedDatabaseWriter.updateFeed(mContext, feed, false);
+                    feeds.add(feed);
                 }
+                FeedDatabaseWriter.addNewFeeds(mContext, feeds);
                 FeedUpdateManager.getInstance().runOnce(mContext);
             } catch (XmlPullParserException e) {
                 Log.e(TAG, "Error while parsing the OPML file", e);
@@ -10,6 +10,7 @@ public class SynchronizationSettings {
     private static final String LAST_SYNC_ATTEMPT_SUCCESS = "last_sync_attempt_success";
     private static final String LAST_EPISODE_ACTIONS_SYNC_TIMESTAMP = "last_episode_actions_sync_timestamp";
     private static final String LAST_SUBSCRIPTION_SYNC_TIMESTAMP = "last_sync_timestamp";
+    private static final String PLAYED_EPISODES_UPLOAD_PROGRESS = "played_episodes_upload_progress";
 
     private static SharedPreferences prefs;
 
@@ -26,6 +27,7 @@ public class SynchronizationSettings {
                 .putLong(LAST_SUBSCRIPTION_SYNC_TIMESTAMP, 0)
                 .putLong(LAST_EPISODE_ACTIONS_SYNC_TIMESTAMP, 0)
                 .putLong(LAST_SYNC_ATTEMPT_TIMESTAMP, 0)
+                .putInt(PLAYED_EPISODES_UPLOAD_PROGRESS, 0)
                 .apply();
     }
 
@@ -68,4 +70,15 @@ public class SynchronizationSettings {
     public static void setLastEpisodeActionSynchronizationAttemptTimestamp(long timestamp) {
         prefs.edit().putLong(LAST_EPISODE_ACTIONS_SYNC_TIMESTAMP, timestamp).apply();
     }
+
+    /**
+     * Number of played episodes that were already uploaded during the first synchronization.
+     */
+    public static int getPlayedEpisodesUploadProgress() {
+        return prefs.getInt(PLAYED_EPISODES_UPLOAD_PROGRESS, 0);
+    }
+
+    public static void setPlayedEpisodesUploadProgress(int uploaded) {
+        prefs.edit().putInt(PLAYED_EPISODES_UPLOAD_PROGRESS, uploaded).apply();
+    }
 }
@@ -23,6 +23,7 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -108,6 +109,7 @@ public abstract class UserPreferences {
     public static final String PREF_MOBILE_UPDATE = "prefMobileUpdateTypes";
     public static final String PREF_EPISODE_CLEANUP = "prefEpisodeCleanup";
     public static final String PREF_EPISODE_CACHE_SIZE = "prefEpisodeCacheSize";
+    public static final String PREF_STREAMING_CACHE_SIZE = "prefStreamingCacheSize";
     public static final String PREF_AUTODL_GLOBAL = "prefEnableAutoDl";
     public static final String PREF_AUTODL_QUEUE = "prefEnableAutoDlQueue";
     public static final String PREF_ENABLE_AUTODL_ON_BATTERY = "prefEnableAutoDownloadOnBattery";
@@ -150,6 +152,15 @@ public abstract class UserPreferences {
 
     private static Context context;
     private static SharedPreferences prefs;
+    private static volatile Snapshot snapshot;
+    /**
+     * SharedPreferences only keeps a weak reference to its listeners.
+     */
+    private static final SharedPreferences.OnSharedPreferenceChangeListener snapshotUpdater = (preferences, key) -> {
+        if (key == null || Snapshot.KEYS.contains(key)) {
+            refreshSnapshot();
+        }
+    };
 
     /**
      * Sets up the UserPreferences class.
@@ -161,10 +172,30 @@ public abstract class UserPreferences {
 
         UserPreferences.context = context.getApplicationContext();
         UserPreferences.prefs = PreferenceManager.getDefaultSharedPreferences(context);
+        refreshSnapshot();
+        prefs.registerOnSharedPreferenceChangeListener(snapshotUpdater);
 
         createNoMediaFile();
     }
 
+    /**
+     * Returns the parsed values of the preferences that are read frequently, for example while binding lists
+     * or during playback. Reading them does not need to parse anything or acquire a lock.
+     * The snapshot is replaced whenever one of its preferences changes.
+     */
+    @NonNull
+    public static Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Called after every change. Changes made on other threads than the main thread are only reported
+     * to the listener later, so the setters of this class also call it directly.
+     */
+    private static synchronized void refreshSnapshot() {
+        snapshot = new Snapshot(prefs);
+    }
+
     public enum ThemePreference {
         LIGHT, DARK, BLACK, SYSTEM
     }
@@ -258,15 +289,7 @@ public abstract class UserPreferences {
     }
 
     public static List<Integer> getFullNotificationButtons() {
-        String[] buttons = TextUtils.split(
-                prefs.getString(PREF_FULL_NOTIFICATION_BUTTONS,
-                NOTIFICATION_BUTTON_SKIP + "," + NOTIFICATION_BUTTON_PLAYBACK_SPEED), ",");
-
-        List<Integer> notificationButtons = new ArrayList<>();
-        for (String button : buttons) {
-            notificationButtons.add(Integer.parseInt(button));
-        }
-        return notificationButtons;
+        return new ArrayList<>(snapshot.fullNotificationButtons);
     }
 
     /**
@@ -279,7 +302,7 @@ public abstract class UserPreferences {
      * @return {@code true} if button should be shown, {@code false}  otherwise
      */
     private static boolean showButtonOnFullNotification(int buttonId) {
-        return getFullNotificationButtons().contains(buttonId);
+        return snapshot.fullNotificationButtons.contains(buttonId);
     }
 
     public static boolean showSkipOnFullNotification() {
@@ -320,14 +343,14 @@ public abstract class UserPreferences {
      * @return {@code true} if episodes should use their own cover, {@code false}  otherwise
      */
     public static boolean getUseEpisodeCoverSetting() {
-        return prefs.getBoolean(PREF_USE_EPISODE_COVER, true);
+        return snapshot.useEpisodeCover;
     }
 
     /**
      * @return {@code true} if we should show remaining time or the duration
      */
     public static boolean shouldShowRemainingTime() {
-        return prefs.getBoolean(PREF_SHOW_TIME_LEFT, false);
+        return snapshot.showRemainingTime;
     }
 
     /**
@@ -338,6 +361,7 @@ public abstract class UserPreferences {
      */
     public static void setShowRemainTimeSetting(Boolean showRemain) {
         prefs.edit().putBoolean(PREF_SHOW_TIME_LEFT, showRemain).apply();
+        refreshSnapshot();
     }
 
     @Nullable
@@ -388,20 +412,14 @@ public abstract class UserPreferences {
 
     @NonNull
     public static EnqueueLocation getEnqueueLocation() {
-        String valStr = prefs.getString(PREF_ENQUEUE_LOCATION, EnqueueLocation.BACK.name());
-        try {
-            return EnqueueLocation.valueOf(valStr);
-        } catch (Throwable t) {
-            // should never happen but just in case
-            Log.e(TAG, "getEnqueueLocation: invalid value '" + valStr + "' Use default.", t);
-            return EnqueueLocation.BACK;
-        }
+        return snapshot.enqueueLocation;
     }
 
     public static void setEnqueueLocation(@NonNull EnqueueLocation location) {
         prefs.edit()
                 .putString(PREF_ENQUEUE_LOCATION, location.name())
                 .apply();
+        refreshSnapshot();
     }
 
     public static boolean isPauseOnHeadsetDisconnect() {
@@ -417,18 +435,16 @@ public abstract class UserPreferences {
     }
 
     public static int getHardwareForwardButton() {
-        return Integer.parseInt(prefs.getString(PREF_HARDWARE_FORWARD_BUTTON,
-                String.valueOf(KeyEvent.KEYCODE_MEDIA_FAST_FORWARD)));
+        return snapshot.hardwareForwardButton;
     }
 
     public static int getHardwarePreviousButton() {
-        return Integer.parseInt(prefs.getString(PREF_HARDWARE_PREVIOUS_BUTTON,
-                String.valueOf(KeyEvent.KEYCODE_MEDIA_REWIND)));
+        return snapshot.hardwarePreviousButton;
     }
 
 
     public static boolean isFollowQueue() {
-        return prefs.getBoolean(PREF_FOLLOW_QUEUE, true);
+        return snapshot.followQueue;
     }
 
     /**
@@ -436,6 +452,7 @@ public abstract class UserPreferences {
      */
     public static void setFollowQueue(boolean value) {
         prefs.edit().putBoolean(UserPreferences.PREF_FOLLOW_QUEUE, value).apply();
+        refreshSnapshot();
     }
 
     public static boolean shouldSkipKeepEpisode() {
@@ -455,7 +472,7 @@ public abstract class UserPreferences {
     }
 
     public static int getSmartMarkAsPlayedSecs() {
-        return Integer.parseInt(prefs.getString(PREF_SMART_MARK_AS_PLAYED_SECS, "30"));
+        return snapshot.smartMarkAsPlayedSecs;
     }
 
     public static boolean shouldDeleteRemoveFromQueue() {
@@ -467,21 +484,15 @@ public abstract class UserPreferences {
     }
 
     public static float getPlaybackSpeed() {
-        try {
-            return Float.parseFloat(prefs.getString(PREF_PLAYBACK_SPEED, "1.00"));
-        } catch (NumberFormatException e) {
-            Log.e(TAG, Log.getStackTraceString(e));
-            UserPreferences.setPlaybackSpeed(1.0f);
-            return 1.0f;
-        }
+        return snapshot.playbackSpeed;
     }
 
     public static boolean isSkipSilence() {
-        return prefs.getBoolean(PREF_PLAYBACK_SKIP_SILENCE, false);
+        return snapshot.skipSilence;
     }
 
     public static List<Float> getPlaybackSpeedArray() {
-        return readPlaybackSpeedArray(prefs.getString(PREF_PLAYBACK_SPEED_ARRAY, null));
+        return new ArrayList<>(snapshot.playbackSpeedArray);
     }
 
     public static boolean shouldPauseForFocusLoss() {
@@ -489,11 +500,12 @@ public abstract class UserPreferences {
     }
 
     public static long getUpdateInterval() {
-        return Integer.parseInt(prefs.getString(PREF_UPDATE_INTERVAL_MINUTES, "720"));
+        return snapshot.updateInterval;
     }
 
     public static void setUpdateInterval(long interval) {
         prefs.edit().putString(PREF_UPDATE_INTERVAL_MINUTES, String.valueOf(interval)).apply();
+        refreshSnapshot();
     }
 
     public static boolean isAutoUpdateDisabled() {
@@ -501,10 +513,7 @@ public abstract class UserPreferences {
     }
 
     private static boolean isAllowMobileFor(String type) {
-        HashSet<String> defaultValue = new HashSet<>();
-        defaultValue.add("images");
-        Set<String> allowed = prefs.getStringSet(PREF_MOBILE_UPDATE, defaultValue);
-        return allowed.contains(type);
+        return snapshot.allowedMobile.contains(type);
     }
 
     public static boolean isAllowMobileFeedRefresh() {
@@ -542,6 +551,7 @@ public abstract class UserPreferences {
             allowed.remove(type);
         }
         prefs.edit().putStringSet(PREF_MOBILE_UPDATE, allowed).apply();
+        refreshSnapshot();
     }
 
     public static void setAllowMobileFeedRefresh(boolean allow) {
@@ -574,27 +584,34 @@ public abstract class UserPreferences {
      * 'unlimited'.
      */
     public static int getEpisodeCacheSize() {
-        return Integer.parseInt(prefs.getString(PREF_EPISODE_CACHE_SIZE, "20"));
+        return snapshot.episodeCacheSize;
+    }
+
+    /**
+     * Returns the maximum size of the cache for streamed episodes, in bytes.
+     */
+    public static long getStreamingCacheSize() {
+        return Long.parseLong(prefs.getString(PREF_STREAMING_CACHE_SIZE, "100")) * 1024 * 1024;
     }
 
     public static boolean isEnableAutodownloadGlobal() {
-        return prefs.getBoolean(PREF_AUTODL_GLOBAL, false);
+        return snapshot.autodownloadGlobal;
     }
 
     public static boolean isEnableAutodownloadQueue() {
-        return prefs.getBoolean(PREF_AUTODL_QUEUE, false);
+        return snapshot.autodownloadQueue;
     }
 
     public static boolean isEnableAutodownloadOnBattery() {
-        return prefs.getBoolean(PREF_ENABLE_AUTODL_ON_BATTERY, true);
+        return snapshot.autodownloadOnBattery;
     }
 
     public static int getFastForwardSecs() {
-        return prefs.getInt(PREF_FAST_FORWARD_SECS, 30);
+        return snapshot.fastForwardSecs;
     }
 
     public static int getRewindSecs() {
-        return prefs.getInt(PREF_REWIND_SECS, 10);
+        return snapshot.rewindSecs;
     }
 
     public static void setProxyConfig(ProxyConfig config) {
@@ -633,23 +650,27 @@ public abstract class UserPreferences {
     }
 
     public static boolean isQueueLocked() {
-        return prefs.getBoolean(PREF_QUEUE_LOCKED, false);
+        return snapshot.queueLocked;
     }
 
     public static void setFastForwardSecs(int secs) {
         prefs.edit().putInt(PREF_FAST_FORWARD_SECS, secs).apply();
+        refreshSnapshot();
     }
 
     public static void setRewindSecs(int secs) {
         prefs.edit().putInt(PREF_REWIND_SECS, secs).apply();
+        refreshSnapshot();
     }
 
     public static void setPlaybackSpeed(float speed) {
         prefs.edit().putString(PREF_PLAYBACK_SPEED, String.valueOf(speed)).apply();
+        refreshSnapshot();
     }
 
     public static void setSkipSilence(boolean skipSilence) {
         prefs.edit().putBoolean(PREF_PLAYBACK_SKIP_SILENCE, skipSilence).apply();
+        refreshSnapshot();
     }
 
     public static void setPlaybackSpeedArray(List<Float> speeds) {
@@ -661,6 +682,7 @@ public abstract class UserPreferences {
             jsonArray.put(speedFormat.format(speed));
         }
         prefs.edit().putString(PREF_PLAYBACK_SPEED_ARRAY, jsonArray.toString()).apply();
+        refreshSnapshot();
     }
 
     public static boolean gpodnetNotificationsEnabled() {
@@ -684,10 +706,12 @@ public abstract class UserPreferences {
     public static void setFullNotificationButtons(List<Integer> items) {
         String str = TextUtils.join(",", items);
         prefs.edit().putString(PREF_FULL_NOTIFICATION_BUTTONS, str).apply();
+        refreshSnapshot();
     }
 
     public static void setQueueLocked(boolean locked) {
         prefs.edit().putBoolean(PREF_QUEUE_LOCKED, locked).apply();
+        refreshSnapshot();
     }
 
     private static List<Float> readPlaybackSpeedArray(String valueFromPrefs) {
@@ -709,11 +733,12 @@ public abstract class UserPreferences {
     }
 
     public static int getEpisodeCleanupValue() {
-        return Integer.parseInt(prefs.getString(PREF_EPISODE_CLEANUP, "" + EPISODE_CLEANUP_NULL));
+        return snapshot.episodeCleanupValue;
     }
 
     public static void setEpisodeCleanupValue(int episodeCleanupValue) {
         prefs.edit().putString(PREF_EPISODE_CLEANUP, Integer.toString(episodeCleanupValue)).apply();
+        refreshSnapshot();
     }
 
     /**
@@ -799,7 +824,7 @@ public abstract class UserPreferences {
     }
 
     public static boolean timeRespectsSpeed() {
-        return prefs.getBoolean(PREF_TIME_RESPECTS_SPEED, false);
+        return snapshot.timeRespectsSpeed;
     }
 
     public static boolean isStreamOverDownload() {
@@ -816,7 +841,7 @@ public abstract class UserPreferences {
      * @see #getQueueKeepSortedOrder()
      */
     public static boolean isQueueKeepSorted() {
-        return prefs.getBoolean(PREF_QUEUE_KEEP_SORTED, false);
+        return snapshot.queueKeepSorted;
     }
 
     /**
@@ -826,6 +851,7 @@ public abstract class UserPreferences {
      */
     public static void setQueueKeepSorted(boolean keepSorted) {
         prefs.edit().putBoolean(PREF_QUEUE_KEEP_SORTED, keepSorted).apply();
+        refreshSnapshot();
     }
 
     /**
@@ -835,8 +861,7 @@ public abstract class UserPreferences {
      * @see #isQueueKeepSorted()
      */
     public static SortOrder getQueueKeepSortedOrder() {
-        String sortOrderStr = prefs.getString(PREF_QUEUE_KEEP_SORTED_ORDER, "use-default");
-        return SortOrder.parseWithDefault(sortOrderStr, SortOrder.DATE_NEW_OLD);
+        return snapshot.queueKeepSortedOrder;
     }
 
     /**
@@ -849,6 +874,7 @@ public abstract class UserPreferences {
             return;
         }
         prefs.edit().putString(PREF_QUEUE_KEEP_SORTED_ORDER, sortOrder.name()).apply();
+        refreshSnapshot();
     }
 
     public static FeedPreferences.NewEpisodesAction getNewEpisodesAction() {
@@ -1001,4 +1027,121 @@ public abstract class UserPreferences {
     public static void setAutoNormalizeVolume(boolean enabled) {
         prefs.edit().putBoolean(PREF_AUTO_NORMALIZE_VOLUME, enabled).apply();
     }
+
+    /**
+     * Immutable, parsed values of the preferences that are read frequently.
+     *
+     * @see #getSnapshot()
+     */
+    public static final class Snapshot {
+        static final Set<String> KEYS = new HashSet<>(Arrays.asList(PREF_FULL_NOTIFICATION_BUTTONS,
+                PREF_USE_EPISODE_COVER, PREF_SHOW_TIME_LEFT, PREF_ENQUEUE_LOCATION, PREF_HARDWARE_FORWARD_BUTTON,
+                PREF_HARDWARE_PREVIOUS_BUTTON, PREF_FOLLOW_QUEUE, PREF_SMART_MARK_AS_PLAYED_SECS, PREF_PLAYBACK_SPEED,
+                PREF_PLAYBACK_SKIP_SILENCE, PREF_PLAYBACK_SPEED_ARRAY, PREF_TIME_RESPECTS_SPEED,
+                PREF_UPDATE_INTERVAL_MINUTES, PREF_MOBILE_UPDATE, PREF_EPISODE_CACHE_SIZE, PREF_EPISODE_CLEANUP,
+                PREF_AUTODL_GLOBAL, PREF_AUTODL_QUEUE, PREF_ENABLE_AUTODL_ON_BATTERY, PREF_FAST_FORWARD_SECS,
+                PREF_REWIND_SECS, PREF_QUEUE_LOCKED, PREF_QUEUE_KEEP_SORTED, PREF_QUEUE_KEEP_SORTED_ORDER));
+
+        public final List<Integer> fullNotificationButtons;
+        public final boolean useEpisodeCover;
+        public final boolean showRemainingTime;
+        @NonNull
+        public final EnqueueLocation enqueueLocation;
+        public final int hardwareForwardButton;
+        public final int hardwarePreviousButton;
+        public final boolean followQueue;
+        public final int smartMarkAsPlayedSecs;
+        public final float playbackSpeed;
+        public final boolean skipSilence;
+        public final List<Float> playbackSpeedArray;
+        public final boolean timeRespectsSpeed;
+        public final long updateInterval;
+        public final Set<String> allowedMobile;
+        public final int episodeCacheSize;
+        public final int episodeCleanupValue;
+        public final boolean autodownloadGlobal;
+        public final boolean autodownloadQueue;
+        public final boolean autodownloadOnBattery;
+        public final int fastForwardSecs;
+        public final int rewindSecs;
+        public final boolean queueLocked;
+        public final boolean queueKeepSorted;
+        public final SortOrder queueKeepSortedOrder;
+
+        Snapshot(SharedPreferences prefs) {
+            List<Integer> buttons = new ArrayList<>();
+            for (String button : TextUtils.split(prefs.getString(PREF_FULL_NOTIFICATION_BUTTONS,
+                    NOTIFICATION_BUTTON_SKIP + "," + NOTIFICATION_BUTTON_PLAYBACK_SPEED), ",")) {
+                try {
+                    buttons.add(Integer.parseInt(button));
+                } catch (NumberFormatException e) {
+                    Log.e(TAG, "Invalid notification button: " + button);
+                }
+            }
+            fullNotificationButtons = Collections.unmodifiableList(buttons);
+            useEpisodeCover = prefs.getBoolean(PREF_USE_EPISODE_COVER, true);
+            showRemainingTime = prefs.getBoolean(PREF_SHOW_TIME_LEFT, false);
+            enqueueLocation = parseEnqueueLocation(prefs.getString(PREF_ENQUEUE_LOCATION, EnqueueLocation.BACK.name()));
+            hardwareForwardButton = parseInt(prefs, PREF_HARDWARE_FORWARD_BUTTON, KeyEvent.KEYCODE_MEDIA_FAST_FORWARD);
+            hardwarePreviousButton = parseInt(prefs, PREF_HARDWARE_PREVIOUS_BUTTON, KeyEvent.KEYCODE_MEDIA_REWIND);
+            followQueue = prefs.getBoolean(PREF_FOLLOW_QUEUE, true);
+            smartMarkAsPlayedSecs = parseInt(prefs, PREF_SMART_MARK_AS_PLAYED_SECS, 30);
+            playbackSpeed = parsePlaybackSpeed(prefs.getString(PREF_PLAYBACK_SPEED, "1.00"));
+            skipSilence = prefs.getBoolean(PREF_PLAYBACK_SKIP_SILENCE, false);
+            playbackSpeedArray = Collections.unmodifiableList(
+                    readPlaybackSpeedArray(prefs.getString(PREF_PLAYBACK_SPEED_ARRAY, null)));
+            timeRespectsSpeed = prefs.getBoolean(PREF_TIME_RESPECTS_SPEED, false);
+            updateInterval = parseInt(prefs, PREF_UPDATE_INTERVAL_MINUTES, 720);
+            allowedMobile = Collections.unmodifiableSet(new HashSet<>(
+                    prefs.getStringSet(PREF_MOBILE_UPDATE, Collections.singleton("images"))));
+            episodeCacheSize = parseInt(prefs, PREF_EPISODE_CACHE_SIZE, 20);
+            episodeCleanupValue = parseInt(prefs, PREF_EPISODE_CLEANUP, EPISODE_CLEANUP_NULL);
+            autodownloadGlobal = prefs.getBoolean(PREF_AUTODL_GLOBAL, false);
+            autodownloadQueue = prefs.getBoolean(PREF_AUTODL_QUEUE, false);
+            autodownloadOnBattery = prefs.getBoolean(PREF_ENABLE_AUTODL_ON_BATTERY, true);
+            fastForwardSecs = prefs.getInt(PREF_FAST_FORWARD_SECS, 30);
+            rewindSecs = prefs.getInt(PREF_REWIND_SECS, 10);
+            queueLocked = prefs.getBoolean(PREF_QUEUE_LOCKED, false);
+            queueKeepSorted = prefs.getBoolean(PREF_QUEUE_KEEP_SORTED, false);
+            queueKeepSortedOrder = SortOrder.parseWithDefault(
+                    prefs.getString(PREF_QUEUE_KEEP_SORTED_ORDER, "use-default"), SortOrder.DATE_NEW_OLD);
+        }
+
+        /**
+         * Integer preferences that are edited with a list preference are stored as strings.
+         * Invalid values are replaced with the default, so a single bad value does not break every preference.
+         */
+        private static int parseInt(SharedPreferences prefs, String key, int defaultValue) {
+            String value = prefs.getString(key, null);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                Log.e(TAG, "Invalid value for " + key + ": " + value);
+                return defaultValue;
+            }
+        }
+
+        @NonNull
+        private static EnqueueLocation parseEnqueueLocation(String value) {
+            try {
+                return EnqueueLocation.valueOf(value);
+            } catch (Throwable t) {
+                // should never happen but just in case
+                Log.e(TAG, "getEnqueueLocation: invalid value '" + value + "' Use default.", t);
+                return EnqueueLocation.BACK;
+            }
+        }
+
+        private static float parsePlaybackSpeed(String value) {
+            try {
+                return Float.parseFloat(value);
+            } catch (NumberFormatException e) {
+                Log.e(TAG, Log.getStackTraceString(e));
+                return 1.0f;
+            }
+        }
+    }
 }
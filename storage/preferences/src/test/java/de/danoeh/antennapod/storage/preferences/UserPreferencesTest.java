@@ -0,0 +1,143 @@
+package de.danoeh.antennapod.storage.preferences;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import android.view.KeyEvent;
+
+import androidx.preference.PreferenceManager;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class UserPreferencesTest {
+    private static final String TAG = "UserPreferencesTest";
+    private SharedPreferences prefs;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        prefs = PreferenceManager.getDefaultSharedPreferences(context);
+        prefs.edit().clear().commit();
+        UserPreferences.init(context);
+    }
+
+    @Test
+    public void testDefaults() {
+        assertEquals(30, UserPreferences.getFastForwardSecs());
+        assertEquals(10, UserPreferences.getRewindSecs());
+        assertEquals(30, UserPreferences.getSmartMarkAsPlayedSecs());
+        assertEquals(20, UserPreferences.getEpisodeCacheSize());
+        assertEquals(1.0f, UserPreferences.getPlaybackSpeed(), 0.001f);
+        assertEquals(KeyEvent.KEYCODE_MEDIA_FAST_FORWARD, UserPreferences.getHardwareForwardButton());
+        assertEquals(UserPreferences.EnqueueLocation.BACK, UserPreferences.getEnqueueLocation());
+        assertTrue(UserPreferences.isAllowMobileImages());
+        assertFalse(UserPreferences.isAllowMobileStreaming());
+    }
+
+    @Test
+    public void testSettersUpdateSnapshot() {
+        UserPreferences.Snapshot before = UserPreferences.getSnapshot();
+        UserPreferences.setFastForwardSecs(45);
+        UserPreferences.setPlaybackSpeed(1.5f);
+        UserPreferences.setAllowMobileStreaming(true);
+
+        assertEquals(45, UserPreferences.getFastForwardSecs());
+        assertEquals(1.5f, UserPreferences.getPlaybackSpeed(), 0.001f);
+        assertTrue(UserPreferences.isAllowMobileStreaming());
+        assertEquals(30, before.fastForwardSecs);
+        assertNotSame(before, UserPreferences.getSnapshot());
+    }
+
+    @Test
+    public void testExternalChangesUpdateSnapshot() {
+        prefs.edit().putString(UserPreferences.PREF_EPISODE_CACHE_SIZE, "5")
+                .putString(UserPreferences.PREF_ENQUEUE_LOCATION, UserPreferences.EnqueueLocation.FRONT.name())
+                .commit();
+        assertEquals(5, UserPreferences.getEpisodeCacheSize());
+        assertEquals(UserPreferences.EnqueueLocation.FRONT, UserPreferences.getEnqueueLocation());
+    }
+
+    @Test
+    public void testUnrelatedChangeKeepsSnapshot() {
+        UserPreferences.Snapshot before = UserPreferences.getSnapshot();
+        prefs.edit().putString("someOtherPreference", "value").commit();
+        assertSame(before, UserPreferences.getSnapshot());
+    }
+
+    @Test
+    public void testInvalidValuesFallBackToDefault() {
+        prefs.edit().putString(UserPreferences.PREF_SMART_MARK_AS_PLAYED_SECS, "abc")
+                .putString(UserPreferences.PREF_ENQUEUE_LOCATION, "NOWHERE")
+                .commit();
+        assertEquals(30, UserPreferences.getSmartMarkAsPlayedSecs());
+        assertEquals(UserPreferences.EnqueueLocation.BACK, UserPreferences.getEnqueueLocation());
+    }
+
+    @Test
+    public void testMobileUpdateChangeUpdatesSnapshot() {
+        Set<String> allowed = new HashSet<>(Arrays.asList("images", "streaming"));
+        prefs.edit().putStringSet(UserPreferences.PREF_MOBILE_UPDATE, allowed).commit();
+        assertTrue(UserPreferences.isAllowMobileStreaming());
+
+        prefs.edit().putStringSet(UserPreferences.PREF_MOBILE_UPDATE, Collections.emptySet()).commit();
+        assertFalse(UserPreferences.isAllowMobileStreaming());
+        assertFalse(UserPreferences.isAllowMobileImages());
+    }
+
+    /**
+     * Compares reading from the snapshot with parsing the preferences on every call, like the getters used to do.
+     * Timing depends on the machine, so this only runs when started manually and logs the results.
+     */
+    @Ignore("Benchmark, run manually")
+    @Test
+    public void benchmarkSnapshotAgainstParsing() {
+        final int iterations = 200_000;
+        prefs.edit().putString(UserPreferences.PREF_EPISODE_CACHE_SIZE, "50")
+                .putString(UserPreferences.PREF_SMART_MARK_AS_PLAYED_SECS, "20")
+                .commit();
+        Set<String> defaultMobile = Collections.singleton("images");
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum += Integer.parseInt(prefs.getString(UserPreferences.PREF_EPISODE_CACHE_SIZE, "20"));
+                checksum += Integer.parseInt(prefs.getString(UserPreferences.PREF_SMART_MARK_AS_PLAYED_SECS, "30"));
+                checksum += prefs.getStringSet(UserPreferences.PREF_MOBILE_UPDATE, defaultMobile)
+                        .contains("streaming") ? 1 : 0;
+            }
+            long parsingNanos = System.nanoTime() - start;
+
+            long snapshotChecksum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                snapshotChecksum += UserPreferences.getEpisodeCacheSize();
+                snapshotChecksum += UserPreferences.getSmartMarkAsPlayedSecs();
+                snapshotChecksum += UserPreferences.isAllowMobileStreaming() ? 1 : 0;
+            }
+            long snapshotNanos = System.nanoTime() - start;
+
+            assertEquals(70L * iterations, checksum);
+            assertEquals(checksum, snapshotChecksum);
+            Log.d(TAG, String.format(Locale.US, "Parsing: %.1f ns/op, snapshot: %.1f ns/op",
+                    (double) parsingNanos / iterations, (double) snapshotNanos / iterations));
+        }
+    }
+}
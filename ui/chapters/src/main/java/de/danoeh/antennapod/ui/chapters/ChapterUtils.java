@@ -28,6 +28,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -84,8 +86,8 @@ public class ChapterUtils {
 
     public static List<Chapter> loadChaptersFromMediaFile(Playable playable, Context context)
             throws InterruptedIOException {
-        try (CountingInputStream in = openStream(playable, context)) {
-            List<Chapter> chapters = readId3ChaptersFrom(in);
+        try {
+            List<Chapter> chapters = readId3Chapters(playable, context);
             if (!chapters.isEmpty()) {
                 Log.i(TAG, "Chapters loaded");
                 return chapters;
@@ -108,8 +110,8 @@ public class ChapterUtils {
             Log.e(TAG, "Unable to load vorbis chapters: " + e.getMessage());
         }
 
-        try (CountingInputStream in = openStream(playable, context)) {
-            List<Chapter> chapters = readM4AChaptersFromInputStream(in);
+        try {
+            List<Chapter> chapters = readM4AChapters(playable, context);
             if (!chapters.isEmpty()) {
                 Log.i(TAG, "Chapters loaded");
                 return chapters;
@@ -123,6 +125,33 @@ public class ChapterUtils {
         return null;
     }
 
+    private static List<Chapter> readId3Chapters(Playable playable, Context context)
+            throws IOException, ID3ReaderException {
+        if (playable.localFileAvailable() && playable.getLocalFileUrl() != null) {
+            File source = new File(playable.getLocalFileUrl());
+            if (source.exists()) {
+                return readId3ChaptersFrom(new ChapterReader(ChapterReader.mapFile(source)));
+            }
+        }
+        try (CountingInputStream in = openStream(playable, context)) {
+            return readId3ChaptersFrom(new ChapterReader(in));
+        }
+    }
+
+    private static List<Chapter> readM4AChapters(Playable playable, Context context) throws IOException {
+        if (playable.localFileAvailable() && playable.getLocalFileUrl() != null) {
+            File source = new File(playable.getLocalFileUrl());
+            if (source.exists()) {
+                try (FileChannel channel = new RandomAccessFile(source, "r").getChannel()) {
+                    return readM4AChaptersFrom(new M4AChapterReader(channel));
+                }
+            }
+        }
+        try (CountingInputStream in = openStream(playable, context)) {
+            return readM4AChaptersFrom(new M4AChapterReader(new BufferedInputStream(in)));
+        }
+    }
+
     private static CountingInputStream openStream(Playable playable, Context context) throws IOException {
         if (playable.localFileAvailable()) {
             if (playable.getLocalFileUrl() == null) {
@@ -180,8 +209,7 @@ public class ChapterUtils {
     }
 
     @NonNull
-    private static List<Chapter> readId3ChaptersFrom(CountingInputStream in) throws IOException, ID3ReaderException {
-        ChapterReader reader = new ChapterReader(in);
+    private static List<Chapter> readId3ChaptersFrom(ChapterReader reader) throws IOException, ID3ReaderException {
         reader.readInputStream();
         List<Chapter> chapters = reader.getChapters();
         Collections.sort(chapters, new ChapterStartTimeComparator());
@@ -210,8 +238,7 @@ public class ChapterUtils {
     }
 
     @NonNull
-    private static List<Chapter> readM4AChaptersFromInputStream(InputStream input) {
-        M4AChapterReader reader = new M4AChapterReader(new BufferedInputStream(input));
+    private static List<Chapter> readM4AChaptersFrom(M4AChapterReader reader) {
         reader.readInputStream();
         List<Chapter> chapters = reader.getChapters();
         if (chapters == null) {
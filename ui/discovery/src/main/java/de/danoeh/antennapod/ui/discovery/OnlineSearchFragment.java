@@ -22,11 +22,13 @@ import com.google.android.material.appbar.MaterialToolbar;
 import java.util.ArrayList;
 import java.util.List;
 
+import de.danoeh.antennapod.net.discovery.CombinedSearcher;
 import de.danoeh.antennapod.net.discovery.PodcastSearchResult;
 import de.danoeh.antennapod.net.discovery.PodcastSearcher;
 import de.danoeh.antennapod.net.discovery.PodcastSearcherRegistry;
 import de.danoeh.antennapod.ui.appstartintent.OnlineFeedviewActivityStarter;
 import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.subjects.PublishSubject;
 
 public class OnlineSearchFragment extends Fragment {
 
@@ -50,6 +52,12 @@ public class OnlineSearchFragment extends Fragment {
      */
     private List<PodcastSearchResult> searchResults;
     private Disposable disposable;
+    /**
+     * Only used with the {@link CombinedSearcher}, which searches while the user is typing.
+     */
+    private final PublishSubject<String> typedQueries = PublishSubject.create();
+    private final PublishSubject<String> submittedQueries = PublishSubject.create();
+    private String shownQuery = "";
 
     public static OnlineSearchFragment newInstance(Class<? extends PodcastSearcher> searchProvider) {
         return newInstance(searchProvider, null);
@@ -105,6 +113,15 @@ public class OnlineSearchFragment extends Fragment {
         txtvEmpty = root.findViewById(android.R.id.empty);
         TextView txtvPoweredBy = root.findViewById(R.id.search_powered_by);
         txtvPoweredBy.setText(getString(R.string.search_powered_by, searchProvider.getName()));
+        if (searchProvider instanceof CombinedSearcher) {
+            if (disposable != null) {
+                disposable.dispose();
+            }
+            disposable = ((CombinedSearcher) searchProvider).searchAsYouType(typedQueries, submittedQueries)
+                    .subscribe(partialResults -> showResults(partialResults.query,
+                            partialResults.results, partialResults.isComplete),
+                        error -> Log.e(TAG, Log.getStackTraceString(error)));
+        }
         setupToolbar(root.findViewById(R.id.toolbar));
 
         gridView.setOnScrollListener(new AbsListView.OnScrollListener() {
@@ -144,12 +161,22 @@ public class OnlineSearchFragment extends Fragment {
             @Override
             public boolean onQueryTextSubmit(String s) {
                 sv.clearFocus();
-                search(s);
+                if (searchProvider instanceof CombinedSearcher) {
+                    if (!CombinedSearcher.normalizeQuery(s).equals(CombinedSearcher.normalizeQuery(shownQuery))) {
+                        showOnlyProgressBar();
+                    }
+                    submittedQueries.onNext(s);
+                } else {
+                    search(s);
+                }
                 return true;
             }
 
             @Override
             public boolean onQueryTextChange(String s) {
+                if (searchProvider instanceof CombinedSearcher) {
+                    typedQueries.onNext(s);
+                }
                 return false;
             }
         });
@@ -183,14 +210,7 @@ public class OnlineSearchFragment extends Fragment {
         }
         showOnlyProgressBar();
         disposable = searchProvider.search(query).subscribe(result -> {
-            searchResults = result;
-            progressBar.setVisibility(View.GONE);
-            adapter.clear();
-            adapter.addAll(searchResults);
-            adapter.notifyDataSetInvalidated();
-            gridView.setVisibility(!searchResults.isEmpty() ? View.VISIBLE : View.GONE);
-            txtvEmpty.setVisibility(searchResults.isEmpty() ? View.VISIBLE : View.GONE);
-            txtvEmpty.setText(getString(R.string.no_results_for_query, query));
+            showResults(query, result, true);
         }, error -> {
                 Log.e(TAG, Log.getStackTraceString(error));
                 progressBar.setVisibility(View.GONE);
@@ -201,6 +221,23 @@ public class OnlineSearchFragment extends Fragment {
             });
     }
 
+    private void showResults(String query, List<PodcastSearchResult> results, boolean isComplete) {
+        if (results.isEmpty() && !isComplete) {
+            return; // Wait for the other providers
+        }
+        searchResults = results;
+        shownQuery = query;
+        progressBar.setVisibility(View.GONE);
+        txtvError.setVisibility(View.GONE);
+        butRetry.setVisibility(View.GONE);
+        adapter.clear();
+        adapter.addAll(searchResults);
+        adapter.notifyDataSetInvalidated();
+        gridView.setVisibility(!searchResults.isEmpty() ? View.VISIBLE : View.GONE);
+        txtvEmpty.setVisibility(searchResults.isEmpty() ? View.VISIBLE : View.GONE);
+        txtvEmpty.setText(getString(R.string.no_results_for_query, query));
+    }
+
     private void showOnlyProgressBar() {
         gridView.setVisibility(View.GONE);
         txtvError.setVisibility(View.GONE);
@@ -0,0 +1,154 @@
+package de.danoeh.antennapod.ui.glide;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Approximates a gaussian blur with three passes of a box blur.
+ * Each pass blurs the rows and then the columns, so the cost does not depend on the radius.
+ * Rows and columns are distributed between the threads of a {@link ForkJoinPool}.
+ * The pixel buffers are kept per thread and reused, so blurring does not allocate.
+ */
+public class BlurEngine {
+    private static final int PASSES = 3;
+    private static final int MIN_PIXELS_PER_TASK = 16 * 1024;
+    private static final int DIVISION_SHIFT = 16;
+    private static final int MAX_RADIUS = 64;
+    private static BlurEngine instance;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<int[][]> buffers = new ThreadLocal<int[][]>() {
+        @Override
+        protected int[][] initialValue() {
+            return new int[2][0];
+        }
+    };
+
+    public BlurEngine(@NonNull ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static synchronized BlurEngine getInstance() {
+        if (instance == null) {
+            instance = new BlurEngine(new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+        }
+        return instance;
+    }
+
+    /**
+     * Blurs the bitmap in place. The result is opaque.
+     */
+    public void blur(@NonNull Bitmap bitmap, int radius) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int[][] threadBuffers = buffers.get();
+        if (threadBuffers[0].length < width * height) {
+            threadBuffers[0] = new int[width * height];
+            threadBuffers[1] = new int[width * height];
+        }
+        bitmap.getPixels(threadBuffers[0], 0, width, 0, 0, width, height);
+        blur(threadBuffers[0], threadBuffers[1], width, height, radius);
+        bitmap.setPixels(threadBuffers[0], 0, width, 0, 0, width, height);
+    }
+
+    /**
+     * Blurs ARGB pixels in place. The result is opaque.
+     *
+     * @param pixels the pixels, row by row
+     * @param temp a buffer that is at least as large as the image
+     */
+    public void blur(@NonNull int[] pixels, @NonNull int[] temp, int width, int height, int radius) {
+        if (radius < 1 || width < 1 || height < 1) {
+            return;
+        }
+        radius = Math.min(radius, MAX_RADIUS);
+        for (int pass = 0; pass < PASSES; pass++) {
+            // Blurring the rows writes the image transposed, so the columns can be read as rows again
+            run(new LineTask(pixels, temp, width, height, radius));
+            run(new LineTask(temp, pixels, height, width, radius));
+        }
+    }
+
+    private void run(LineTask task) {
+        if (task.width * task.height <= MIN_PIXELS_PER_TASK) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Blurs the rows from start to end of src and writes them as columns of dst.
+     */
+    private static class LineTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int width;
+        private final int height;
+        private final int radius;
+        private final int start;
+        private final int end;
+
+        LineTask(int[] src, int[] dst, int width, int height, int radius) {
+            this(src, dst, width, height, radius, 0, height);
+        }
+
+        private LineTask(int[] src, int[] dst, int width, int height, int radius, int start, int end) {
+            this.src = src;
+            this.dst = dst;
+            this.width = width;
+            this.height = height;
+            this.radius = radius;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if ((end - start) * width > MIN_PIXELS_PER_TASK && end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new LineTask(src, dst, width, height, radius, start, middle),
+                        new LineTask(src, dst, width, height, radius, middle, end));
+                return;
+            }
+            for (int row = start; row < end; row++) {
+                blurRow(src, dst, row, width, height, radius);
+            }
+        }
+    }
+
+    /**
+     * Box blur of one row with a sliding window. Pixels outside the image repeat the edge.
+     * The result is written to the column with the same index in the transposed image.
+     */
+    static void blurRow(int[] src, int[] dst, int row, int width, int height, int radius) {
+        // Dividing by the window size is replaced by a multiplication and a shift
+        int multiplier = (1 << DIVISION_SHIFT) / (2 * radius + 1) + 1;
+        int last = width - 1;
+        int offset = row * width;
+        int red = 0;
+        int green = 0;
+        int blue = 0;
+        for (int i = -radius; i <= radius; i++) {
+            int pixel = src[offset + Math.min(last, Math.max(i, 0))];
+            red += (pixel >> 16) & 0xff;
+            green += (pixel >> 8) & 0xff;
+            blue += pixel & 0xff;
+        }
+        int target = row;
+        for (int x = 0; x < width; x++) {
+            dst[target] = 0xff000000 | (((red * multiplier) >>> DIVISION_SHIFT) << 16)
+                    | (((green * multiplier) >>> DIVISION_SHIFT) << 8) | ((blue * multiplier) >>> DIVISION_SHIFT);
+            target += height;
+            int added = src[offset + Math.min(last, x + radius + 1)];
+            int removed = src[offset + Math.max(0, x - radius)];
+            red += ((added >> 16) & 0xff) - ((removed >> 16) & 0xff);
+            green += ((added >> 8) & 0xff) - ((removed >> 8) & 0xff);
+            blue += (added & 0xff) - (removed & 0xff);
+        }
+    }
+}
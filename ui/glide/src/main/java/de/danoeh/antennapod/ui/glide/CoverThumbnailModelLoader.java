@@ -0,0 +1,111 @@
+package de.danoeh.antennapod.ui.glide;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.signature.ObjectKey;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+
+/**
+ * Loads remote images from the {@link CoverThumbnailStore} if a thumbnail of a suitable size exists.
+ * Otherwise, the next loader downloads the full image.
+ */
+public final class CoverThumbnailModelLoader implements ModelLoader<String, InputStream> {
+    public static class Factory implements ModelLoaderFactory<String, InputStream> {
+        private final Context context;
+
+        public Factory(Context context) {
+            this.context = context.getApplicationContext();
+        }
+
+        @NonNull
+        @Override
+        public ModelLoader<String, InputStream> build(@NonNull MultiModelLoaderFactory unused) {
+            return new CoverThumbnailModelLoader(context);
+        }
+
+        @Override
+        public void teardown() {
+            // Do nothing.
+        }
+    }
+
+    private final Context context;
+
+    public CoverThumbnailModelLoader(Context context) {
+        this.context = context;
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull String model, int width, int height, @NonNull Options options) {
+        if (width == Target.SIZE_ORIGINAL || height == Target.SIZE_ORIGINAL) {
+            return null;
+        }
+        File thumbnail = CoverThumbnailStore.getThumbnail(context, model, Math.max(width, height));
+        if (thumbnail == null) {
+            return null;
+        }
+        return new LoadData<>(new ObjectKey(thumbnail.getName() + "@" + thumbnail.lastModified()),
+                new ThumbnailFetcher(thumbnail));
+    }
+
+    @Override
+    public boolean handles(@NonNull String model) {
+        return model.startsWith("http");
+    }
+
+    static class ThumbnailFetcher implements DataFetcher<InputStream> {
+        private final File file;
+        private InputStream stream;
+
+        ThumbnailFetcher(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+            try {
+                stream = new FileInputStream(file);
+                callback.onDataReady(stream);
+            } catch (FileNotFoundException e) {
+                callback.onLoadFailed(e);
+            }
+        }
+
+        @Override
+        public void cleanup() {
+            IOUtils.closeQuietly(stream);
+        }
+
+        @Override
+        public void cancel() {
+            // cannot cancel
+        }
+
+        @NonNull
+        @Override
+        public Class<InputStream> getDataClass() {
+            return InputStream.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return DataSource.LOCAL;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package de.danoeh.antennapod.ui.glide;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.FutureTarget;
+import com.bumptech.glide.request.RequestOptions;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Persistent store of cover images, pre-scaled to a few fixed sizes.
+ * The thumbnails are generated in the background when a feed is refreshed,
+ * so that lists can show covers without a network request or decoding the full image.
+ */
+public class CoverThumbnailStore {
+    private static final String TAG = "CoverThumbnailStore";
+    private static final String DIRECTORY = "cover_thumbnails";
+    private static final int[] SIZES = {160, 320, 640};
+    private static final int QUALITY = 85;
+
+    private CoverThumbnailStore() {
+    }
+
+    /**
+     * Returns the smallest stored thumbnail that is at least as large as the given size.
+     *
+     * @return the thumbnail file, or null if no thumbnail with that size exists
+     */
+    @Nullable
+    public static File getThumbnail(@NonNull Context context, @NonNull String imageUrl, int size) {
+        for (int thumbnailSize : SIZES) {
+            if (thumbnailSize >= size) {
+                File file = getFile(context, imageUrl, thumbnailSize);
+                return file.exists() ? file : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Generates the thumbnails of all given images that do not have thumbnails yet.
+     */
+    @WorkerThread
+    public static void generateMissing(@NonNull Context context, @NonNull Collection<String> imageUrls) {
+        for (String imageUrl : imageUrls) {
+            if (TextUtils.isEmpty(imageUrl) || !imageUrl.startsWith("http")) {
+                continue;
+            }
+            if (getFile(context, imageUrl, SIZES[SIZES.length - 1]).exists()) {
+                continue;
+            }
+            try {
+                generate(context, imageUrl);
+            } catch (Exception e) {
+                Log.d(TAG, "Unable to create thumbnails of " + imageUrl + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes the thumbnails of all images that are not in the given list.
+     */
+    @WorkerThread
+    public static void retainOnly(@NonNull Context context, @NonNull Collection<String> imageUrls) {
+        Set<String> keep = new HashSet<>();
+        for (String imageUrl : imageUrls) {
+            if (!TextUtils.isEmpty(imageUrl)) {
+                for (int size : SIZES) {
+                    keep.add(getFile(context, imageUrl, size).getName());
+                }
+            }
+        }
+        File[] files = getDirectory(context).listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!keep.contains(file.getName())) {
+                FileUtils.deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void generate(Context context, String imageUrl) throws Exception {
+        int largestSize = SIZES[SIZES.length - 1];
+        FutureTarget<Bitmap> target = Glide.with(context)
+                .asBitmap()
+                .load(imageUrl)
+                .apply(new RequestOptions().centerInside())
+                .submit(largestSize, largestSize);
+        try {
+            Bitmap source = target.get();
+            // Write the largest size last, it marks the thumbnails of this image as complete
+            for (int size : SIZES) {
+                float scale = Math.min(1f, (float) size / Math.max(source.getWidth(), source.getHeight()));
+                Bitmap scaled = Bitmap.createScaledBitmap(source,
+                        Math.max(1, Math.round(source.getWidth() * scale)),
+                        Math.max(1, Math.round(source.getHeight() * scale)), true);
+                write(scaled, getFile(context, imageUrl, size));
+                if (scaled != source) {
+                    scaled.recycle();
+                }
+            }
+        } finally {
+            Glide.with(context).clear(target);
+        }
+    }
+
+    private static void write(Bitmap bitmap, File file) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Bitmap.CompressFormat format = Build.VERSION.SDK_INT < 30
+                ? Bitmap.CompressFormat.WEBP : Bitmap.CompressFormat.WEBP_LOSSY;
+        OutputStream out = new FileOutputStream(temp);
+        try {
+            bitmap.compress(format, QUALITY, out);
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+        if (!temp.renameTo(file)) {
+            FileUtils.deleteQuietly(temp);
+            throw new IOException("Unable to move " + temp + " to " + file);
+        }
+    }
+
+    private static File getDirectory(Context context) {
+        File directory = new File(context.getFilesDir(), DIRECTORY);
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.e(TAG, "Unable to create " + directory);
+        }
+        return directory;
+    }
+
+    private static File getFile(Context context, String imageUrl, int size) {
+        return new File(getDirectory(context), hash(imageUrl) + "_" + size + ".webp");
+    }
+
+    private static String hash(String imageUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(imageUrl.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(imageUrl.hashCode());
+        }
+    }
+}
@@ -14,7 +14,10 @@ import com.bumptech.glide.load.model.GlideUrl;
 import okhttp3.Call;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -28,14 +31,18 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
     private static final int MAX_DIMENSIONS = 1500;
     private static final int MAX_FILE_SIZE = 1024 * 1024; // 1 MB
 
-    private FileInputStream stream;
+    private InputStream stream;
     private File tempIn;
-    private File tempOut;
 
     public ResizingOkHttpStreamFetcher(Call.Factory client, GlideUrl url) {
         super(client, url);
     }
 
+    /**
+     * Images up to {@link #MAX_FILE_SIZE} are kept in memory and delivered as they are.
+     * Only larger images are written to a temporary file. Their size is read from the part
+     * that is already in memory, then they are decoded with a sample size and delivered re-encoded from memory.
+     */
     @Override
     public void loadData(@NonNull Priority priority, @NonNull DataFetcher.DataCallback<? super InputStream> callback) {
         super.loadData(priority, new DataFetcher.DataCallback<InputStream>() {
@@ -45,29 +52,32 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
                     callback.onDataReady(null);
                     return;
                 }
+                byte[] head;
                 try {
+                    head = IOUtils.toByteArray(new BoundedInputStream(data, MAX_FILE_SIZE + 1));
+                    if (head.length <= MAX_FILE_SIZE) {
+                        IOUtils.closeQuietly(data);
+                        stream = new ByteArrayInputStream(head);
+                        callback.onDataReady(stream); // Just deliver the original, non-scaled image
+                        return;
+                    }
                     tempIn = File.createTempFile("resize_", null);
-                    tempOut = File.createTempFile("resize_", null);
                     OutputStream outputStream = new FileOutputStream(tempIn);
+                    outputStream.write(head);
                     IOUtils.copy(data, outputStream);
                     outputStream.close();
                     IOUtils.closeQuietly(data);
+                } catch (IOException e) {
+                    IOUtils.closeQuietly(data);
+                    callback.onLoadFailed(e);
+                    return;
+                }
 
-                    if (tempIn.length() <= MAX_FILE_SIZE) {
-                        try {
-                            stream = new FileInputStream(tempIn);
-                            callback.onDataReady(stream); // Just deliver the original, non-scaled image
-                        } catch (FileNotFoundException fileNotFoundException) {
-                            callback.onLoadFailed(fileNotFoundException);
-                        }
-                        return;
-                    }
-
+                try {
                     BitmapFactory.Options options = new BitmapFactory.Options();
                     options.inJustDecodeBounds = true;
-                    FileInputStream in = new FileInputStream(tempIn);
-                    BitmapFactory.decodeStream(in, null, options);
-                    IOUtils.closeQuietly(in);
+                    // The header is at the beginning of the file
+                    BitmapFactory.decodeByteArray(head, 0, head.length, options);
 
                     if (options.outWidth == -1 || options.outHeight == -1) {
                         throw new IOException("Not a valid image");
@@ -77,26 +87,29 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
                     }
 
                     options.inJustDecodeBounds = false;
-                    in = new FileInputStream(tempIn);
+                    FileInputStream in = new FileInputStream(tempIn);
                     Bitmap bitmap = BitmapFactory.decodeStream(in, null, options);
                     IOUtils.closeQuietly(in);
+                    if (bitmap == null) {
+                        throw new IOException("Unable to decode image");
+                    }
 
                     Bitmap.CompressFormat format = Build.VERSION.SDK_INT < 30
                             ? Bitmap.CompressFormat.WEBP : Bitmap.CompressFormat.WEBP_LOSSY;
 
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(MAX_FILE_SIZE);
                     int quality = 100;
                     while (true) {
-                        FileOutputStream out = new FileOutputStream(tempOut);
+                        out.reset();
                         bitmap.compress(format, quality, out);
-                        IOUtils.closeQuietly(out);
 
-                        if (tempOut.length() > 3 * MAX_FILE_SIZE && quality >= 45) {
+                        if (out.size() > 3 * MAX_FILE_SIZE && quality >= 45) {
                             quality -= 40;
-                        } else if (tempOut.length() > 2 * MAX_FILE_SIZE && quality >= 25) {
+                        } else if (out.size() > 2 * MAX_FILE_SIZE && quality >= 25) {
                             quality -= 20;
-                        } else if (tempOut.length() > MAX_FILE_SIZE && quality >= 15) {
+                        } else if (out.size() > MAX_FILE_SIZE && quality >= 15) {
                             quality -= 10;
-                        } else if (tempOut.length() > MAX_FILE_SIZE && quality >= 10) {
+                        } else if (out.size() > MAX_FILE_SIZE && quality >= 10) {
                             quality -= 5;
                         } else {
                             break;
@@ -104,10 +117,10 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
                     }
                     bitmap.recycle();
 
-                    stream = new FileInputStream(tempOut);
+                    stream = new ByteArrayInputStream(out.toByteArray());
                     callback.onDataReady(stream);
                     Log.d(TAG, "Compressed image from " + tempIn.length() / 1024
-                            + " to " + tempOut.length() / 1024 + " kB (quality: " + quality + "%)");
+                            + " to " + out.size() / 1024 + " kB (quality: " + quality + "%)");
                 } catch (Throwable e) {
                     e.printStackTrace();
 
@@ -132,7 +145,6 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
     public void cleanup() {
         IOUtils.closeQuietly(stream);
         FileUtils.deleteQuietly(tempIn);
-        FileUtils.deleteQuietly(tempOut);
         super.cleanup();
     }
 }
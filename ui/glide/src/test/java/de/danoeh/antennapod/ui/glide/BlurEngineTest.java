@@ -0,0 +1,73 @@
+package de.danoeh.antennapod.ui.glide;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BlurEngineTest {
+
+    @Test
+    public void testUniformImageStaysUniform() {
+        int[] pixels = new int[20 * 10];
+        Arrays.fill(pixels, 0xff336699);
+        new BlurEngine(new ForkJoinPool(2)).blur(pixels, new int[pixels.length], 20, 10, 3);
+        for (int pixel : pixels) {
+            assertEquals(0xff336699, pixel);
+        }
+    }
+
+    @Test
+    public void testSpreadsBrightPixelSymmetrically() {
+        int size = 21;
+        int[] pixels = new int[size * size];
+        Arrays.fill(pixels, 0xff000000);
+        pixels[10 * size + 10] = 0xffffffff;
+        new BlurEngine(new ForkJoinPool(2)).blur(pixels, new int[pixels.length], size, size, 2);
+
+        int center = pixels[10 * size + 10] & 0xff;
+        assertTrue(center > 0 && center < 0xff);
+        assertEquals(pixels[10 * size + 8], pixels[10 * size + 12]);
+        assertEquals(pixels[8 * size + 10], pixels[12 * size + 10]);
+        assertEquals(0xff000000, pixels[0]);
+    }
+
+    @Test
+    public void testResultIsOpaque() {
+        int[] pixels = new int[8 * 8];
+        Arrays.fill(pixels, 0x00ffffff);
+        new BlurEngine(new ForkJoinPool(2)).blur(pixels, new int[pixels.length], 8, 8, 1);
+        for (int pixel : pixels) {
+            assertEquals(0xffffffff, pixel);
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSingleThreaded() {
+        int width = 400;
+        int height = 300;
+        int[] pixels = new int[width * height];
+        Random random = new Random(42);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = 0xff000000 | random.nextInt(0xffffff);
+        }
+        int[] expected = pixels.clone();
+        int[] temp = new int[pixels.length];
+        for (int pass = 0; pass < 3; pass++) {
+            for (int y = 0; y < height; y++) {
+                BlurEngine.blurRow(expected, temp, y, width, height, 4);
+            }
+            for (int x = 0; x < width; x++) {
+                BlurEngine.blurRow(temp, expected, x, height, width, 4);
+            }
+        }
+
+        new BlurEngine(new ForkJoinPool(4)).blur(pixels, new int[pixels.length], width, height, 4);
+        assertArrayEquals(expected, pixels);
+    }
+}